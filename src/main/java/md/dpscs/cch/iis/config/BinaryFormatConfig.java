@@ -0,0 +1,30 @@
+package md.dpscs.cch.iis.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Registers CBOR and Smile alongside JSON so high-volume internal consumers
+ * (booking integration, batch reconcilers) can negotiate a binary format:
+ * <pre>
+ *   Accept: application/cbor
+ *   Accept: application/x-jackson-smile
+ * </pre>
+ * JSON stays the default when no Accept header (or application/json) is sent.
+ * The DTOs carry the same Jackson annotations in every format, so dates keep
+ * their MM/dd/yyyy string shape.
+ */
+@Configuration
+public class BinaryFormatConfig implements WebMvcConfigurer {
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(CBORMapper.builder().build()));
+        builder.withSmileConverter(new JacksonSmileHttpMessageConverter(SmileMapper.builder().build()));
+    }
+}
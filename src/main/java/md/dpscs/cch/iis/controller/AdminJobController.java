@@ -0,0 +1,123 @@
+package md.dpscs.cch.iis.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import md.dpscs.cch.iis.dto.BulkDemographicsRequest;
+import md.dpscs.cch.iis.dto.JobStatusDTO;
+import md.dpscs.cch.iis.job.BulkDemographicsJob;
+import md.dpscs.cch.iis.job.EventCountsVerifyJob;
+import md.dpscs.cch.iis.job.ExtractLayout;
+import md.dpscs.cch.iis.job.ExtractLoadJob;
+import md.dpscs.cch.iis.job.SnapshotBackfillJob;
+import md.dpscs.cch.iis.job.SoundexRecomputeJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Admin-triggered background jobs. Restricted to the Data Integrity unit.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@PreAuthorize("hasAuthority('ROLE_CCH DATA INTEGRITY')")
+public class AdminJobController {
+
+    private final SnapshotBackfillJob snapshotBackfillJob;
+    private final BulkDemographicsJob bulkDemographicsJob;
+    private final ExtractLoadJob extractLoadJob;
+    private final SoundexRecomputeJob soundexRecomputeJob;
+    private final EventCountsVerifyJob eventCountsVerifyJob;
+
+    @PostMapping("/snapshots/backfill")
+    public ResponseEntity<JobStatusDTO> startSnapshotBackfill(
+            @RequestParam(defaultValue = "true") boolean onlyMissing,
+            @RequestParam(required = false) Long resumeAfter) {
+        return ResponseEntity.accepted().body(snapshotBackfillJob.start(onlyMissing, resumeAfter));
+    }
+
+    @GetMapping("/snapshots/backfill")
+    public ResponseEntity<JobStatusDTO> getSnapshotBackfillStatus() {
+        return ResponseEntity.ok(snapshotBackfillJob.status());
+    }
+
+    @PostMapping("/snapshots/backfill/cancel")
+    public ResponseEntity<JobStatusDTO> cancelSnapshotBackfill() {
+        return ResponseEntity.ok(snapshotBackfillJob.cancel());
+    }
+
+    // --- Bulk Demographic Corrections ---
+
+    @PostMapping("/demographics/bulk")
+    public ResponseEntity<JobStatusDTO> startBulkDemographics(@Valid @RequestBody BulkDemographicsRequest req,
+                                                              @AuthenticationPrincipal UserDetails user,
+                                                              HttpServletRequest request) {
+        return ResponseEntity.accepted().body(bulkDemographicsJob.start(req, user.getUsername(), request.getRemoteAddr()));
+    }
+
+    @GetMapping("/demographics/bulk")
+    public ResponseEntity<JobStatusDTO> getBulkDemographicsStatus() {
+        return ResponseEntity.ok(bulkDemographicsJob.status());
+    }
+
+    @PostMapping("/demographics/bulk/cancel")
+    public ResponseEntity<JobStatusDTO> cancelBulkDemographics() {
+        return ResponseEntity.ok(bulkDemographicsJob.cancel());
+    }
+
+    // --- Mainframe Extract Loads ---
+
+    @PostMapping("/extracts/load")
+    public ResponseEntity<JobStatusDTO> startExtractLoad(@RequestParam String file,
+                                                         @RequestParam ExtractLayout layout,
+                                                         @RequestParam(defaultValue = "false") boolean resume) {
+        return ResponseEntity.accepted().body(extractLoadJob.start(file, layout, resume));
+    }
+
+    @GetMapping("/extracts/load")
+    public ResponseEntity<JobStatusDTO> getExtractLoadStatus() {
+        return ResponseEntity.ok(extractLoadJob.status());
+    }
+
+    @PostMapping("/extracts/load/cancel")
+    public ResponseEntity<JobStatusDTO> cancelExtractLoad() {
+        return ResponseEntity.ok(extractLoadJob.cancel());
+    }
+
+    // --- Soundex Recomputation ---
+
+    @PostMapping("/names/soundex")
+    public ResponseEntity<JobStatusDTO> startSoundexRecompute(@RequestParam(required = false) Long resumeAfter) {
+        return ResponseEntity.accepted().body(soundexRecomputeJob.start(resumeAfter));
+    }
+
+    @GetMapping("/names/soundex")
+    public ResponseEntity<JobStatusDTO> getSoundexRecomputeStatus() {
+        return ResponseEntity.ok(soundexRecomputeJob.status());
+    }
+
+    @PostMapping("/names/soundex/cancel")
+    public ResponseEntity<JobStatusDTO> cancelSoundexRecompute() {
+        return ResponseEntity.ok(soundexRecomputeJob.cancel());
+    }
+
+    // --- Event Counter Verification ---
+
+    @PostMapping("/event-counts/verify")
+    public ResponseEntity<JobStatusDTO> startEventCountsVerify(@RequestParam(required = false) Long resumeAfter) {
+        return ResponseEntity.accepted().body(eventCountsVerifyJob.start(resumeAfter));
+    }
+
+    @GetMapping("/event-counts/verify")
+    public ResponseEntity<JobStatusDTO> getEventCountsVerifyStatus() {
+        return ResponseEntity.ok(eventCountsVerifyJob.status());
+    }
+
+    @PostMapping("/event-counts/verify/cancel")
+    public ResponseEntity<JobStatusDTO> cancelEventCountsVerify() {
+        return ResponseEntity.ok(eventCountsVerifyJob.cancel());
+    }
+}
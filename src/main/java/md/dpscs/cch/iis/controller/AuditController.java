@@ -1,12 +1,17 @@
 package md.dpscs.cch.iis.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import md.dpscs.cch.iis.dto.AuditLogPageDTO;
+import md.dpscs.cch.iis.service.AuditQueryService;
 import md.dpscs.cch.iis.service.AuditService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @RestController
@@ -14,9 +19,11 @@ import java.util.Map;
 public class AuditController {
 
     private final AuditService auditService;
+    private final AuditQueryService auditQueryService;
 
-    public AuditController(AuditService auditService) {
+    public AuditController(AuditService auditService, AuditQueryService auditQueryService) {
         this.auditService = auditService;
+        this.auditQueryService = auditQueryService;
     }
 
     @PostMapping("/log")
@@ -40,4 +47,26 @@ public class AuditController {
 
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Compliance read of the audit trail, newest first. Restricted to the Data Integrity unit.
+     */
+    @GetMapping("/logs")
+    @PreAuthorize("hasAuthority('ROLE_CCH DATA INTEGRITY')")
+    public ResponseEntity<AuditLogPageDTO> getAuditLogs(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String action,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to, // Exclusive, default now
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterTimestamp,
+            @RequestParam(required = false) Long afterId, // Cursor: nextAfterTimestamp / nextAfterId of the previous page
+            @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletRequest request) {
+
+        auditService.logAction(userDetails.getUsername(), request.getRemoteAddr(), "VIEW_AUDIT_LOG",
+                "User: " + username + ", Action: " + action + ", From: " + from + ", To: " + to);
+
+        return ResponseEntity.ok(auditQueryService.getPage(username, action, from, to, afterTimestamp, afterId, size));
+    }
+}
@@ -2,7 +2,11 @@ package md.dpscs.cch.iis.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import md.dpscs.cch.iis.dto.ExpungementBatchDTO;
+import md.dpscs.cch.iis.dto.ExpungementBatchRequest;
+import md.dpscs.cch.iis.dto.ExpungementPreviewDTO;
 import md.dpscs.cch.iis.dto.ExpungementRequest;
+import md.dpscs.cch.iis.job.ExpungementBatchJob;
 import md.dpscs.cch.iis.service.ExpungementService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -19,26 +23,14 @@ import java.util.Map;
 public class ExpungementController {
 
     private final ExpungementService expungementService;
+    private final ExpungementBatchJob expungementBatchJob;
 
     @PostMapping("/process")
     public ResponseEntity<?> processExpungement(@Valid @RequestBody ExpungementRequest req,
                                                 @AuthenticationPrincipal UserDetails user,
                                                 HttpServletRequest request) {
 
-        req.setUsername(user.getUsername());
-        req.setUserIp(request.getRemoteAddr());
-
-        // Logic: Check authorities to determine the business unit.
-        // Data Integrity takes precedence for Bulk Downgrade capabilities.
-        boolean isDataIntegrity = user.getAuthorities().stream()
-                .anyMatch(a -> "ROLE_CCH DATA INTEGRITY".equals(a.getAuthority()));
-
-        if (isDataIntegrity) {
-            req.setRequestingUnit("DATA_INTEGRITY");
-        } else {
-            // Default to Expungement Unit (or whatever standard logic applies)
-            req.setRequestingUnit("EXPUNGEMENT_UNIT");
-        }
+        stampRequester(req, user, request);
 
         // Capture the potential warning message from the service
         String warningMessage = expungementService.processExpungement(req);
@@ -58,4 +50,49 @@ public class ExpungementController {
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Dry run: which delete types the record currently allows, with the blocking reason or warning of each.
+     */
+    @GetMapping("/preview/{systemId}")
+    public ResponseEntity<ExpungementPreviewDTO> previewExpungement(@PathVariable Long systemId,
+                                                                    @AuthenticationPrincipal UserDetails user) {
+        return ResponseEntity.ok(expungementService.previewExpungement(systemId, requestingUnit(user)));
+    }
+
+    // --- Court Order Batches ---
+
+    @PostMapping("/batch")
+    public ResponseEntity<ExpungementBatchDTO> submitBatch(@Valid @RequestBody ExpungementBatchRequest req,
+                                                           @AuthenticationPrincipal UserDetails user,
+                                                           HttpServletRequest request) {
+        req.getItems().forEach(item -> stampRequester(item, user, request));
+        return ResponseEntity.accepted().body(expungementBatchJob.submit(req, user.getUsername(), request.getRemoteAddr()));
+    }
+
+    @GetMapping("/batch/{batchId}")
+    public ResponseEntity<ExpungementBatchDTO> getBatchStatus(@PathVariable String batchId) {
+        return ResponseEntity.ok(expungementBatchJob.status(batchId));
+    }
+
+    @PostMapping("/batch/{batchId}/cancel")
+    public ResponseEntity<ExpungementBatchDTO> cancelBatch(@PathVariable String batchId) {
+        return ResponseEntity.ok(expungementBatchJob.cancel(batchId));
+    }
+
+    private void stampRequester(ExpungementRequest req, UserDetails user, HttpServletRequest request) {
+        req.setUsername(user.getUsername());
+        req.setUserIp(request.getRemoteAddr());
+        req.setRequestingUnit(requestingUnit(user));
+    }
+
+    private String requestingUnit(UserDetails user) {
+        // Logic: Check authorities to determine the business unit.
+        // Data Integrity takes precedence for Bulk Downgrade capabilities.
+        boolean isDataIntegrity = user.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_CCH DATA INTEGRITY".equals(a.getAuthority()));
+
+        // Default to Expungement Unit (or whatever standard logic applies)
+        return isDataIntegrity ? "DATA_INTEGRITY" : "EXPUNGEMENT_UNIT";
+    }
+}
@@ -1,15 +1,23 @@
 package md.dpscs.cch.iis.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import md.dpscs.cch.iis.dto.DetailSection;
+import md.dpscs.cch.iis.dto.DocumentPageDTO;
 import md.dpscs.cch.iis.dto.PersonDetailDTO;
 import md.dpscs.cch.iis.dto.SearchCriteriaDTO;
 import md.dpscs.cch.iis.dto.SearchResultDTO;
 import md.dpscs.cch.iis.service.AuditService;
+import md.dpscs.cch.iis.service.DetailPayloadCache;
 import md.dpscs.cch.iis.service.DetailService;
+import md.dpscs.cch.iis.service.DocumentHistoryService;
 import md.dpscs.cch.iis.service.SearchService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,18 +25,29 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import tools.jackson.databind.ObjectMapper;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/api/ident")
 public class IdentIndexController {
 
+    // Formats of BinaryFormatConfig, in the converters' order (JSON wins a tie)
+    private static final List<MediaType> PRODUCIBLE = List.of(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, MediaType.valueOf("application/x-jackson-smile"));
+
     private final SearchService searchService;
     private final DetailService detailService;
+    private final DocumentHistoryService documentHistoryService;
     private final AuditService auditService;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public IdentIndexController(SearchService searchService, DetailService detailService, AuditService auditService) {
+    public IdentIndexController(SearchService searchService, DetailService detailService,
+                                DocumentHistoryService documentHistoryService, AuditService auditService) {
         this.searchService = searchService;
         this.detailService = detailService;
+        this.documentHistoryService = documentHistoryService;
         this.auditService = auditService;
     }
 
@@ -57,8 +76,9 @@ public class IdentIndexController {
     }
 
     @GetMapping("/{systemId}")
-    public ResponseEntity<PersonDetailDTO> getDetailRecord(
+    public ResponseEntity<?> getDetailRecord(
             @PathVariable Long systemId,
+            @RequestParam(required = false) String sections, // e.g. "names,documents" (default: all)
             @AuthenticationPrincipal UserDetails userDetails,
             HttpServletRequest request) {
 
@@ -67,7 +87,118 @@ public class IdentIndexController {
 
         auditService.logAction(username, ipAddress, "VIEW_DETAIL", "SystemID: " + systemId);
 
-        PersonDetailDTO details = detailService.getPersonDetails(systemId);
+        Set<DetailSection> requested = DetailSection.parse(sections);
+
+        // Full JSON view: write the cached, pre-serialized bytes directly
+        if (requested.equals(DetailSection.all()) && prefersJson(request)) {
+            DetailPayloadCache.Payload payload = detailService.getFullDetailPayload(systemId);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(request)) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip());
+            }
+            return response.body(payload.json());
+        }
+
+        PersonDetailDTO details = detailService.getPersonDetails(systemId, requested);
         return ResponseEntity.ok(details);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{systemId}/documents")
+    public ResponseEntity<DocumentPageDTO> getDocumentPage(
+            @PathVariable Long systemId,
+            @RequestParam String category, // ARREST, INDEX or REFER
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate,
+            @RequestParam(required = false) Long afterId, // Cursor: nextAfterDate / nextAfterId of the previous page
+            @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletRequest request) {
+
+        String username = userDetails.getUsername();
+        String ipAddress = request.getRemoteAddr();
+
+        auditService.logAction(username, ipAddress, "VIEW_DOCUMENTS", "SystemID: " + systemId + ", Category: " + category);
+
+        DocumentPageDTO page = documentHistoryService.getPage(systemId, category, afterDate, afterId, size);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * True when JSON is the format the message converters would pick: of the producible formats, the one
+     * with the highest q-value, each taken from the most specific Accept range that covers it. Equal
+     * q-values go to the range listed first, then to JSON.
+     */
+    private static boolean prefersJson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) return true;
+
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false; // Leave the error response to the converters
+        }
+
+        MediaType best = null;
+        double bestQuality = 0;
+        int bestIndex = Integer.MAX_VALUE;
+        for (MediaType produced : PRODUCIBLE) {
+            int index = matchingRange(produced, accepted);
+            if (index < 0) continue;
+            double quality = accepted.get(index).getQualityValue();
+            if (quality > bestQuality || (quality == bestQuality && quality > 0 && index < bestIndex)) {
+                best = produced;
+                bestQuality = quality;
+                bestIndex = index;
+            }
+        }
+        return MediaType.APPLICATION_JSON.equals(best);
+    }
+
+    // Index of the most specific Accept range that includes the type, or -1
+    private static int matchingRange(MediaType produced, List<MediaType> accepted) {
+        int match = -1;
+        int matchWildcards = Integer.MAX_VALUE;
+        for (int i = 0; i < accepted.size(); i++) {
+            MediaType range = accepted.get(i);
+            if (!range.includes(produced)) continue;
+            int wildcards = (range.isWildcardType() ? 1 : 0) + (range.isWildcardSubtype() ? 1 : 0);
+            if (wildcards < matchWildcards) {
+                match = i;
+                matchWildcards = wildcards;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * True when Accept-Encoding allows gzip with a non-zero q-value, directly or through "*".
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (header == null) return false;
+
+        Double gzip = null;
+        Double any = null;
+        for (String entry : header.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.toLowerCase().startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) gzip = quality;
+            else if (coding.equals("*")) any = quality;
+        }
+        if (gzip != null) return gzip > 0;
+        return any != null && any > 0;
+    }
+}
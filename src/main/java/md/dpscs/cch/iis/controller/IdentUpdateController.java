@@ -3,6 +3,7 @@ package md.dpscs.cch.iis.controller;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import md.dpscs.cch.iis.dto.*;
+import md.dpscs.cch.iis.service.IdempotencyService;
 import md.dpscs.cch.iis.service.IdentUpdateService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -17,49 +18,77 @@ import java.util.List;
 public class IdentUpdateController {
 
     private final IdentUpdateService updateService;
+    private final IdempotencyService idempotency;
+
+    @PutMapping("/{systemId}")
+    public ResponseEntity<?> updateRecord(@PathVariable Long systemId,
+                                          @Valid @RequestBody UpdateRecordRequest req,
+                                          @AuthenticationPrincipal UserDetails user,
+                                          HttpServletRequest request,
+                                          @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotency.execute(idempotencyKey, user.getUsername(), request, req, () -> {
+            updateService.updateRecord(systemId, req, user.getUsername(), request.getRemoteAddr());
+            return ResponseEntity.ok().body("{\"message\": \"Record updated successfully\"}");
+        });
+    }
 
     @PutMapping("/{systemId}/demographics")
     public ResponseEntity<?> updateDemographics(@PathVariable Long systemId,
                                                 @Valid @RequestBody UpdateDemographicsRequest req,
                                                 @AuthenticationPrincipal UserDetails user,
-                                                HttpServletRequest request) {
-        updateService.updateDemographics(systemId, req, user.getUsername(), request.getRemoteAddr());
-        return ResponseEntity.ok().body("{\"message\": \"Record updated successfully\"}");
+                                                HttpServletRequest request,
+                                                @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotency.execute(idempotencyKey, user.getUsername(), request, req, () -> {
+            updateService.updateDemographics(systemId, req, user.getUsername(), request.getRemoteAddr());
+            return ResponseEntity.ok().body("{\"message\": \"Record updated successfully\"}");
+        });
     }
 
     @PutMapping("/{systemId}/true-name")
     public ResponseEntity<?> updateTrueName(@PathVariable Long systemId,
                                             @Valid @RequestBody UpdateNameRequest req,
                                             @AuthenticationPrincipal UserDetails user,
-                                            HttpServletRequest request) {
-        updateService.updateTrueName(systemId, req, user.getUsername(), request.getRemoteAddr());
-        return ResponseEntity.ok().body("{\"message\": \"Record updated successfully\"}");
+                                            HttpServletRequest request,
+                                            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotency.execute(idempotencyKey, user.getUsername(), request, req, () -> {
+            updateService.updateTrueName(systemId, req, user.getUsername(), request.getRemoteAddr());
+            return ResponseEntity.ok().body("{\"message\": \"Record updated successfully\"}");
+        });
     }
 
     @PutMapping("/{systemId}/aliases")
     public ResponseEntity<?> updateAliases(@PathVariable Long systemId,
                                            @RequestBody List<UpdateNameRequest> aliases,
                                            @AuthenticationPrincipal UserDetails user,
-                                           HttpServletRequest request) {
-        updateService.updateAliases(systemId, aliases, user.getUsername(), request.getRemoteAddr());
-        return ResponseEntity.ok().body("{\"message\": \"Record updated successfully\"}");
+                                           HttpServletRequest request,
+                                           @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotency.execute(idempotencyKey, user.getUsername(), request, aliases, () -> {
+            updateService.updateAliases(systemId, aliases, user.getUsername(), request.getRemoteAddr());
+            return ResponseEntity.ok().body("{\"message\": \"Record updated successfully\"}");
+        });
     }
 
     @PutMapping("/{systemId}/appended")
     public ResponseEntity<?> updateAppended(@PathVariable Long systemId,
                                             @RequestBody UpdateAppendedIdRequest req,
                                             @AuthenticationPrincipal UserDetails user,
-                                            HttpServletRequest request) {
-        updateService.updateAppendedIdentifiers(systemId, req, user.getUsername(), request.getRemoteAddr());
-        return ResponseEntity.ok().body("{\"message\": \"Record updated successfully\"}");
+                                            HttpServletRequest request,
+                                            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotency.execute(idempotencyKey, user.getUsername(), request, req, () -> {
+            updateService.updateAppendedIdentifiers(systemId, req, user.getUsername(), request.getRemoteAddr());
+            return ResponseEntity.ok().body("{\"message\": \"Record updated successfully\"}");
+        });
     }
 
     @PutMapping("/{systemId}/references")
     public ResponseEntity<?> updateReferences(@PathVariable Long systemId,
                                               @RequestBody List<DocumentDTO> documents,
                                               @AuthenticationPrincipal UserDetails user,
-                                              HttpServletRequest request) {
-        updateService.updateReferenceData(systemId, documents, user.getUsername(), request.getRemoteAddr());
-        return ResponseEntity.ok().body("{\"message\": \"Record updated successfully\"}");
+                                              HttpServletRequest request,
+                                              @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotency.execute(idempotencyKey, user.getUsername(), request, documents, () -> {
+            updateService.updateReferenceData(systemId, documents, user.getUsername(), request.getRemoteAddr());
+            return ResponseEntity.ok().body("{\"message\": \"Record updated successfully\"}");
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package md.dpscs.cch.iis.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class AuditLogDTO {
+    private Long id;
+    private String username;
+    private String action;
+    private String ipAddress;
+    private String details;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,16 @@
+package md.dpscs.cch.iis.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class AuditLogPageDTO {
+    private List<AuditLogDTO> entries; // Newest first
+    private boolean hasMore;
+
+    // Keyset cursor: pass back as afterTimestamp / afterId (same filters) to fetch the next page (null when no more pages)
+    private LocalDateTime nextAfterTimestamp;
+    private Long nextAfterId;
+}
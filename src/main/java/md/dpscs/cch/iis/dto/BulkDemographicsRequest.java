@@ -0,0 +1,43 @@
+package md.dpscs.cch.iis.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Mass correction of demographic code values (e.g. remapping a retired race or hair code).
+ * Only the fields that are sent are changed; null fields keep each record's current value.
+ */
+@Data
+public class BulkDemographicsRequest {
+
+    @NotEmpty(message = "At least one SystemID is required")
+    @Size(max = 100000, message = "At most 100000 SystemIDs per bulk update")
+    private List<Long> systemIds;
+
+    // --- Field Changes (same limits as UpdateDemographicsRequest) ---
+    @Size(max = 1, message = "Race must be 1 character")
+    private String race;
+
+    @Size(max = 1, message = "Sex must be 1 character")
+    private String sex;
+
+    @Size(max = 2, message = "POB must be 2 characters")
+    private String placeOfBirth;
+
+    @Size(max = 3)
+    private String eyeColor;
+
+    @Size(max = 3)
+    private String hairColor;
+
+    @Size(max = 3)
+    private String skinTone;
+
+    @Size(max = 2)
+    private String citizenship;
+
+    private String reason; // Recorded in the audit trail
+}
@@ -0,0 +1,65 @@
+package md.dpscs.cch.iis.dto;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Selectable sections of the Person Detail view (?sections=names,documents,...).
+ * The header (master record) is always returned; each section controls which
+ * child tables are queried and which PersonDetailDTO lists are populated.
+ */
+public enum DetailSection {
+    NAMES("names"),                 // namesAndAliases + MAFIS pattern type
+    ADDRESSES("addresses"),         // addressHistory
+    FINGERPRINTS("fingerprints"),   // Henry & NCIC classifications
+    FLAGS("flags"),                 // flags + derived cautionFlag
+    SSNS("ssns"),                   // ssnHistory
+    LICENSES("licenses"),           // driverLicenses
+    IDENTIFIERS("identifiers"),     // secondaryIdentifiers (Misc Numbers + DL)
+    SCARS("scars"),                 // scarsAndMarks
+    DOBS("dobs"),                   // alternateDOBs
+    DOCUMENTS("documents");         // arrest / index / refer documents
+
+    private static final Set<DetailSection> ALL = Collections.unmodifiableSet(EnumSet.allOf(DetailSection.class));
+
+    private final String paramName;
+
+    DetailSection(String paramName) {
+        this.paramName = paramName;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    public static Set<DetailSection> all() {
+        return ALL;
+    }
+
+    /**
+     * Parses the comma-separated 'sections' request parameter.
+     * A missing or blank value selects every section (legacy behaviour).
+     */
+    public static Set<DetailSection> parse(String csv) {
+        if (csv == null || csv.isBlank()) return ALL;
+
+        EnumSet<DetailSection> selected = EnumSet.noneOf(DetailSection.class);
+        for (String token : csv.split(",")) {
+            String name = token.trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) continue;
+            if ("all".equals(name)) return ALL;
+            if ("header".equals(name)) continue; // Header is always included
+            selected.add(fromParam(name));
+        }
+        return selected;
+    }
+
+    private static DetailSection fromParam(String name) {
+        for (DetailSection section : values()) {
+            if (section.paramName.equals(name)) return section;
+        }
+        throw new IllegalArgumentException("Invalid detail section: " + name);
+    }
+}
@@ -0,0 +1,18 @@
+package md.dpscs.cch.iis.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class DocumentPageDTO {
+    private String category; // "ARREST", "INDEX", "REFER"
+    private Long totalCount; // Documents in the category; only on the first page (null with a cursor)
+    private List<DocumentDTO> documents;
+    private boolean hasMore;
+
+    // Keyset cursor: pass back as afterDate / afterId to fetch the next page (null when no more pages)
+    // (0001-01-01 stands for documents without a DocumentDate, which are listed last)
+    private LocalDate nextAfterDate;
+    private Long nextAfterId;
+}
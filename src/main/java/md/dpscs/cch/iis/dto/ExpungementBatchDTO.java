@@ -0,0 +1,14 @@
+package md.dpscs.cch.iis.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ExpungementBatchDTO {
+    private String batchId;
+    private String courtOrder;
+    private String submittedBy;
+    private JobStatusDTO progress;
+    private List<ExpungementBatchItemDTO> items;
+}
@@ -0,0 +1,17 @@
+package md.dpscs.cch.iis.dto;
+
+import lombok.Data;
+
+/**
+ * Outcome of one item of an expungement batch.
+ */
+@Data
+public class ExpungementBatchItemDTO {
+    private int index; // Position in the submitted list
+    private Long systemId;
+    private Long documentId;
+    private String deleteType;
+    private String status; // PENDING, SUCCESS, WARNING, FAILED, CANCELLED
+    private int attempts;
+    private String message;
+}
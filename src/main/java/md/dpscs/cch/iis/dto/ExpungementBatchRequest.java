@@ -0,0 +1,26 @@
+package md.dpscs.cch.iis.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One court order's worth of expungements, processed in the background.
+ * Items are the same requests POST /api/expungement/process accepts; items for the same SystemID
+ * are applied in the order given.
+ */
+@Data
+public class ExpungementBatchRequest {
+
+    @NotBlank(message = "Court order reference is required")
+    @Size(max = 50)
+    private String courtOrder;
+
+    @NotEmpty(message = "At least one expungement item is required")
+    @Size(max = 5000, message = "At most 5000 items per batch")
+    private List<@Valid ExpungementRequest> items;
+}
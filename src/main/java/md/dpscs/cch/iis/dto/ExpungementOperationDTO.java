@@ -0,0 +1,15 @@
+package md.dpscs.cch.iis.dto;
+
+import lombok.Data;
+
+/**
+ * Whether one delete type would currently be accepted for a record.
+ */
+@Data
+public class ExpungementOperationDTO {
+    private String deleteType; // CANCEL_ENTIRE, DOWNGRADE, PART_CANCEL, PARTIAL, CANCEL
+    private String target;     // RECORD, CRIMINAL_EVENT or NON_CRIMINAL_EVENT (the document that would be selected)
+    private boolean allowed;
+    private String reason;     // Why it is blocked (same text processExpungement would return)
+    private String warning;    // Returned on success, e.g. FBI owned
+}
@@ -0,0 +1,25 @@
+package md.dpscs.cch.iis.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dry run of the expungement rules for one record; nothing is locked or changed.
+ */
+@Data
+public class ExpungementPreviewDTO {
+    private Long systemId;
+    private String sid;
+    private String recordType;
+    private long criminalCount;
+    private long nonCriminalCount;
+    private LocalDate latestCriminalDate;
+    private boolean fbiOwned;
+    private String iiiStatus;
+    private boolean onIII;
+    private boolean rapbackActive;
+    private String requestingUnit;
+    private List<ExpungementOperationDTO> operations;
+}
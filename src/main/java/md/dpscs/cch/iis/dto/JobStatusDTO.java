@@ -0,0 +1,21 @@
+package md.dpscs.cch.iis.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class JobStatusDTO {
+    private String name;
+    private String status; // IDLE, RUNNING, COMPLETED, FAILED, CANCELLED
+    private long total;
+    private long processed;
+    private long failed;
+    private long skipped; // Left alone on purpose (e.g. changed concurrently)
+    private double rowsPerSecond;
+    private Long etaSeconds;
+    private String checkpoint; // Last key fully processed (resume point)
+    private String message;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Data;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Data
 public class PersonDetailDTO {
@@ -45,7 +46,9 @@ public class PersonDetailDTO {
     private List<SecondaryIDDTO> secondaryIdentifiers; // Misc Numbers
 
     // --- Reference Section ---
+    // First page of each category only; further pages via GET /api/ident/{systemId}/documents
     private List<DocumentDTO> arrestDocuments;
     private List<DocumentDTO> indexDocuments;
     private List<DocumentDTO> generalReferences;
+    private Map<String, Long> documentCounts; // Total per category: "ARREST", "INDEX", "REFER"
 }
\ No newline at end of file
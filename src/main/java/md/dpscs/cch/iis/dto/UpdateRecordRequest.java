@@ -0,0 +1,26 @@
+package md.dpscs.cch.iis.dto;
+
+import jakarta.validation.Valid;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * All sections of the edit screen in one request (PUT /api/ident/update/{systemId}).
+ * Each section has the same shape as its single-section endpoint; omitted (null) sections are left unchanged.
+ */
+@Data
+public class UpdateRecordRequest {
+
+    @Valid
+    private UpdateDemographicsRequest demographics;
+
+    @Valid
+    private UpdateNameRequest trueName;
+
+    private List<UpdateNameRequest> aliases;
+
+    private UpdateAppendedIdRequest appended;
+
+    private List<DocumentDTO> references;
+}
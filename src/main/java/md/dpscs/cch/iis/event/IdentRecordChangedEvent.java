@@ -0,0 +1,19 @@
+package md.dpscs.cch.iis.event;
+
+/**
+ * Published by every service that mutates an Ident record (T_IDENT_MASTER or any child table).
+ * Listeners that keep derived data in step (snapshots, caches) react to it.
+ *
+ * @param systemId The SystemID whose data changed.
+ * @param deleted  True when the whole record was removed (Cancel Entire).
+ */
+public record IdentRecordChangedEvent(Long systemId, boolean deleted) {
+
+    public static IdentRecordChangedEvent updated(Long systemId) {
+        return new IdentRecordChangedEvent(systemId, false);
+    }
+
+    public static IdentRecordChangedEvent deleted(Long systemId) {
+        return new IdentRecordChangedEvent(systemId, true);
+    }
+}
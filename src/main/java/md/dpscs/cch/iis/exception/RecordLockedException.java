@@ -0,0 +1,11 @@
+package md.dpscs.cch.iis.exception;
+
+/**
+ * Another writer held the record longer than the configured lock wait. Safe to retry.
+ */
+public class RecordLockedException extends IllegalStateException {
+
+    public RecordLockedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,288 @@
+package md.dpscs.cch.iis.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import md.dpscs.cch.iis.model.AuditLog;
+import md.dpscs.cch.iis.repository.AuditLogBatchWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Write-behind pipeline for T_AUDIT_LOG.
+ * <p>
+ * Callers only put the entry on a bounded in-memory queue; one writer thread drains it and inserts up to
+ * {@code ident.audit.batch-size} rows per transaction, at least every {@code ident.audit.flush-interval}.
+ * When the queue stays full for {@code ident.audit.offer-timeout} (the database is behind), the caller
+ * appends the entry to a spill file instead of waiting, and a batch that cannot be written within
+ * {@code ident.audit.write-timeout} is spilled the same way. Spill files are replayed oldest first once
+ * writes succeed again, including files left by a previous run. A replayed file is marked in the same
+ * transaction as its entries, so a crash before the file is deleted does not insert it twice. On shutdown
+ * the queue is flushed, and whatever could not be written is spilled, so no entry is dropped.
+ * </p>
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    // Spilled entries are appended here and sealed into audit-*.jsonl files of about one batch each
+    private static final String OPEN_SPILL_FILE = "audit-spill.current";
+
+    private record SpilledEntry(String username, String action, String ipAddress, String details, String timestamp) {
+    }
+
+    private final AuditLogBatchWriter batchWriter;
+    private final TransactionTemplate txTemplate;
+    private final BlockingQueue<AuditLog> queue;
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private final Thread writer;
+    private final Counter writtenCounter;
+    private final Counter spilledCounter;
+    private final Counter replayedCounter;
+
+    // Spill file names must stay unique across restarts: they key the replay markers
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final Object spillLock = new Object();
+    private int openSpillEntries;
+    private long sealedSpillFiles;
+    private volatile boolean spillPending = true; // Check for files left by a previous run
+    private volatile boolean running = true;
+
+    @Value("${ident.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${ident.audit.flush-interval:PT1S}")
+    private Duration flushInterval;
+
+    @Value("${ident.audit.offer-timeout:PT0.05S}")
+    private Duration offerTimeout;
+
+    @Value("${ident.audit.spill.directory:/data/ident/audit-spill}")
+    private Path spillDirectory;
+
+    @Value("${ident.audit.shutdown-timeout:PT30S}")
+    private Duration shutdownTimeout;
+
+    public AuditLogWriter(AuditLogBatchWriter batchWriter,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${ident.audit.queue-capacity:10000}") int capacity,
+                          @Value("${ident.audit.write-timeout:PT5S}") Duration writeTimeout) {
+        this.batchWriter = batchWriter;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.txTemplate.setTimeout((int) Math.max(1, writeTimeout.toSeconds()));
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = Thread.ofPlatform().name("audit-writer").daemon(true).unstarted(this::run);
+        this.writtenCounter = meterRegistry.counter("ident.audit.entries", "result", "written");
+        this.spilledCounter = meterRegistry.counter("ident.audit.entries", "result", "spilled");
+        this.replayedCounter = meterRegistry.counter("ident.audit.entries", "result", "replayed");
+        meterRegistry.gauge("ident.audit.queue.size", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    /**
+     * Hands the entry to the writer. Waits at most {@code ident.audit.offer-timeout} for queue space,
+     * then spills the entry to disk rather than holding up the request.
+     */
+    public void enqueue(AuditLog entry) {
+        if (running) {
+            try {
+                if (queue.offer(entry, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        spill(List.of(entry));
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(shutdownTimeout.toMillis());
+        if (writer.isAlive()) {
+            logger.warn("Audit writer did not finish within {}; spilling the remaining queue", shutdownTimeout);
+        }
+        List<AuditLog> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) spill(remaining);
+    }
+
+    private void run() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                break;
+            }
+            boolean written = batch.isEmpty() || flush(batch);
+            batch.clear();
+            // Catch up on spilled entries only while the database keeps up, one file per round
+            if (written && running) replayOneSpillFile();
+        }
+    }
+
+    /**
+     * Fills the batch until it is full or {@code ident.audit.flush-interval} has passed since the wait began.
+     */
+    private void collect(List<AuditLog> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        AuditLog first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) return;
+        batch.add(first);
+
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) continue;
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !running) return;
+            AuditLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) return;
+            batch.add(next);
+        }
+    }
+
+    private boolean flush(List<AuditLog> batch) {
+        try {
+            txTemplate.executeWithoutResult(status -> batchWriter.insert(batch));
+            writtenCounter.increment(batch.size());
+            return true;
+        } catch (Exception e) {
+            logger.warn("Failed to write {} audit entries, spilling to {}: {}", batch.size(), spillDirectory, e.getMessage());
+            spill(batch);
+            return false;
+        }
+    }
+
+    private void spill(List<AuditLog> entries) {
+        StringBuilder lines = new StringBuilder(entries.size() * 256);
+        for (AuditLog e : entries) {
+            lines.append(mapper.writeValueAsString(new SpilledEntry(e.getUsername(), e.getAction(),
+                    e.getIpAddress(), e.getDetails(), e.getTimestamp().toString()))).append('\n');
+        }
+
+        synchronized (spillLock) {
+            try {
+                Files.createDirectories(spillDirectory);
+                Files.writeString(spillDirectory.resolve(OPEN_SPILL_FILE), lines, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                spilledCounter.increment(entries.size());
+                spillPending = true;
+
+                openSpillEntries += entries.size();
+                if (openSpillEntries >= batchSize) sealOpenSpillFile();
+            } catch (IOException e) {
+                // Last resort: keep the entries in the application log rather than lose them
+                logger.error("Failed to spill {} audit entries to {}:\n{}", entries.size(), spillDirectory, lines, e);
+            }
+        }
+    }
+
+    private Path sealOpenSpillFile() throws IOException {
+        Path open = spillDirectory.resolve(OPEN_SPILL_FILE);
+        if (!Files.exists(open)) return null;
+        Path sealed = spillDirectory.resolve(String.format("audit-%013d-%06d-%s.jsonl",
+                System.currentTimeMillis(), sealedSpillFiles++, instanceId));
+        Files.move(open, sealed);
+        openSpillEntries = 0;
+        return sealed;
+    }
+
+    private void replayOneSpillFile() {
+        if (!spillPending) return;
+
+        Path file;
+        try {
+            synchronized (spillLock) {
+                file = oldestSealedSpillFile();
+                if (file == null) file = sealOpenSpillFile();
+                if (file == null) {
+                    spillPending = false;
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read audit spill directory {}: {}", spillDirectory, e.getMessage());
+            return;
+        }
+
+        String name = file.getFileName().toString();
+        try {
+            if (batchWriter.isReplayed(name)) {
+                // Inserted before, but the file outlived the commit (crash or failed delete)
+                deleteReplayed(file);
+                return;
+            }
+
+            List<AuditLog> entries = read(file);
+            txTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < entries.size(); from += batchSize) {
+                    batchWriter.insert(entries.subList(from, Math.min(from + batchSize, entries.size())));
+                }
+                batchWriter.markReplayed(name);
+            });
+            replayedCounter.increment(entries.size());
+            logger.info("Replayed {} spilled audit entries from {}", entries.size(), name);
+            deleteReplayed(file);
+        } catch (Exception e) {
+            logger.warn("Failed to replay audit spill file {}, will retry: {}", file, e.getMessage());
+        }
+    }
+
+    private void deleteReplayed(Path file) throws IOException {
+        Files.delete(file);
+        batchWriter.clearReplayed(file.getFileName().toString()); // A leftover marker only costs a row
+    }
+
+    private Path oldestSealedSpillFile() throws IOException {
+        if (!Files.isDirectory(spillDirectory)) return null;
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".jsonl"))
+                    .sorted()
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    private List<AuditLog> read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        List<AuditLog> entries = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            if (line.isBlank()) continue;
+            try {
+                SpilledEntry s = mapper.readValue(line, SpilledEntry.class);
+                AuditLog entry = new AuditLog(s.username(), s.action(), s.details(), s.ipAddress());
+                entry.setTimestamp(LocalDateTime.parse(s.timestamp()));
+                entries.add(entry);
+            } catch (Exception e) {
+                logger.error("Skipping unreadable audit spill line in {}: {}", file.getFileName(), line, e);
+            }
+        }
+        return entries;
+    }
+}
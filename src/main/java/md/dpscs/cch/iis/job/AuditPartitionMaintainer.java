@@ -0,0 +1,47 @@
+package md.dpscs.cch.iis.job;
+
+import md.dpscs.cch.iis.repository.AuditLogPartitions;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps {@code ident.audit.partitions.months-ahead} empty monthly partitions of T_AUDIT_LOG ahead of the
+ * current month, so new audit rows never land in the open-ended last partition and each split stays
+ * metadata-only. Does nothing while the table is not partitioned.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditPartitionMaintainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPartitionMaintainer.class);
+
+    private final AuditLogPartitions partitions;
+
+    @Value("${ident.audit.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Scheduled(cron = "${ident.audit.partitions.cron:0 30 1 * * *}")
+    public void ensureFuturePartitions() {
+        try {
+            LocalDate last = partitions.findLastBoundary();
+            if (last == null) {
+                logger.debug("T_AUDIT_LOG is not partitioned; skipping partition maintenance");
+                return;
+            }
+
+            LocalDate target = LocalDate.now().withDayOfMonth(1).plusMonths(monthsAhead);
+            for (LocalDate next = last.withDayOfMonth(1).plusMonths(1); !next.isAfter(target); next = next.plusMonths(1)) {
+                partitions.addBoundary(next);
+                logger.info("Added T_AUDIT_LOG partition boundary {}", next);
+            }
+        } catch (Exception e) {
+            logger.error("T_AUDIT_LOG partition maintenance failed", e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package md.dpscs.cch.iis.job;
+
+import md.dpscs.cch.iis.dto.BulkDemographicsRequest;
+import md.dpscs.cch.iis.dto.JobStatusDTO;
+import md.dpscs.cch.iis.event.IdentRecordChangedEvent;
+import md.dpscs.cch.iis.repository.IdentMasterRepository;
+import md.dpscs.cch.iis.repository.IdentNameRepository;
+import md.dpscs.cch.iis.service.AuditService;
+import md.dpscs.cch.iis.service.IdentUpdateService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Applies one set of demographic code changes to many SystemIDs (Data Integrity mass corrections).
+ * <p>
+ * The request is validated up front with the same rules as updateDemographics. The SystemIDs are
+ * then processed in ascending chunks, each chunk in its own transaction with one set-based UPDATE
+ * on T_IDENT_MASTER and one on T_IDENT_NAMES. SystemIDs that do not exist are skipped and counted
+ * as failed; change events are published only for the records that were updated.
+ * The checkpoint is the last SystemID of the last committed chunk.
+ * </p>
+ */
+@Component
+public class BulkDemographicsJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkDemographicsJob.class);
+
+    private final IdentMasterRepository masterRepo;
+    private final IdentNameRepository nameRepo;
+    private final IdentUpdateService updateService;
+    private final AuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate txTemplate;
+    private final JobProgress progress = new JobProgress("bulk-demographics");
+
+    @Value("${ident.bulk-demographics.chunk-size:500}")
+    private int chunkSize;
+
+    public BulkDemographicsJob(IdentMasterRepository masterRepo,
+                               IdentNameRepository nameRepo,
+                               IdentUpdateService updateService,
+                               AuditService auditService,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager) {
+        this.masterRepo = masterRepo;
+        this.nameRepo = nameRepo;
+        this.updateService = updateService;
+        this.auditService = auditService;
+        this.eventPublisher = eventPublisher;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public JobStatusDTO start(BulkDemographicsRequest request, String username, String ipAddress) {
+        Changes changes = Changes.of(request);
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("No demographic field changes were supplied.");
+        }
+        updateService.validateDemographicCodes(changes.race(), changes.sex());
+
+        List<Long> systemIds = new ArrayList<>(new TreeSet<>(request.getSystemIds())); // Sorted, de-duplicated
+        if (!progress.start(systemIds.size())) {
+            throw new IllegalStateException("A bulk demographic update is already running.");
+        }
+
+        auditService.logAction(username, ipAddress, "BULK_UPDATE_DEMOGRAPHICS_START",
+                "Records: " + systemIds.size() + ", Changes: " + changes + ", Reason: " + request.getReason());
+        Thread.ofPlatform().name("bulk-demographics").daemon(true)
+                .start(() -> run(systemIds, changes, username, ipAddress));
+        return progress.toStatus();
+    }
+
+    public JobStatusDTO status() {
+        return progress.toStatus();
+    }
+
+    public JobStatusDTO cancel() {
+        progress.cancel();
+        return progress.toStatus();
+    }
+
+    private void run(List<Long> systemIds, Changes changes, String username, String ipAddress) {
+        try {
+            for (int from = 0; from < systemIds.size() && !progress.isCancelled(); from += chunkSize) {
+                List<Long> chunk = systemIds.subList(from, Math.min(from + chunkSize, systemIds.size()));
+
+                int updated = txTemplate.execute(status -> applyChunk(chunk, changes));
+                progress.addProcessed(updated);
+                progress.addFailed(chunk.size() - updated);
+                progress.setCheckpoint(String.valueOf(chunk.getLast()));
+
+                auditService.logAction(username, ipAddress, "BULK_UPDATE_DEMOGRAPHICS",
+                        "Updated " + updated + " of " + chunk.size() + " records, SystemIDs "
+                                + chunk.getFirst() + ".." + chunk.getLast() + ": " + changes);
+            }
+            progress.complete();
+            logger.info("Bulk demographic update finished: {}", progress.toStatus());
+        } catch (Exception e) {
+            logger.error("Bulk demographic update failed after checkpoint {}", progress.getCheckpoint(), e);
+            progress.fail(e.getMessage());
+        }
+    }
+
+    private int applyChunk(List<Long> chunk, Changes changes) {
+        // Unknown SystemIDs must not reach the change events: the snapshot rebuild would fail the chunk
+        List<Long> existing = masterRepo.lockExistingSystemIds(chunk);
+        if (existing.isEmpty()) return 0;
+
+        int updated = masterRepo.bulkUpdateDemographics(existing,
+                changes.race(), changes.sex(), changes.placeOfBirth(), changes.eyeColor(),
+                changes.hairColor(), changes.skinTone(), changes.citizenship(), LocalDateTime.now());
+
+        if (changes.race() != null || changes.sex() != null) {
+            nameRepo.bulkUpdateRaceSex(existing, changes.race(), changes.sex());
+        }
+
+        // Snapshots and cached payloads follow the same change events as single-record edits
+        existing.forEach(id -> eventPublisher.publishEvent(IdentRecordChangedEvent.updated(id)));
+        return updated;
+    }
+
+    /**
+     * Normalized field changes; blank values mean "leave unchanged".
+     */
+    private record Changes(String race, String sex, String placeOfBirth, String eyeColor,
+                           String hairColor, String skinTone, String citizenship) {
+
+        static Changes of(BulkDemographicsRequest r) {
+            return new Changes(norm(r.getRace()), norm(r.getSex()), norm(r.getPlaceOfBirth()), norm(r.getEyeColor()),
+                    norm(r.getHairColor()), norm(r.getSkinTone()), norm(r.getCitizenship()));
+        }
+
+        boolean isEmpty() {
+            return race == null && sex == null && placeOfBirth == null && eyeColor == null
+                    && hairColor == null && skinTone == null && citizenship == null;
+        }
+
+        private static String norm(String value) {
+            return StringUtils.hasText(value) ? value.trim().toUpperCase() : null;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package md.dpscs.cch.iis.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import md.dpscs.cch.iis.dto.JobStatusDTO;
+import md.dpscs.cch.iis.repository.IdentMasterRepository;
+import md.dpscs.cch.iis.service.EventCountsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Verifies T_IDENT_EVENT_COUNTS against T_IDENT_DOCUMENTS and corrects any drift; also creates the
+ * counters of records that have none (initial backfill).
+ * <p>
+ * SystemIDs are read in keyset order; each chunk is recounted by one set-based MERGE in its own short
+ * transaction, which writes only rows that are missing or differ. Corrected rows are logged and counted
+ * in the {@code ident.event-counts.corrected} metric. The checkpoint is the last SystemID of the last
+ * committed chunk (resumeAfter).
+ * </p>
+ */
+@Component
+public class EventCountsVerifyJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventCountsVerifyJob.class);
+
+    private final IdentMasterRepository masterRepo;
+    private final EventCountsService eventCounts;
+    private final TransactionTemplate txTemplate;
+    private final Counter correctedCounter;
+    private final JobProgress progress = new JobProgress("event-counts-verify");
+
+    @Value("${ident.event-counts.verify.chunk-size:1000}")
+    private int chunkSize;
+
+    public EventCountsVerifyJob(IdentMasterRepository masterRepo,
+                                EventCountsService eventCounts,
+                                MeterRegistry meterRegistry,
+                                PlatformTransactionManager transactionManager) {
+        this.masterRepo = masterRepo;
+        this.eventCounts = eventCounts;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.correctedCounter = meterRegistry.counter("ident.event-counts.corrected");
+    }
+
+    public JobStatusDTO start(Long resumeAfter) {
+        long startAfter = resumeAfter != null ? resumeAfter : 0L;
+        long total = masterRepo.countSystemIdsAfter(startAfter);
+
+        if (!progress.start(total)) {
+            throw new IllegalStateException("Event counter verification is already running.");
+        }
+        progress.setCheckpoint(String.valueOf(startAfter));
+
+        Thread.ofPlatform().name("event-counts-verify").daemon(true).start(() -> run(startAfter));
+        return progress.toStatus();
+    }
+
+    public JobStatusDTO status() {
+        return progress.toStatus();
+    }
+
+    public JobStatusDTO cancel() {
+        progress.cancel();
+        return progress.toStatus();
+    }
+
+    private void run(long startAfter) {
+        long afterId = startAfter;
+        long corrected = 0;
+        try {
+            while (!progress.isCancelled()) {
+                List<Long> chunk = masterRepo.findSystemIdsAfter(afterId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) break;
+
+                Integer fixed = txTemplate.execute(status -> eventCounts.recount(chunk));
+                if (fixed != null && fixed > 0) {
+                    corrected += fixed;
+                    correctedCounter.increment(fixed);
+                    logger.info("Corrected {} event counter row(s) in SystemIDs {}..{}", fixed, chunk.getFirst(), chunk.getLast());
+                }
+
+                afterId = chunk.getLast();
+                progress.addProcessed(chunk.size());
+                progress.setCheckpoint(String.valueOf(afterId));
+            }
+            progress.complete();
+            logger.info("Event counter verification finished, {} row(s) corrected: {}", corrected, progress.toStatus());
+        } catch (Exception e) {
+            logger.error("Event counter verification failed after checkpoint {}", progress.getCheckpoint(), e);
+            progress.fail(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package md.dpscs.cch.iis.job;
+
+import jakarta.annotation.PreDestroy;
+import md.dpscs.cch.iis.dto.ExpungementBatchDTO;
+import md.dpscs.cch.iis.dto.ExpungementBatchItemDTO;
+import md.dpscs.cch.iis.dto.ExpungementBatchRequest;
+import md.dpscs.cch.iis.dto.ExpungementRequest;
+import md.dpscs.cch.iis.exception.RecordLockedException;
+import md.dpscs.cch.iis.service.AuditService;
+import md.dpscs.cch.iis.service.ExpungementService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs court-order expungement batches in the background.
+ * <p>
+ * Every item goes through {@link ExpungementService#processExpungement} in its own transaction, exactly
+ * as if it had been submitted on its own. Items are grouped by SystemID: each group runs in order on one
+ * worker, different groups run in parallel on a fixed pool of {@code ident.expungement.batch.threads}
+ * shared by all batches, so throughput is set by how many concurrent transactions the database should take.
+ * Lock timeouts and deadlocks are retried with a linear backoff; any other failure marks the item FAILED
+ * and the batch moves on. Recent batches are kept in memory for the status endpoint.
+ * </p>
+ */
+@Component
+public class ExpungementBatchJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpungementBatchJob.class);
+
+    private final ExpungementService expungementService;
+    private final AuditService auditService;
+    private final ExecutorService workers;
+    private final Map<String, Batch> batches;
+
+    @Value("${ident.expungement.batch.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${ident.expungement.batch.retry-delay:PT2S}")
+    private Duration retryDelay;
+
+    public ExpungementBatchJob(ExpungementService expungementService,
+                               AuditService auditService,
+                               @Value("${ident.expungement.batch.threads:4}") int threads,
+                               @Value("${ident.expungement.batch.retained:100}") int retained) {
+        this.expungementService = expungementService;
+        this.auditService = auditService;
+        this.workers = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("expungement-batch-", 0).daemon(true).factory());
+        this.batches = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Batch> eldest) {
+                return size() > retained && !eldest.getValue().progress.isRunning();
+            }
+        });
+    }
+
+    /**
+     * @param request items already carrying the submitting user, IP and requesting unit
+     */
+    public ExpungementBatchDTO submit(ExpungementBatchRequest request, String username, String ipAddress) {
+        List<ExpungementRequest> items = request.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getSystemId() == null) {
+                throw new IllegalArgumentException("Item " + i + ": SystemID is required.");
+            }
+        }
+
+        Batch batch = new Batch(UUID.randomUUID().toString(), request.getCourtOrder(), username, items);
+        batch.progress.start(items.size());
+        batches.put(batch.id, batch);
+
+        auditService.logAction(username, ipAddress, "EXPUNGEMENT_BATCH_START",
+                "Batch: " + batch.id + ", Court Order: " + batch.courtOrder + ", Items: " + items.size());
+
+        // Items of one SystemID stay in submission order on a single worker
+        Map<Long, List<Item>> bySystemId = new LinkedHashMap<>();
+        batch.items.forEach(item -> bySystemId.computeIfAbsent(item.request.getSystemId(), id -> new ArrayList<>()).add(item));
+
+        List<CompletableFuture<Void>> groups = new ArrayList<>(bySystemId.size());
+        for (List<Item> group : bySystemId.values()) {
+            groups.add(CompletableFuture.runAsync(() -> group.forEach(item -> process(batch, item)), workers));
+        }
+        CompletableFuture.allOf(groups.toArray(CompletableFuture[]::new))
+                .whenComplete((done, error) -> finish(batch, username, ipAddress));
+
+        return batch.toDTO();
+    }
+
+    public ExpungementBatchDTO status(String batchId) {
+        return find(batchId).toDTO();
+    }
+
+    /**
+     * Stops the batch after the items already running; the rest are marked CANCELLED.
+     */
+    public ExpungementBatchDTO cancel(String batchId) {
+        Batch batch = find(batchId);
+        batch.progress.cancel();
+        return batch.toDTO();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private Batch find(String batchId) {
+        Batch batch = batches.get(batchId);
+        if (batch == null) {
+            throw new IllegalArgumentException("Expungement batch not found: " + batchId);
+        }
+        return batch;
+    }
+
+    private void process(Batch batch, Item item) {
+        while (true) {
+            if (batch.progress.isCancelled()) {
+                item.status = "CANCELLED";
+                return;
+            }
+
+            item.attempts++;
+            try {
+                String warning = expungementService.processExpungement(item.request);
+                item.status = warning != null ? "WARNING" : "SUCCESS";
+                item.message = warning;
+                batch.progress.addProcessed(1);
+                return;
+            } catch (RecordLockedException | PessimisticLockingFailureException e) {
+                if (item.attempts >= maxAttempts) {
+                    fail(batch, item, e);
+                    return;
+                }
+                logger.info("Expungement batch {} item {} (SystemID {}) locked, retrying: {}",
+                        batch.id, item.index, item.request.getSystemId(), e.getMessage());
+                try {
+                    Thread.sleep(retryDelay.multipliedBy(item.attempts));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    fail(batch, item, e);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                fail(batch, item, e);
+                return;
+            }
+        }
+    }
+
+    private void fail(Batch batch, Item item, RuntimeException e) {
+        item.status = "FAILED";
+        item.message = e.getMessage();
+        batch.progress.addFailed(1);
+        logger.warn("Expungement batch {} item {} (SystemID {}) failed after {} attempt(s): {}",
+                batch.id, item.index, item.request.getSystemId(), item.attempts, e.getMessage());
+    }
+
+    private void finish(Batch batch, String username, String ipAddress) {
+        batch.progress.complete();
+        ExpungementBatchDTO result = batch.toDTO();
+        auditService.logAction(username, ipAddress, "EXPUNGEMENT_BATCH",
+                "Batch: " + batch.id + ", Court Order: " + batch.courtOrder + ", Status: " + result.getProgress().getStatus()
+                        + ", Processed: " + result.getProgress().getProcessed() + ", Failed: " + result.getProgress().getFailed());
+        logger.info("Expungement batch {} (court order {}) finished: {}", batch.id, batch.courtOrder, result.getProgress());
+    }
+
+    private static final class Batch {
+        final String id;
+        final String courtOrder;
+        final String submittedBy;
+        final List<Item> items;
+        final JobProgress progress = new JobProgress("expungement-batch");
+
+        Batch(String id, String courtOrder, String submittedBy, List<ExpungementRequest> requests) {
+            this.id = id;
+            this.courtOrder = courtOrder;
+            this.submittedBy = submittedBy;
+            this.items = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                items.add(new Item(i, requests.get(i)));
+            }
+        }
+
+        ExpungementBatchDTO toDTO() {
+            ExpungementBatchDTO dto = new ExpungementBatchDTO();
+            dto.setBatchId(id);
+            dto.setCourtOrder(courtOrder);
+            dto.setSubmittedBy(submittedBy);
+            dto.setProgress(progress.toStatus());
+            dto.setItems(items.stream().map(Item::toDTO).toList());
+            return dto;
+        }
+    }
+
+    private static final class Item {
+        final int index;
+        final ExpungementRequest request;
+        volatile String status = "PENDING";
+        volatile int attempts;
+        volatile String message;
+
+        Item(int index, ExpungementRequest request) {
+            this.index = index;
+            this.request = request;
+        }
+
+        ExpungementBatchItemDTO toDTO() {
+            ExpungementBatchItemDTO dto = new ExpungementBatchItemDTO();
+            dto.setIndex(index);
+            dto.setSystemId(request.getSystemId());
+            dto.setDocumentId(request.getDocumentId());
+            dto.setDeleteType(request.getDeleteType());
+            dto.setStatus(status);
+            dto.setAttempts(attempts);
+            dto.setMessage(message);
+            return dto;
+        }
+    }
+}
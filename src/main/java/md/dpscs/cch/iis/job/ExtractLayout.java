@@ -0,0 +1,68 @@
+package md.dpscs.cch.iis.job;
+
+/**
+ * Record layouts of the II-format extracts received from the mainframe.
+ * Every record starts with the 8-character SID; offsets are 0-based, dates are CCYYMMDD
+ * (blank or zeros = no date) and fingerprint patterns use the display characters.
+ */
+public enum ExtractLayout {
+
+    /** SID(8) NAME-TYPE(1) LAST(25) FIRST(15) MIDDLE(15) DOB(8) RACE(1) SEX(1) SEQ(3) */
+    NAMES(77),
+    /** SID(8) SSN(9) */
+    SSNS(17),
+    /** SID(8) LICENSE-NUMBER(22) STATE(3) */
+    DLS(33),
+    /** SID(8) CATEGORY(6) DOC-TYPE(3) DOC-NUMBER(20) DOC-DATE(8) DESCRIPTION(50) */
+    DOCUMENTS(45),
+    /** SID(8) RIGHT-HAND(5) LEFT-HAND(5) */
+    MAFIS(18);
+
+    static final Field SID = new Field(0, 8);
+
+    static final Field NAME_TYPE = new Field(8, 1);
+    static final Field LAST_NAME = new Field(9, 25);
+    static final Field FIRST_NAME = new Field(34, 15);
+    static final Field MIDDLE_NAME = new Field(49, 15);
+    static final Field NAME_DOB = new Field(64, 8);
+    static final Field RACE = new Field(72, 1);
+    static final Field SEX = new Field(73, 1);
+    static final Field SEQUENCE = new Field(74, 3);
+
+    static final Field SSN = new Field(8, 9);
+
+    static final Field LICENSE_NUMBER = new Field(8, 22);
+    static final Field LICENSE_STATE = new Field(30, 3);
+
+    static final Field DOC_CATEGORY = new Field(8, 6);
+    static final Field DOC_TYPE = new Field(14, 3);
+    static final Field DOC_NUMBER = new Field(17, 20);
+    static final Field DOC_DATE = new Field(37, 8);
+    static final Field DOC_DESCRIPTION = new Field(45, 50);
+
+    static final Field RIGHT_HAND = new Field(8, 5);
+    static final Field LEFT_HAND = new Field(13, 5);
+
+    private final int minLength;
+
+    ExtractLayout(int minLength) {
+        this.minLength = minLength;
+    }
+
+    /**
+     * Shortest valid record; trailing optional fields (e.g. a blank description) may be truncated.
+     */
+    int getMinLength() {
+        return minLength;
+    }
+
+    /**
+     * One fixed-width field. Reading is tolerant of records cut short after the last non-blank field.
+     */
+    record Field(int start, int length) {
+        String read(String record) {
+            if (record.length() <= start) return "";
+            return record.substring(start, Math.min(start + length, record.length())).trim();
+        }
+    }
+}
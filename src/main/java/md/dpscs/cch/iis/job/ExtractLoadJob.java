@@ -0,0 +1,441 @@
+package md.dpscs.cch.iis.job;
+
+import md.dpscs.cch.iis.dto.JobStatusDTO;
+import md.dpscs.cch.iis.event.IdentRecordChangedEvent;
+import md.dpscs.cch.iis.model.*;
+import md.dpscs.cch.iis.repository.ExtractChunkLedger;
+import md.dpscs.cch.iis.repository.IdentChildBatchWriter;
+import md.dpscs.cch.iis.repository.IdentMasterRepository;
+import md.dpscs.cch.iis.service.EventCountsService;
+import md.dpscs.cch.iis.util.MainframeDataUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads II-format fixed-width extracts (see ExtractLayout) into the T_IDENT_* tables.
+ * <p>
+ * The file is streamed by a single reader (FixedWidthRecordReader) and cut into chunks of records;
+ * a fixed worker pool resolves each chunk's SIDs with one query and writes it as JDBC batches in its own
+ * transaction. At most two chunks per worker are in memory at any time, whatever the file size.
+ * </p>
+ * <p>
+ * The checkpoint is the byte offset below which every chunk has committed. It is stored next to the
+ * extract as {@code <file>.checkpoint} so a failed, cancelled or interrupted load resumes there
+ * (resume=true). Each chunk is also listed in T_IDENT_EXTRACT_CHUNKS within its own transaction, and a
+ * resumed load skips the chunks listed there, so no chunk is loaded twice.
+ * Records whose SID is unknown or whose values do not parse are counted as failed and skipped.
+ * </p>
+ * <p>
+ * DOCUMENTS chunks recount the event counters and re-settle the Record Type of the records they touched;
+ * MAFIS chunks re-settle it too, since the prints decide between 'T' and 'N'. A MAFIS record with only
+ * one hand pattern is rejected, as on the Demographics screen.
+ * </p>
+ */
+@Component
+public class ExtractLoadJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractLoadJob.class);
+    private static final DateTimeFormatter CCYYMMDD = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final IdentMasterRepository masterRepo;
+    private final IdentChildBatchWriter batchWriter;
+    private final ExtractChunkLedger chunkLedger;
+    private final MainframeDataUtils utils;
+    private final EventCountsService eventCounts;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate txTemplate;
+    private final JobProgress progress = new JobProgress("extract-load");
+
+    @Value("${ident.extract.directory:/data/ident/extracts}")
+    private Path extractDirectory;
+
+    @Value("${ident.extract.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${ident.extract.threads:4}")
+    private int threads;
+
+    public ExtractLoadJob(IdentMasterRepository masterRepo,
+                          IdentChildBatchWriter batchWriter,
+                          ExtractChunkLedger chunkLedger,
+                          MainframeDataUtils utils,
+                          EventCountsService eventCounts,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager) {
+        this.masterRepo = masterRepo;
+        this.batchWriter = batchWriter;
+        this.chunkLedger = chunkLedger;
+        this.utils = utils;
+        this.eventCounts = eventCounts;
+        this.eventPublisher = eventPublisher;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @param fileName extract file inside the configured extract directory
+     * @param layout   record layout of the file
+     * @param resume   continue from the stored checkpoint instead of the start of the file
+     */
+    public JobStatusDTO start(String fileName, ExtractLayout layout, boolean resume) {
+        Path file = extractDirectory.resolve(fileName).normalize();
+        if (!file.startsWith(extractDirectory.normalize()) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Extract file not found: " + fileName);
+        }
+        long startOffset = resume ? readCheckpoint(file) : 0L;
+
+        if (!progress.start(0)) {
+            throw new IllegalStateException("An extract load is already running.");
+        }
+        progress.setCheckpoint(String.valueOf(startOffset));
+
+        String fileKey = extractDirectory.normalize().relativize(file).toString();
+        Thread.ofPlatform().name("extract-load").daemon(true).start(() -> run(file, fileKey, layout, resume, startOffset));
+        return progress.toStatus();
+    }
+
+    public JobStatusDTO status() {
+        return progress.toStatus();
+    }
+
+    public JobStatusDTO cancel() {
+        progress.cancel();
+        return progress.toStatus();
+    }
+
+    private void run(Path file, String fileKey, ExtractLayout layout, boolean resume, long startOffset) {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        Semaphore inFlight = new Semaphore(threads * 2); // Backpressure: never hold more than 2 chunks per worker
+        ConcurrentSkipListMap<Long, Long> pending = new ConcurrentSkipListMap<>(); // chunk start -> chunk end offset
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+
+        try (FixedWidthRecordReader reader = new FixedWidthRecordReader(file, startOffset)) {
+            // Chunks that committed past the checkpoint before the previous run stopped
+            NavigableMap<Long, Long> loaded = new TreeMap<>();
+            if (resume) loaded = chunkLedger.findLoaded(fileKey, startOffset);
+            else chunkLedger.clear(fileKey);
+
+            long fileSize = reader.size();
+            long recordsRead = 0;
+            long recordsSkipped = 0;
+
+            while (!progress.isCancelled() && errors.isEmpty()) {
+                long chunkStart = reader.offset();
+                List<String> records = new ArrayList<>(chunkSize);
+                String record;
+                while (records.size() < chunkSize) {
+                    Map.Entry<Long, Long> done = loaded.floorEntry(reader.offset());
+                    if (done != null && reader.offset() < done.getValue()) {
+                        if (!records.isEmpty()) break; // Chunks stay contiguous: end this one before the loaded range
+                        while (reader.offset() < done.getValue() && reader.next() != null) recordsSkipped++;
+                        chunkStart = reader.offset();
+                        continue;
+                    }
+                    if ((record = reader.next()) == null) break;
+                    records.add(record);
+                }
+                if (records.isEmpty()) break;
+
+                long chunkEnd = reader.offset();
+                long start = chunkStart;
+                recordsRead += records.size();
+                // Estimated total from the average record length seen so far
+                progress.setTotal(recordsRead + (fileSize - chunkEnd) * recordsRead / Math.max(chunkEnd - startOffset, 1));
+
+                inFlight.acquire();
+                pending.put(start, chunkEnd);
+                workers.submit(() -> {
+                    try {
+                        processChunk(layout, records, fileKey, start, chunkEnd);
+                        pending.remove(start);
+                        updateCheckpoint(file, pending, chunkEnd);
+                    } catch (Exception e) {
+                        // Leave the chunk pending so the checkpoint never moves past it
+                        logger.error("Extract chunk at offset {} of {} failed", start, file, e);
+                        errors.add(e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            if (recordsSkipped > 0) {
+                logger.info("Extract load of {} skipped {} records of chunks loaded by the previous run", file, recordsSkipped);
+            }
+            if (!errors.isEmpty()) {
+                progress.fail("Stopped at checkpoint " + progress.getCheckpoint() + ": " + errors.getFirst().getMessage());
+            } else {
+                JobStatusDTO done = progress.toStatus();
+                progress.setTotal(done.getProcessed() + done.getFailed());
+                progress.complete();
+                // A cancelled load can still be resumed; a finished one is at the end of the file
+                if (!progress.isCancelled()) chunkLedger.clear(fileKey);
+            }
+            logger.info("Extract load of {} ({}) finished: {}", file, layout, progress.toStatus());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+            progress.fail("Interrupted");
+        } catch (Exception e) {
+            logger.error("Extract load of {} failed", file, e);
+            workers.shutdownNow();
+            progress.fail(e.getMessage());
+        }
+    }
+
+    // ==================================================================================
+    // CHUNK PROCESSING
+    // ==================================================================================
+
+    private void processChunk(ExtractLayout layout, List<String> records, String fileKey, long chunkStart, long chunkEnd) {
+        txTemplate.executeWithoutResult(status -> {
+            Map<String, IdentMaster> masters = resolveMasters(records);
+            Set<Long> touched = new HashSet<>();
+            int failed = 0;
+
+            switch (layout) {
+                case NAMES -> {
+                    List<IdentName> rows = new ArrayList<>(records.size());
+                    for (String r : records) {
+                        IdentName row = parse(layout, r, masters, this::toName);
+                        if (row == null) failed++; else { rows.add(row); touched.add(row.getMaster().getSystemId()); }
+                    }
+                    batchWriter.insertNames(rows);
+                }
+                case SSNS -> {
+                    List<IdentSSN> rows = new ArrayList<>(records.size());
+                    for (String r : records) {
+                        IdentSSN row = parse(layout, r, masters, this::toSsn);
+                        if (row == null) failed++; else { rows.add(row); touched.add(row.getMaster().getSystemId()); }
+                    }
+                    batchWriter.insertSsns(rows);
+                }
+                case DLS -> {
+                    List<IdentDL> rows = new ArrayList<>(records.size());
+                    for (String r : records) {
+                        IdentDL row = parse(layout, r, masters, this::toDl);
+                        if (row == null) failed++; else { rows.add(row); touched.add(row.getMaster().getSystemId()); }
+                    }
+                    batchWriter.insertDriverLicenses(rows);
+                }
+                case DOCUMENTS -> {
+                    List<IdentDocument> rows = new ArrayList<>(records.size());
+                    for (String r : records) {
+                        IdentDocument row = parse(layout, r, masters, this::toDocument);
+                        if (row == null) failed++; else { rows.add(row); touched.add(row.getMaster().getSystemId()); }
+                    }
+                    batchWriter.insertDocuments(rows);
+                    // One set-based statement each per chunk; the Record Type rule reads the fresh counters
+                    eventCounts.recount(touched);
+                    if (!touched.isEmpty()) masterRepo.settleRecordTypes(touched, LocalDateTime.now());
+                }
+                case MAFIS -> {
+                    Map<Long, String> prints = new LinkedHashMap<>();
+                    for (String r : records) {
+                        IdentName row = parse(layout, r, masters, this::toMafis);
+                        if (row == null) failed++; else prints.put(row.getMaster().getSystemId(), row.getMafisFingerprint());
+                    }
+                    batchWriter.updateMafisFingerprints(prints);
+                    touched.addAll(prints.keySet());
+                    // The prints are an input of the Record Type rule (T vs N)
+                    if (!touched.isEmpty()) masterRepo.settleRecordTypes(touched, LocalDateTime.now());
+                }
+            }
+
+            chunkLedger.record(fileKey, chunkStart, chunkEnd);
+
+            // Snapshots and cached payloads follow the same change events as online edits
+            touched.forEach(id -> eventPublisher.publishEvent(IdentRecordChangedEvent.updated(id)));
+            progress.addProcessed(records.size() - failed);
+            progress.addFailed(failed);
+        });
+    }
+
+    private Map<String, IdentMaster> resolveMasters(List<String> records) {
+        Set<String> sids = new HashSet<>();
+        for (String r : records) {
+            String sid = ExtractLayout.SID.read(r);
+            if (!sid.isEmpty()) sids.add(sid);
+        }
+
+        Map<String, IdentMaster> masters = new HashMap<>(sids.size() * 2);
+        if (sids.isEmpty()) return masters;
+        for (Object[] row : masterRepo.findSystemIdsBySids(sids)) {
+            IdentMaster master = new IdentMaster(); // Reference only: the writers need the SystemID
+            master.setSid((String) row[0]);
+            master.setSystemId((Long) row[1]);
+            masters.put(master.getSid(), master);
+        }
+        return masters;
+    }
+
+    private interface RecordMapper<T> {
+        T map(String record, IdentMaster master);
+    }
+
+    private <T> T parse(ExtractLayout layout, String record, Map<String, IdentMaster> masters, RecordMapper<T> mapper) {
+        if (record.length() < layout.getMinLength()) {
+            logger.debug("Rejected short {} record: '{}'", layout, record);
+            return null;
+        }
+        IdentMaster master = masters.get(ExtractLayout.SID.read(record));
+        if (master == null) {
+            logger.debug("Rejected {} record for unknown SID: '{}'", layout, ExtractLayout.SID.read(record));
+            return null;
+        }
+        try {
+            return mapper.map(record, master);
+        } catch (RuntimeException e) {
+            logger.debug("Rejected {} record '{}': {}", layout, record, e.getMessage());
+            return null;
+        }
+    }
+
+    // ==================================================================================
+    // RECORD MAPPERS
+    // ==================================================================================
+
+    private IdentName toName(String r, IdentMaster master) {
+        IdentName n = new IdentName();
+        n.setMaster(master);
+        n.setNameType(ExtractLayout.NAME_TYPE.read(r).isEmpty() ? "A" : ExtractLayout.NAME_TYPE.read(r));
+        n.setLastName(required(ExtractLayout.LAST_NAME.read(r), "last name"));
+        n.setFirstName(required(ExtractLayout.FIRST_NAME.read(r), "first name"));
+
+        String mid = ExtractLayout.MIDDLE_NAME.read(r);
+        n.setMiddleName(mid);
+        n.setMiddleInitial(!mid.isEmpty() ? mid.substring(0, 1) : "");
+
+        n.setDateOfBirth(date(ExtractLayout.NAME_DOB.read(r)));
+        n.setRaceCode(blankToNull(ExtractLayout.RACE.read(r)));
+        n.setSexCode(blankToNull(ExtractLayout.SEX.read(r)));
+        n.setSoundexCode(utils.calculateStandardSoundex(n.getLastName()));
+
+        String seq = ExtractLayout.SEQUENCE.read(r);
+        n.setSequenceNumber(seq.isEmpty() ? null : Integer.valueOf(seq));
+        return n;
+    }
+
+    private IdentSSN toSsn(String r, IdentMaster master) {
+        String ssn = ExtractLayout.SSN.read(r);
+        if (ssn.length() != 9 || !ssn.chars().allMatch(Character::isDigit)) {
+            throw new IllegalArgumentException("Invalid SSN");
+        }
+        IdentSSN s = new IdentSSN();
+        s.setMaster(master);
+        s.setSsn(ssn);
+        s.setDateRecorded(LocalDateTime.now());
+        return s;
+    }
+
+    private IdentDL toDl(String r, IdentMaster master) {
+        IdentDL d = new IdentDL();
+        d.setMaster(master);
+        d.setLicenseNumber(required(ExtractLayout.LICENSE_NUMBER.read(r), "license number"));
+        d.setStateSource(blankToNull(ExtractLayout.LICENSE_STATE.read(r)));
+        return d;
+    }
+
+    private IdentDocument toDocument(String r, IdentMaster master) {
+        IdentDocument d = new IdentDocument();
+        d.setMaster(master);
+        d.setDocCategory(required(ExtractLayout.DOC_CATEGORY.read(r), "category").toUpperCase());
+        d.setDocumentType(required(ExtractLayout.DOC_TYPE.read(r), "document type"));
+        d.setDocumentNumber(ExtractLayout.DOC_NUMBER.read(r));
+        d.setDocumentDate(date(ExtractLayout.DOC_DATE.read(r)));
+        d.setDescription(ExtractLayout.DOC_DESCRIPTION.read(r));
+        return d;
+    }
+
+    private IdentName toMafis(String r, IdentMaster master) {
+        String rawRight = ExtractLayout.RIGHT_HAND.read(r);
+        String rawLeft = ExtractLayout.LEFT_HAND.read(r);
+        // Same rule as the Demographics screen: both hands are populated or cleared together
+        if (rawRight.isEmpty() != rawLeft.isEmpty()) {
+            throw new IllegalArgumentException("Only one hand pattern");
+        }
+
+        // Display characters (A, W, \, /, X, ?, U) to storage digits, as on the Demographics screen
+        String right = utils.convertDisplayToMafisHand(rawRight);
+        String left = utils.convertDisplayToMafisHand(rawLeft);
+
+        IdentName n = new IdentName();
+        n.setMaster(master);
+        n.setMafisFingerprint(right.isEmpty() && left.isEmpty() ? null : String.format("%-5s%-5s", right, left));
+        return n;
+    }
+
+    private static String required(String value, String field) {
+        if (value.isEmpty()) throw new IllegalArgumentException("Missing " + field);
+        return value;
+    }
+
+    private static String blankToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static LocalDate date(String ccyymmdd) {
+        if (ccyymmdd.isEmpty() || ccyymmdd.chars().allMatch(c -> c == '0')) return null;
+        return LocalDate.parse(ccyymmdd, CCYYMMDD);
+    }
+
+    // ==================================================================================
+    // CHECKPOINTS
+    // ==================================================================================
+
+    private void updateCheckpoint(Path file, ConcurrentSkipListMap<Long, Long> pending, long finishedEnd) {
+        // Everything below the lowest chunk still in flight (or failed) has committed
+        synchronized (progress) {
+            long checkpoint = pending.isEmpty() ? finishedEnd : pending.firstKey();
+            long current = Long.parseLong(progress.getCheckpoint());
+            if (checkpoint > current) {
+                progress.setCheckpoint(String.valueOf(checkpoint));
+                writeCheckpoint(file, checkpoint);
+            }
+        }
+    }
+
+    private static Path checkpointFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".checkpoint");
+    }
+
+    private static long readCheckpoint(Path file) {
+        Path checkpoint = checkpointFile(file);
+        try {
+            return Files.exists(checkpoint) ? Long.parseLong(Files.readString(checkpoint).trim()) : 0L;
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalStateException("Unreadable checkpoint " + checkpoint + ": " + e.getMessage());
+        }
+    }
+
+    private static void writeCheckpoint(Path file, long offset) {
+        Path checkpoint = checkpointFile(file);
+        Path tmp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try {
+            Files.writeString(tmp, Long.toString(offset));
+            Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write extract checkpoint {}: {}", checkpoint, e.getMessage());
+        }
+    }
+}
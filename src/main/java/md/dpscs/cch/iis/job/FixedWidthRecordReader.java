@@ -0,0 +1,84 @@
+package md.dpscs.cch.iis.job;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streams newline-terminated fixed-width records from a file through one reusable direct buffer,
+ * so memory use does not depend on the file size. Tracks the byte offset after the last record
+ * returned, which is what extract checkpoints store and what a restart seeks to.
+ * <p>
+ * Extracts arrive already converted from EBCDIC; bytes are decoded as ISO-8859-1 (one byte per character,
+ * so field offsets are byte offsets). LF and CRLF terminators are both accepted.
+ * </p>
+ */
+class FixedWidthRecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private byte[] record = new byte[512];
+    private long offset;
+
+    FixedWidthRecordReader(Path file, long startOffset) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.channel.position(startOffset);
+        this.offset = startOffset;
+        this.buffer.limit(0);
+    }
+
+    /**
+     * Returns the next record without its line terminator, or null at end of file.
+     */
+    String next() throws IOException {
+        int length = 0;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                buffer.flip();
+                if (read < 0) {
+                    return length > 0 ? decode(length) : null; // Last record without terminator
+                }
+            }
+
+            byte b = buffer.get();
+            offset++;
+            if (b == '\n') {
+                return decode(length);
+            }
+            if (length == record.length) {
+                record = Arrays.copyOf(record, record.length * 2);
+            }
+            record[length++] = b;
+        }
+    }
+
+    /**
+     * Byte offset just past the last record returned by next().
+     */
+    long offset() {
+        return offset;
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    private String decode(int length) {
+        if (length > 0 && record[length - 1] == '\r') length--;
+        return new String(record, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,123 @@
+package md.dpscs.cch.iis.job;
+
+import md.dpscs.cch.iis.dto.JobStatusDTO;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe progress tracker shared by the admin background jobs.
+ * Workers report processed / failed / skipped items; the status endpoint reads a consistent view
+ * including throughput and a simple linear ETA.
+ */
+public class JobProgress {
+
+    public enum Status { IDLE, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String name;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    private volatile Status status = Status.IDLE;
+    private volatile long total;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String checkpoint;
+    private volatile String message;
+
+    public JobProgress(String name) {
+        this.name = name;
+    }
+
+    public synchronized boolean start(long total) {
+        if (status == Status.RUNNING) return false;
+        this.total = total;
+        this.processed.set(0);
+        this.failed.set(0);
+        this.skipped.set(0);
+        this.startedAt = Instant.now();
+        this.finishedAt = null;
+        this.message = null;
+        this.status = Status.RUNNING;
+        return true;
+    }
+
+    public void addProcessed(long count) {
+        processed.addAndGet(count);
+    }
+
+    public void addFailed(long count) {
+        failed.addAndGet(count);
+    }
+
+    /** Items left alone on purpose, e.g. rows changed concurrently. */
+    public void addSkipped(long count) {
+        skipped.addAndGet(count);
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    /** Last key fully processed; a restarted run resumes after it. */
+    public void setCheckpoint(String checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public String getCheckpoint() {
+        return checkpoint;
+    }
+
+    public boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+
+    public void cancel() {
+        if (status == Status.RUNNING) status = Status.CANCELLED;
+    }
+
+    public boolean isCancelled() {
+        return status == Status.CANCELLED;
+    }
+
+    public synchronized void complete() {
+        if (status == Status.RUNNING) status = Status.COMPLETED;
+        finishedAt = Instant.now();
+    }
+
+    public synchronized void fail(String message) {
+        this.status = Status.FAILED;
+        this.message = message;
+        this.finishedAt = Instant.now();
+    }
+
+    public JobStatusDTO toStatus() {
+        JobStatusDTO dto = new JobStatusDTO();
+        dto.setName(name);
+        dto.setStatus(status.name());
+        dto.setTotal(total);
+        dto.setProcessed(processed.get());
+        dto.setFailed(failed.get());
+        dto.setSkipped(skipped.get());
+        dto.setCheckpoint(checkpoint);
+        dto.setMessage(message);
+        dto.setStartedAt(startedAt);
+        dto.setFinishedAt(finishedAt);
+
+        if (startedAt != null) {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0;
+            long done = processed.get() + failed.get() + skipped.get();
+            double rate = done / seconds;
+            dto.setRowsPerSecond(Math.round(rate * 10) / 10.0);
+
+            long remaining = total - done;
+            if (status == Status.RUNNING && rate > 0 && remaining > 0) {
+                dto.setEtaSeconds((long) Math.ceil(remaining / rate));
+            }
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,163 @@
+package md.dpscs.cch.iis.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import md.dpscs.cch.iis.model.IdentOutboxMessage;
+import md.dpscs.cch.iis.repository.IdentOutboxRepository;
+import md.dpscs.cch.iis.transport.OutboxTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains T_IDENT_OUTBOX through the configured OutboxTransport.
+ * <p>
+ * Each poll takes at most one due message per SID (the oldest undelivered one), claims it, and sends the
+ * batch on a small worker pool; the next poll starts only when the batch is done, so a slow downstream
+ * system backs messages up in the table rather than in memory. Failed sends are retried with exponential
+ * backoff up to {@code ident.outbox.max-attempts}, then marked FAILED so the SID's later messages proceed.
+ * </p>
+ * <p>
+ * Polls run on a dedicated thread rather than the shared {@code @Scheduled} one: a poll blocks until its
+ * sends finish and keeps draining a backlog, which would otherwise delay every other scheduled task.
+ * </p>
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final IdentOutboxRepository outboxRepo;
+    private final OutboxTransport transport;
+    private final TransactionTemplate txTemplate;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService poller;
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+
+    @Value("${ident.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${ident.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${ident.outbox.retry-base:PT5S}")
+    private Duration retryBase;
+
+    @Value("${ident.outbox.retry-max:PT30M}")
+    private Duration retryMax;
+
+    // A SENDING row is handed to another poll after this long (dispatcher died mid-send)
+    @Value("${ident.outbox.lease:PT5M}")
+    private Duration lease;
+
+    @Value("${ident.outbox.poll-interval:PT1S}")
+    private Duration pollInterval;
+
+    public OutboxDispatcher(IdentOutboxRepository outboxRepo,
+                            OutboxTransport transport,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${ident.outbox.threads:4}") int threads) {
+        this.outboxRepo = outboxRepo;
+        this.transport = transport;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("outbox-", 0).daemon(true).factory());
+        this.poller = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("outbox-poller").daemon(true).factory());
+        this.sentCounter = meterRegistry.counter("ident.outbox.messages", "result", "sent");
+        this.retryCounter = meterRegistry.counter("ident.outbox.messages", "result", "retry");
+        this.failedCounter = meterRegistry.counter("ident.outbox.messages", "result", "failed");
+    }
+
+    @PostConstruct
+    void start() {
+        poller.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void poll() {
+        try {
+            dispatch();
+        } catch (Exception e) {
+            // An exception would cancel the fixed-delay schedule; log it and poll again next time
+            logger.error("Outbox poll failed", e);
+        }
+    }
+
+    public void dispatch() {
+        List<IdentOutboxMessage> due;
+        do {
+            due = outboxRepo.findDueHeads(LocalDateTime.now(), PageRequest.ofSize(batchSize));
+
+            List<CompletableFuture<Void>> sends = new ArrayList<>(due.size());
+            for (IdentOutboxMessage message : due) {
+                if (!claim(message)) continue;
+                sends.add(CompletableFuture.runAsync(() -> deliver(message), workers));
+            }
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+        } while (due.size() == batchSize); // Keep draining a backlog without waiting for the next tick
+    }
+
+    private boolean claim(IdentOutboxMessage message) {
+        Integer claimed = txTemplate.execute(status ->
+                outboxRepo.claim(message.getId(), message.getAttempts(), LocalDateTime.now().plus(lease)));
+        if (claimed == null || claimed == 0) return false;
+        message.setAttempts(message.getAttempts() + 1);
+        return true;
+    }
+
+    private void deliver(IdentOutboxMessage message) {
+        try {
+            transport.send(message);
+            message.setStatus(IdentOutboxMessage.Status.SENT);
+            message.setSentAt(LocalDateTime.now());
+            message.setLastError(null);
+            sentCounter.increment();
+        } catch (Exception e) {
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            message.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+
+            if (message.getAttempts() >= maxAttempts) {
+                message.setStatus(IdentOutboxMessage.Status.FAILED);
+                failedCounter.increment();
+                logger.error("Outbox message {} ({} for SID {}) failed after {} attempts: {}",
+                        message.getId(), message.getMessageType(), message.getSid(), message.getAttempts(), error);
+            } else {
+                message.setStatus(IdentOutboxMessage.Status.PENDING);
+                message.setNextAttemptAt(LocalDateTime.now().plus(backoff(message.getAttempts())));
+                retryCounter.increment();
+                logger.warn("Outbox message {} ({} for SID {}) attempt {} failed, retrying at {}: {}",
+                        message.getId(), message.getMessageType(), message.getSid(), message.getAttempts(),
+                        message.getNextAttemptAt(), error);
+            }
+        }
+        outboxRepo.save(message);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBase.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(retryMax) > 0 ? retryMax : delay;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+        workers.shutdownNow();
+    }
+}
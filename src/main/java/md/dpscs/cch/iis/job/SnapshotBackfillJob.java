@@ -0,0 +1,161 @@
+package md.dpscs.cch.iis.job;
+
+import md.dpscs.cch.iis.dto.JobStatusDTO;
+import md.dpscs.cch.iis.repository.IdentMasterRepository;
+import md.dpscs.cch.iis.repository.IdentPersonSnapshotRepository;
+import md.dpscs.cch.iis.service.PersonSnapshotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds T_IDENT_PERSON_SNAPSHOT rows for existing records.
+ * <p>
+ * SystemIDs are read in keyset order and handed out as chunks to a fixed worker pool;
+ * each chunk is rebuilt in its own transaction. A failing chunk is retried one SID per
+ * transaction so a single bad record does not block its neighbours. The checkpoint is the
+ * highest SystemID below which every chunk has finished, so a cancelled or failed run can be
+ * resumed with resumeAfter=checkpoint.
+ * </p>
+ */
+@Component
+public class SnapshotBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotBackfillJob.class);
+
+    private final IdentMasterRepository masterRepo;
+    private final IdentPersonSnapshotRepository snapshotRepo;
+    private final PersonSnapshotService snapshotService;
+    private final TransactionTemplate txTemplate;
+    private final JobProgress progress = new JobProgress("snapshot-backfill");
+
+    @Value("${ident.snapshot.backfill.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${ident.snapshot.backfill.threads:4}")
+    private int threads;
+
+    public SnapshotBackfillJob(IdentMasterRepository masterRepo,
+                               IdentPersonSnapshotRepository snapshotRepo,
+                               PersonSnapshotService snapshotService,
+                               PlatformTransactionManager transactionManager) {
+        this.masterRepo = masterRepo;
+        this.snapshotRepo = snapshotRepo;
+        this.snapshotService = snapshotService;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public JobStatusDTO start(boolean onlyMissing, Long resumeAfter) {
+        long startAfter = resumeAfter != null ? resumeAfter : 0L;
+        long total = masterRepo.countSystemIdsAfter(startAfter);
+
+        if (!progress.start(total)) {
+            throw new IllegalStateException("Snapshot backfill is already running.");
+        }
+        progress.setCheckpoint(String.valueOf(startAfter));
+
+        Thread.ofPlatform().name("snapshot-backfill").daemon(true).start(() -> run(startAfter, onlyMissing));
+        return progress.toStatus();
+    }
+
+    public JobStatusDTO status() {
+        return progress.toStatus();
+    }
+
+    public JobStatusDTO cancel() {
+        progress.cancel();
+        return progress.toStatus();
+    }
+
+    private void run(long startAfter, boolean onlyMissing) {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        Semaphore inFlight = new Semaphore(threads * 2); // Backpressure: never queue more than 2 chunks per worker
+        ConcurrentSkipListMap<Long, Long> pending = new ConcurrentSkipListMap<>(); // chunk afterId -> chunk lastId
+        long afterId = startAfter;
+
+        try {
+            while (!progress.isCancelled()) {
+                List<Long> ids = masterRepo.findSystemIdsAfter(afterId, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) break;
+
+                long chunkAfter = afterId;
+                afterId = ids.getLast();
+
+                inFlight.acquire();
+                pending.put(chunkAfter, afterId);
+                workers.submit(() -> {
+                    try {
+                        processChunk(ids, onlyMissing);
+                    } finally {
+                        pending.remove(chunkAfter);
+                        updateCheckpoint(pending, ids.getLast());
+                        inFlight.release();
+                    }
+                });
+            }
+
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            progress.complete();
+            logger.info("Snapshot backfill finished: {}", progress.toStatus());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+            progress.fail("Interrupted");
+        } catch (Exception e) {
+            logger.error("Snapshot backfill failed", e);
+            workers.shutdownNow();
+            progress.fail(e.getMessage());
+        }
+    }
+
+    private void processChunk(List<Long> ids, boolean onlyMissing) {
+        List<Long> targets = ids;
+        if (onlyMissing) {
+            Set<Long> existing = new HashSet<>(snapshotRepo.findExistingIds(ids));
+            targets = ids.stream().filter(id -> !existing.contains(id)).toList();
+            progress.addProcessed(ids.size() - targets.size());
+        }
+        if (targets.isEmpty()) return;
+
+        List<Long> chunk = targets;
+        try {
+            txTemplate.executeWithoutResult(status -> chunk.forEach(snapshotService::rebuild));
+            progress.addProcessed(chunk.size());
+        } catch (Exception chunkError) {
+            logger.warn("Snapshot chunk {}..{} failed, retrying per record: {}",
+                    chunk.getFirst(), chunk.getLast(), chunkError.getMessage());
+            for (Long systemId : chunk) {
+                try {
+                    txTemplate.executeWithoutResult(status -> snapshotService.rebuild(systemId));
+                    progress.addProcessed(1);
+                } catch (Exception e) {
+                    logger.error("Snapshot rebuild failed for SystemID {}", systemId, e);
+                    progress.addFailed(1);
+                }
+            }
+        }
+    }
+
+    private void updateCheckpoint(ConcurrentSkipListMap<Long, Long> pending, long finishedLastId) {
+        // Everything up to the lowest chunk still in flight is done
+        synchronized (progress) {
+            long checkpoint = pending.isEmpty() ? finishedLastId : pending.firstKey();
+            long current = Long.parseLong(progress.getCheckpoint());
+            if (checkpoint > current) progress.setCheckpoint(String.valueOf(checkpoint));
+        }
+    }
+}
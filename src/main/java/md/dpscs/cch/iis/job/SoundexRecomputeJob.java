@@ -0,0 +1,196 @@
+package md.dpscs.cch.iis.job;
+
+import md.dpscs.cch.iis.dto.JobStatusDTO;
+import md.dpscs.cch.iis.repository.IdentChildBatchWriter;
+import md.dpscs.cch.iis.repository.IdentChildBatchWriter.SoundexUpdate;
+import md.dpscs.cch.iis.repository.IdentNameRepository;
+import md.dpscs.cch.iis.util.MainframeDataUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recomputes T_IDENT_NAMES.SoundexCode from LastName with MainframeDataUtils, e.g. after the
+ * algorithm changes or rows were written without it.
+ * <p>
+ * Names are read in NameID keyset ranges and handed as chunks to a small worker pool. Only rows
+ * whose code actually differs are written, as one JDBC batch per chunk in a short transaction, so
+ * the locks taken on the table searched by name are few and brief. A code is only written if the row
+ * still has the LastName and SoundexCode it was computed from; rows edited online in the meantime keep
+ * their fresh code and are counted as skipped. The reader is throttled to
+ * {@code ident.soundex.recompute.max-rows-per-second} to leave I/O headroom for live searches.
+ * The checkpoint is the highest NameID below which every chunk has finished (resumeAfter). A chunk
+ * whose write fails stops the job, and the checkpoint never moves past it.
+ * </p>
+ */
+@Component
+public class SoundexRecomputeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SoundexRecomputeJob.class);
+
+    private final IdentNameRepository nameRepo;
+    private final IdentChildBatchWriter batchWriter;
+    private final MainframeDataUtils utils;
+    private final TransactionTemplate txTemplate;
+    private final JobProgress progress = new JobProgress("soundex-recompute");
+
+    @Value("${ident.soundex.recompute.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${ident.soundex.recompute.threads:2}")
+    private int threads;
+
+    // 0 = unthrottled
+    @Value("${ident.soundex.recompute.max-rows-per-second:5000}")
+    private int maxRowsPerSecond;
+
+    public SoundexRecomputeJob(IdentNameRepository nameRepo,
+                               IdentChildBatchWriter batchWriter,
+                               MainframeDataUtils utils,
+                               PlatformTransactionManager transactionManager) {
+        this.nameRepo = nameRepo;
+        this.batchWriter = batchWriter;
+        this.utils = utils;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public JobStatusDTO start(Long resumeAfter) {
+        long startAfter = resumeAfter != null ? resumeAfter : 0L;
+        long total = nameRepo.countNamesAfter(startAfter);
+
+        if (!progress.start(total)) {
+            throw new IllegalStateException("Soundex recomputation is already running.");
+        }
+        progress.setCheckpoint(String.valueOf(startAfter));
+
+        Thread.ofPlatform().name("soundex-recompute").daemon(true).start(() -> run(startAfter));
+        return progress.toStatus();
+    }
+
+    public JobStatusDTO status() {
+        return progress.toStatus();
+    }
+
+    public JobStatusDTO cancel() {
+        progress.cancel();
+        return progress.toStatus();
+    }
+
+    private void run(long startAfter) {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        Semaphore inFlight = new Semaphore(threads * 2); // Backpressure: never queue more than 2 chunks per worker
+        ConcurrentSkipListMap<Long, Long> pending = new ConcurrentSkipListMap<>(); // chunk afterId -> chunk lastId
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        long afterId = startAfter;
+        long rowsRead = 0;
+        long startedNanos = System.nanoTime();
+
+        try {
+            while (!progress.isCancelled() && errors.isEmpty()) {
+                List<Object[]> rows = nameRepo.findSoundexRowsAfter(afterId, PageRequest.of(0, chunkSize));
+                if (rows.isEmpty()) break;
+
+                long chunkAfter = afterId;
+                long chunkLast = (Long) rows.getLast()[0];
+                afterId = chunkLast;
+
+                inFlight.acquire();
+                pending.put(chunkAfter, chunkLast);
+                workers.submit(() -> {
+                    try {
+                        processChunk(rows);
+                        pending.remove(chunkAfter);
+                        updateCheckpoint(pending, chunkLast);
+                    } catch (Exception e) {
+                        // Leave the chunk pending so the checkpoint never moves past it
+                        logger.error("Soundex chunk after NameID {} failed", chunkAfter, e);
+                        errors.add(e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+
+                rowsRead += rows.size();
+                throttle(rowsRead, startedNanos);
+            }
+
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            if (!errors.isEmpty()) {
+                progress.fail("Stopped at checkpoint " + progress.getCheckpoint() + ": " + errors.getFirst().getMessage());
+            } else {
+                progress.complete();
+            }
+            logger.info("Soundex recomputation finished: {}", progress.toStatus());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+            progress.fail("Interrupted");
+        } catch (Exception e) {
+            logger.error("Soundex recomputation failed", e);
+            workers.shutdownNow();
+            progress.fail(e.getMessage());
+        }
+    }
+
+    private void processChunk(List<Object[]> rows) {
+        List<SoundexUpdate> changed = new ArrayList<>();
+        int failed = 0;
+
+        for (Object[] row : rows) {
+            Long nameId = (Long) row[0];
+            String lastName = (String) row[1];
+            String current = (String) row[2];
+            try {
+                String soundex = utils.calculateStandardSoundex(lastName != null ? lastName.trim() : null);
+                if (!Objects.equals(soundex, current)) changed.add(new SoundexUpdate(nameId, lastName, current, soundex));
+            } catch (IllegalArgumentException e) {
+                // Characters the Soundex mapping does not cover; leave the stored code alone
+                logger.debug("Soundex not computable for NameID {} '{}': {}", nameId, lastName, e.getMessage());
+                failed++;
+            }
+        }
+
+        int skipped = 0;
+        if (!changed.isEmpty()) {
+            int updated = txTemplate.execute(status -> batchWriter.updateSoundexCodes(changed));
+            skipped = changed.size() - updated;
+        }
+        progress.addProcessed(rows.size() - failed - skipped);
+        progress.addFailed(failed);
+        progress.addSkipped(skipped);
+    }
+
+    /**
+     * Sleeps the reader until the average read rate is back under the configured limit.
+     */
+    private void throttle(long rowsRead, long startedNanos) throws InterruptedException {
+        if (maxRowsPerSecond <= 0) return;
+        long dueNanos = startedNanos + rowsRead * 1_000_000_000L / maxRowsPerSecond;
+        long waitNanos = dueNanos - System.nanoTime();
+        if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+
+    private void updateCheckpoint(ConcurrentSkipListMap<Long, Long> pending, long finishedLastId) {
+        // Everything up to the lowest chunk still in flight is done
+        synchronized (progress) {
+            long checkpoint = pending.isEmpty() ? finishedLastId : pending.firstKey();
+            long current = Long.parseLong(progress.getCheckpoint());
+            if (checkpoint > current) progress.setCheckpoint(String.valueOf(checkpoint));
+        }
+    }
+}
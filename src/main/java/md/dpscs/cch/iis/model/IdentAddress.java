@@ -1,9 +1,11 @@
 package md.dpscs.cch.iis.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.Data;
 
 @Entity
+@DynamicUpdate // UPDATE lists only the modified columns
 @Table(name = "T_IDENT_ADDRESS")
 @Data
 public class IdentAddress {
@@ -31,4 +31,9 @@ public class IdentDocument {
 
     @Column(name = "Description")
     private String description;
+
+    // Stored normalized so the document history queries can compare (and seek on) the raw column
+    public void setDocCategory(String docCategory) {
+        this.docCategory = docCategory != null ? docCategory.trim().toUpperCase() : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package md.dpscs.cch.iis.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Criminal / non-criminal event counts of one SystemID, kept in step with T_IDENT_DOCUMENTS
+ * by EventCountsService so record-type and expungement rules need not scan the documents.
+ */
+@Entity
+@Table(name = "T_IDENT_EVENT_COUNTS")
+@Getter
+@Setter
+public class IdentEventCounts {
+
+    @Id
+    @Column(name = "SystemID")
+    private Long systemId;
+
+    @Column(name = "CriminalCount", nullable = false)
+    private int criminalCount;
+
+    @Column(name = "NonCriminalCount", nullable = false)
+    private int nonCriminalCount;
+
+    @Column(name = "LatestCriminalDate")
+    private LocalDate latestCriminalDate;
+
+    @Column(name = "UpdatedAt", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,6 +1,7 @@
 package md.dpscs.cch.iis.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -9,6 +10,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@DynamicUpdate // UPDATE lists only the modified columns
 @Table(name = "T_IDENT_MASTER")
 @Getter
 @Setter
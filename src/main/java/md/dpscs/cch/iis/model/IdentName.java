@@ -1,10 +1,12 @@
 package md.dpscs.cch.iis.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.Data;
 import java.time.LocalDate;
 
 @Entity
+@DynamicUpdate // UPDATE lists only the modified columns
 @Table(name = "T_IDENT_NAMES")
 @Data
 public class IdentName {
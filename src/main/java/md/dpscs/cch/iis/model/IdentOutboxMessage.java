@@ -0,0 +1,63 @@
+package md.dpscs.cch.iis.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox for downstream notifications (IP07/DRS expungement transactions, III EHN messages).
+ * Rows are written in the same transaction as the Ident change and delivered later by OutboxDispatcher,
+ * in insertion order per SID.
+ */
+@Entity
+@Data
+@Table(name = "T_IDENT_OUTBOX")
+public class IdentOutboxMessage {
+
+    public enum Type { IP07, EHN }
+
+    public enum Status { PENDING, SENDING, SENT, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "OutboxID")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "MessageType", length = 10, nullable = false)
+    private Type messageType;
+
+    @Column(name = "SID", length = 10, nullable = false)
+    private String sid;
+
+    @Column(name = "SystemID", nullable = false)
+    private Long systemId;
+
+    @Column(name = "FBINumber", length = 9)
+    private String fbiNumber;
+
+    // Message body, e.g. "DOB/01151980" for EHN
+    @Column(name = "Payload", length = 4000, nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "Status", length = 10, nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(name = "Attempts", nullable = false)
+    private int attempts;
+
+    // Next delivery attempt while PENDING; lease expiry while SENDING
+    @Column(name = "NextAttemptAt", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "LastError", length = 1000)
+    private String lastError;
+
+    @Column(name = "CreatedAt", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "SentAt")
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,34 @@
+package md.dpscs.cch.iis.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized, read-optimized copy of the full Person Detail view for one SystemID.
+ * Rebuilt inside the same transaction as every Ident update / expungement so the
+ * Detail screen can be served with a single primary-key read.
+ */
+@Entity
+@Table(name = "T_IDENT_PERSON_SNAPSHOT")
+@Getter
+@Setter
+public class IdentPersonSnapshot {
+
+    @Id
+    @Column(name = "SystemID")
+    private Long systemId;
+
+    // GZIP-compressed JSON of PersonDetailDTO (see PersonSnapshotCodec)
+    @Column(name = "Payload", nullable = false, columnDefinition = "VARBINARY(MAX)")
+    private byte[] payload;
+
+    // Incremented on every rebuild
+    @Column(name = "SnapshotVersion", nullable = false)
+    private Long snapshotVersion;
+
+    @Column(name = "BuiltAt", nullable = false)
+    private LocalDateTime builtAt;
+}
@@ -0,0 +1,57 @@
+package md.dpscs.cch.iis.repository;
+
+import lombok.RequiredArgsConstructor;
+import md.dpscs.cch.iis.model.AuditLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch insert for T_AUDIT_LOG.
+ * <p>
+ * The IDENTITY key stops Hibernate from batching inserts; audit rows are never read back by the
+ * writer, so a whole batch goes out as one JDBC batch on the current transaction's connection.
+ * </p>
+ * <p>
+ * Replayed spill files are marked in T_AUDIT_SPILL_REPLAYS on the same transaction as their entries,
+ * so a file is never inserted twice.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditLogBatchWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO T_AUDIT_LOG (username, action, ipAddress, details, timestamp) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(List<AuditLog> entries) {
+        if (entries.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, e) -> {
+            ps.setString(1, e.getUsername());
+            ps.setString(2, e.getAction());
+            ps.setString(3, e.getIpAddress());
+            ps.setString(4, e.getDetails());
+            ps.setTimestamp(5, Timestamp.valueOf(e.getTimestamp()));
+        });
+    }
+
+    public boolean isReplayed(String spillFile) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM T_AUDIT_SPILL_REPLAYS WHERE FileName = ?", Integer.class, spillFile);
+        return count != null && count > 0;
+    }
+
+    public void markReplayed(String spillFile) {
+        jdbcTemplate.update("INSERT INTO T_AUDIT_SPILL_REPLAYS (FileName, ReplayedAt) VALUES (?, ?)",
+                spillFile, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public void clearReplayed(String spillFile) {
+        jdbcTemplate.update("DELETE FROM T_AUDIT_SPILL_REPLAYS WHERE FileName = ?", spillFile);
+    }
+}
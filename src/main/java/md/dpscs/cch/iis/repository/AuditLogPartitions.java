@@ -0,0 +1,39 @@
+package md.dpscs.cch.iis.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Monthly partition boundaries of T_AUDIT_LOG (PF_AUDIT_LOG_MONTHLY, see db/T_AUDIT_LOG_PARTITIONING.sql).
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditLogPartitions {
+
+    private static final String LAST_BOUNDARY_SQL =
+            "SELECT MAX(CAST(prv.value AS DATETIME2)) FROM sys.partition_range_values prv " +
+            "JOIN sys.partition_functions pf ON pf.function_id = prv.function_id " +
+            "WHERE pf.name = 'PF_AUDIT_LOG_MONTHLY'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns null when the table is not partitioned.
+     */
+    public LocalDate findLastBoundary() {
+        LocalDateTime last = jdbcTemplate.queryForObject(LAST_BOUNDARY_SQL, LocalDateTime.class);
+        return last != null ? last.toLocalDate() : null;
+    }
+
+    /**
+     * Splits the last (empty, future) partition at the given date, which is a metadata-only change.
+     */
+    public void addBoundary(LocalDate boundary) {
+        jdbcTemplate.execute("ALTER PARTITION SCHEME PS_AUDIT_LOG_MONTHLY NEXT USED [PRIMARY]");
+        jdbcTemplate.execute("ALTER PARTITION FUNCTION PF_AUDIT_LOG_MONTHLY() SPLIT RANGE ('" + boundary + "')");
+    }
+}
@@ -1,7 +1,62 @@
 package md.dpscs.cch.iis.repository;
 
 import md.dpscs.cch.iis.model.AuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
-}
\ No newline at end of file
+
+    // --- Audit Query Paging (keyset on timestamp DESC, id DESC) ---
+    // Returns rows in [from, afterTimestamp] that sort after the cursor (afterTimestamp, afterId).
+    // The first page passes the range end with Long.MIN_VALUE, i.e. [from, to).
+    // The bare timestamp bounds keep the statement to the partitions of the range (db/T_AUDIT_LOG_PARTITIONING.sql).
+    // Pass PageRequest.of(0, size) to limit the rows; ordering is fixed by the query.
+
+    @Query("SELECT a FROM AuditLog a WHERE a.timestamp >= :from AND a.timestamp <= :afterTimestamp " +
+            "AND (a.timestamp < :afterTimestamp OR a.id < :afterId) " +
+            "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findPage(
+            @Param("from") LocalDateTime from,
+            @Param("afterTimestamp") LocalDateTime afterTimestamp,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("SELECT a FROM AuditLog a WHERE a.username = :username " +
+            "AND a.timestamp >= :from AND a.timestamp <= :afterTimestamp " +
+            "AND (a.timestamp < :afterTimestamp OR a.id < :afterId) " +
+            "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findPageByUsername(
+            @Param("username") String username,
+            @Param("from") LocalDateTime from,
+            @Param("afterTimestamp") LocalDateTime afterTimestamp,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("SELECT a FROM AuditLog a WHERE a.action = :action " +
+            "AND a.timestamp >= :from AND a.timestamp <= :afterTimestamp " +
+            "AND (a.timestamp < :afterTimestamp OR a.id < :afterId) " +
+            "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findPageByAction(
+            @Param("action") String action,
+            @Param("from") LocalDateTime from,
+            @Param("afterTimestamp") LocalDateTime afterTimestamp,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("SELECT a FROM AuditLog a WHERE a.username = :username AND a.action = :action " +
+            "AND a.timestamp >= :from AND a.timestamp <= :afterTimestamp " +
+            "AND (a.timestamp < :afterTimestamp OR a.id < :afterId) " +
+            "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findPageByUsernameAndAction(
+            @Param("username") String username,
+            @Param("action") String action,
+            @Param("from") LocalDateTime from,
+            @Param("afterTimestamp") LocalDateTime afterTimestamp,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+}
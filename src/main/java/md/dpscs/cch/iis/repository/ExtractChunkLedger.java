@@ -0,0 +1,42 @@
+package md.dpscs.cch.iis.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Loaded chunks of extract files (T_IDENT_EXTRACT_CHUNKS), keyed by the file name inside the extract directory.
+ * <p>
+ * {@link #record} runs on the chunk's transaction, so a chunk is listed here exactly when its rows committed.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExtractChunkLedger {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void record(String fileName, long chunkStart, long chunkEnd) {
+        jdbcTemplate.update("INSERT INTO T_IDENT_EXTRACT_CHUNKS (FileName, ChunkStart, ChunkEnd, LoadedAt) VALUES (?, ?, ?, ?)",
+                fileName, chunkStart, chunkEnd, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Returns chunk start -> chunk end of the loaded chunks ending after the given offset.
+     */
+    public NavigableMap<Long, Long> findLoaded(String fileName, long fromOffset) {
+        NavigableMap<Long, Long> loaded = new TreeMap<>();
+        jdbcTemplate.query("SELECT ChunkStart, ChunkEnd FROM T_IDENT_EXTRACT_CHUNKS WHERE FileName = ? AND ChunkEnd > ?",
+                rs -> { loaded.put(rs.getLong(1), rs.getLong(2)); }, fileName, fromOffset);
+        return loaded;
+    }
+
+    public void clear(String fileName) {
+        jdbcTemplate.update("DELETE FROM T_IDENT_EXTRACT_CHUNKS WHERE FileName = ?", fileName);
+    }
+}
@@ -0,0 +1,186 @@
+package md.dpscs.cch.iis.repository;
+
+import md.dpscs.cch.iis.model.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch writes for the Ident child tables (names, appended identifiers, documents).
+ * <p>
+ * The child tables use IDENTITY keys, which stops Hibernate from batching inserts (it must read
+ * back each generated key). New rows are not read back in the same request, so they are written
+ * here as one JDBC batch per table on the current transaction's connection instead.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdentChildBatchWriter {
+
+    private static final String INSERT_NAME_SQL =
+            "INSERT INTO T_IDENT_NAMES (SystemID, NameType, LastName, FirstName, MiddleInitial, MiddleName, " +
+            "DateOfBirth, RaceCode, SexCode, MafisFingerprint, SoundexCode, SequenceNumber) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_FLAG_SQL =
+            "INSERT INTO T_IDENT_FLAGS (SystemID, FlagType, FlagCode) VALUES (?, ?, ?)";
+
+    private static final String INSERT_DOB_SQL =
+            "INSERT INTO T_IDENT_DOB_ALIAS (SystemID, DateOfBirth, CreateTimestamp) VALUES (?, ?, ?)";
+
+    private static final String INSERT_SCAR_SQL =
+            "INSERT INTO T_IDENT_SCARS_MARKS (SystemID, Code, Description, CreateTimestamp) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_SSN_SQL =
+            "INSERT INTO T_IDENT_SSN (SystemID, SSN, DateRecorded) VALUES (?, ?, ?)";
+
+    private static final String INSERT_MISC_SQL =
+            "INSERT INTO T_IDENT_MISC_NUM (SystemID, MiscNumType, MiscNumber) VALUES (?, ?, ?)";
+
+    private static final String INSERT_DL_SQL =
+            "INSERT INTO T_IDENT_DL (SystemID, LicenseNumber, StateSource) VALUES (?, ?, ?)";
+
+    private static final String INSERT_DOCUMENT_SQL =
+            "INSERT INTO T_IDENT_DOCUMENTS (SystemID, DocCategory, DocumentType, DocumentNumber, DocumentDate, Description) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Compare-and-set: a name edited since it was read keeps the code written with the edit
+    private static final String UPDATE_SOUNDEX_SQL =
+            "UPDATE T_IDENT_NAMES SET SoundexCode = ? " +
+            "WHERE NameID = ? AND ISNULL(LastName, '') = ? AND ISNULL(SoundexCode, '') = ?";
+
+    private static final String UPDATE_MAFIS_SQL =
+            "UPDATE T_IDENT_NAMES SET MafisFingerprint = ? WHERE SystemID = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A recomputed Soundex code with the LastName and SoundexCode it was computed from.
+     */
+    public record SoundexUpdate(Long nameId, String lastName, String readCode, String soundexCode) {}
+
+    public void insertNames(List<IdentName> names) {
+        batch(INSERT_NAME_SQL, names, (ps, n) -> {
+            ps.setLong(1, n.getMaster().getSystemId());
+            ps.setString(2, n.getNameType());
+            ps.setString(3, n.getLastName());
+            ps.setString(4, n.getFirstName());
+            ps.setString(5, n.getMiddleInitial());
+            ps.setString(6, n.getMiddleName());
+            ps.setObject(7, n.getDateOfBirth());
+            ps.setString(8, n.getRaceCode());
+            ps.setString(9, n.getSexCode());
+            ps.setString(10, n.getMafisFingerprint());
+            ps.setString(11, n.getSoundexCode());
+            ps.setObject(12, n.getSequenceNumber());
+        });
+    }
+
+    public void insertFlags(List<IdentFlag> flags) {
+        batch(INSERT_FLAG_SQL, flags, (ps, f) -> {
+            ps.setLong(1, f.getMaster().getSystemId());
+            ps.setString(2, f.getFlagType());
+            ps.setString(3, f.getFlagCode());
+        });
+    }
+
+    public void insertDobAliases(List<IdentDobAlias> dobs) {
+        batch(INSERT_DOB_SQL, dobs, (ps, d) -> {
+            ps.setLong(1, d.getMaster().getSystemId());
+            ps.setObject(2, d.getDateOfBirth());
+            ps.setTimestamp(3, timestamp(d.getCreateTimestamp()));
+        });
+    }
+
+    public void insertScarsMarks(List<IdentScarsMarks> scars) {
+        batch(INSERT_SCAR_SQL, scars, (ps, s) -> {
+            ps.setLong(1, s.getMaster().getSystemId());
+            ps.setString(2, s.getCode());
+            ps.setString(3, s.getDescription());
+            ps.setTimestamp(4, timestamp(s.getCreateTimestamp()));
+        });
+    }
+
+    public void insertSsns(List<IdentSSN> ssns) {
+        batch(INSERT_SSN_SQL, ssns, (ps, s) -> {
+            ps.setLong(1, s.getMaster().getSystemId());
+            ps.setString(2, s.getSsn());
+            // Hibernate's @UpdateTimestamp does not apply to JDBC writes
+            ps.setTimestamp(3, timestamp(s.getDateRecorded() != null ? s.getDateRecorded() : LocalDateTime.now()));
+        });
+    }
+
+    public void insertMiscNumbers(List<IdentMiscNum> miscNumbers) {
+        batch(INSERT_MISC_SQL, miscNumbers, (ps, m) -> {
+            ps.setLong(1, m.getMaster().getSystemId());
+            ps.setString(2, m.getMiscNumType());
+            ps.setString(3, m.getMiscNumber());
+        });
+    }
+
+    public void insertDriverLicenses(List<IdentDL> licenses) {
+        batch(INSERT_DL_SQL, licenses, (ps, d) -> {
+            ps.setLong(1, d.getMaster().getSystemId());
+            ps.setString(2, d.getLicenseNumber());
+            ps.setString(3, d.getStateSource());
+        });
+    }
+
+    public void insertDocuments(List<IdentDocument> documents) {
+        batch(INSERT_DOCUMENT_SQL, documents, (ps, d) -> {
+            ps.setLong(1, d.getMaster().getSystemId());
+            ps.setString(2, d.getDocCategory());
+            ps.setString(3, d.getDocumentType());
+            ps.setString(4, d.getDocumentNumber());
+            ps.setObject(5, d.getDocumentDate());
+            ps.setString(6, d.getDescription());
+        });
+    }
+
+    /**
+     * Sets the MAFIS pattern on every name (Primary AND Aliases) of each SystemID.
+     */
+    public void updateMafisFingerprints(Map<Long, String> fingerprintsBySystemId) {
+        batch(UPDATE_MAFIS_SQL, List.copyOf(fingerprintsBySystemId.entrySet()), (ps, e) -> {
+            ps.setString(1, e.getValue());
+            ps.setLong(2, e.getKey());
+        });
+    }
+
+    /**
+     * Writes each code only if the row still has the LastName and SoundexCode it was computed from.
+     *
+     * @return the number of rows updated; the others changed in the meantime and were left alone
+     */
+    public int updateSoundexCodes(List<SoundexUpdate> updates) {
+        if (updates.isEmpty()) return 0;
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SOUNDEX_SQL, updates, updates.size(), (ps, u) -> {
+            ps.setString(1, u.soundexCode());
+            ps.setLong(2, u.nameId());
+            ps.setString(3, u.lastName() != null ? u.lastName() : "");
+            ps.setString(4, u.readCode() != null ? u.readCode() : "");
+        });
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count > 0) updated += count;
+            }
+        }
+        return updated;
+    }
+
+    private <T> void batch(String sql, List<T> rows, ParameterizedPreparedStatementSetter<T> setter) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(sql, rows, rows.size(), setter);
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
@@ -1,9 +1,13 @@
 package md.dpscs.cch.iis.repository;
 
 import md.dpscs.cch.iis.model.IdentDocument;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface IdentDocumentRepository extends JpaRepository<IdentDocument, Long> {
@@ -21,4 +25,49 @@ public interface IdentDocumentRepository extends JpaRepository<IdentDocument, Lo
     long countByMaster_SystemId(Long systemId);
 
     void deleteAllByMaster_SystemId(Long systemId);
-}
\ No newline at end of file
+
+    @Query("SELECT MAX(d.documentDate) FROM IdentDocument d WHERE d.master.systemId = :systemId AND d.documentType IN :types")
+    LocalDate findLatestDocumentDate(@Param("systemId") Long systemId, @Param("types") Collection<String> types);
+
+    // --- Document History Paging (keyset on DocumentDate DESC, DocID DESC) ---
+    // All queries seek IX_T_IDENT_DOCUMENTS_KEYSET on (SystemID, DocCategory); DocCategory is stored
+    // trimmed and upper-cased (IdentDocument.setDocCategory), so the raw column is compared.
+    // SQL Server sorts NULL lowest, so documents without a DocumentDate follow the dated ones in DESC order;
+    // the dated part and the undated tail are paged by separate queries so each one is a plain range seek.
+    // Pass PageRequest.of(0, size) to limit the rows; ordering is fixed by the query.
+
+    @Query("SELECT d FROM IdentDocument d WHERE d.master.systemId = :systemId AND d.docCategory = :category " +
+            "ORDER BY d.documentDate DESC, d.docId DESC")
+    List<IdentDocument> findFirstPageByCategory(
+            @Param("systemId") Long systemId,
+            @Param("category") String category,
+            Pageable pageable);
+
+    // Dated documents after the cursor (the undated ones are read with findUndatedPageByCategory)
+    @Query("SELECT d FROM IdentDocument d WHERE d.master.systemId = :systemId AND d.docCategory = :category " +
+            "AND (d.documentDate < :afterDate OR (d.documentDate = :afterDate AND d.docId < :afterId)) " +
+            "ORDER BY d.documentDate DESC, d.docId DESC")
+    List<IdentDocument> findDatedPageByCategoryAfter(
+            @Param("systemId") Long systemId,
+            @Param("category") String category,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Documents without a DocumentDate below :afterId (pass Long.MAX_VALUE to start the undated tail)
+    @Query("SELECT d FROM IdentDocument d WHERE d.master.systemId = :systemId AND d.docCategory = :category " +
+            "AND d.documentDate IS NULL AND d.docId < :afterId " +
+            "ORDER BY d.docId DESC")
+    List<IdentDocument> findUndatedPageByCategory(
+            @Param("systemId") Long systemId,
+            @Param("category") String category,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    long countByMaster_SystemIdAndDocCategory(Long systemId, String docCategory);
+
+    // Returns rows of [DocCategory, Count]
+    @Query("SELECT d.docCategory, COUNT(d) FROM IdentDocument d WHERE d.master.systemId = :systemId " +
+            "GROUP BY d.docCategory")
+    List<Object[]> countByCategory(@Param("systemId") Long systemId);
+}
@@ -0,0 +1,43 @@
+package md.dpscs.cch.iis.repository;
+
+import jakarta.persistence.LockModeType;
+import md.dpscs.cch.iis.model.IdentEventCounts;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface IdentEventCountsRepository extends JpaRepository<IdentEventCounts, Long> {
+
+    // Writers already hold the record lock; the row lock keeps the verification job from interleaving
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM IdentEventCounts c WHERE c.systemId = :systemId")
+    Optional<IdentEventCounts> findByIdForUpdate(@Param("systemId") Long systemId);
+
+    // Recomputes the counters of the given SystemIDs from T_IDENT_DOCUMENTS in one statement.
+    // Only rows that are missing or differ are written; the return value is the number of rows corrected.
+    @Modifying
+    @Query(value = "MERGE T_IDENT_EVENT_COUNTS WITH (HOLDLOCK) AS t " +
+            "USING (SELECT m.SystemID, " +
+            "  SUM(CASE WHEN d.DocumentType IN (:criminalTypes) THEN 1 ELSE 0 END) AS CriminalCount, " +
+            "  SUM(CASE WHEN d.DocID IS NOT NULL AND (d.DocumentType IS NULL OR d.DocumentType NOT IN (:criminalTypes)) THEN 1 ELSE 0 END) AS NonCriminalCount, " +
+            "  MAX(CASE WHEN d.DocumentType IN (:criminalTypes) THEN d.DocumentDate END) AS LatestCriminalDate " +
+            "  FROM T_IDENT_MASTER m LEFT JOIN T_IDENT_DOCUMENTS d ON d.SystemID = m.SystemID " +
+            "  WHERE m.SystemID IN (:systemIds) GROUP BY m.SystemID) AS s " +
+            "ON t.SystemID = s.SystemID " +
+            "WHEN MATCHED AND (t.CriminalCount <> s.CriminalCount OR t.NonCriminalCount <> s.NonCriminalCount " +
+            "  OR ISNULL(t.LatestCriminalDate, '00010101') <> ISNULL(s.LatestCriminalDate, '00010101')) " +
+            "THEN UPDATE SET CriminalCount = s.CriminalCount, NonCriminalCount = s.NonCriminalCount, " +
+            "  LatestCriminalDate = s.LatestCriminalDate, UpdatedAt = :now " +
+            "WHEN NOT MATCHED THEN INSERT (SystemID, CriminalCount, NonCriminalCount, LatestCriminalDate, UpdatedAt) " +
+            "  VALUES (s.SystemID, s.CriminalCount, s.NonCriminalCount, s.LatestCriminalDate, :now);",
+            nativeQuery = true)
+    int recount(@Param("systemIds") Collection<Long> systemIds,
+                @Param("criminalTypes") Collection<String> criminalTypes,
+                @Param("now") LocalDateTime now);
+}
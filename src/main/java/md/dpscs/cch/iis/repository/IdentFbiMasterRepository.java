@@ -2,10 +2,32 @@ package md.dpscs.cch.iis.repository;
 
 import md.dpscs.cch.iis.model.IdentFbiMaster;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface IdentFbiMasterRepository extends JpaRepository<IdentFbiMaster, String> {
     // Matches Mainframe Logic: SELECT COUNT(*) ... WHERE FT_SID = :SID
     boolean existsBySid(String sid);
+
+    // --- Change tracking (see db/T_IDENT_FBI_MASTER_CHANGE_TRACKING.sql), used by FbiOwnershipService ---
+
+    @Query("SELECT f.sid FROM IdentFbiMaster f")
+    List<String> findAllSids();
+
+    // Null when change tracking is not enabled for the database
+    @Query(value = "SELECT CHANGE_TRACKING_CURRENT_VERSION()", nativeQuery = true)
+    Long findChangeTrackingVersion();
+
+    // Changes older than this have been cleaned up; a reader behind it must reload everything
+    @Query(value = "SELECT CHANGE_TRACKING_MIN_VALID_VERSION(OBJECT_ID('T_IDENT_FBI_MASTER'))", nativeQuery = true)
+    Long findMinValidChangeVersion();
+
+    // Returns rows of [FT_SID, SYS_CHANGE_OPERATION ('I', 'U' or 'D')]: the net change of each row since the version
+    @Query(value = "SELECT CT.FT_SID, CT.SYS_CHANGE_OPERATION FROM CHANGETABLE(CHANGES T_IDENT_FBI_MASTER, :sinceVersion) AS CT",
+            nativeQuery = true)
+    List<Object[]> findChangesSince(@Param("sinceVersion") long sinceVersion);
 }
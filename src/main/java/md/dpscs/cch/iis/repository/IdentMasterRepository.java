@@ -1,7 +1,92 @@
 package md.dpscs.cch.iis.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import md.dpscs.cch.iis.model.IdentMaster;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface IdentMasterRepository extends JpaRepository<IdentMaster, Long> {
-}
\ No newline at end of file
+
+    // Row lock held until commit; serializes writers of one record across nodes (see RecordLockService)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "10000"))
+    @Query("SELECT m FROM IdentMaster m WHERE m.systemId = :systemId")
+    Optional<IdentMaster> findByIdForUpdate(@Param("systemId") Long systemId);
+
+    // Keyset scan over SystemIDs for background jobs (pass PageRequest.of(0, chunkSize))
+    @Query("SELECT m.systemId FROM IdentMaster m WHERE m.systemId > :afterId ORDER BY m.systemId")
+    List<Long> findSystemIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT COUNT(m) FROM IdentMaster m WHERE m.systemId > :afterId")
+    long countSystemIdsAfter(@Param("afterId") Long afterId);
+
+    // Returns rows of [SID, SystemID] (extract loads are keyed by SID)
+    @Query("SELECT m.sid, m.systemId FROM IdentMaster m WHERE m.sid IN :sids")
+    List<Object[]> findSystemIdsBySids(@Param("sids") Collection<String> sids);
+
+    // Expungement preview in one round trip. Returns one row of [SID, RecordType, FBINumber, IIIStatus, RapbackFlag,
+    // criminal count, non-criminal count, CNS count, latest criminal DocumentDate];
+    // the counts come from T_IDENT_EVENT_COUNTS and are null when the record has no counter row yet
+    @Query("SELECT m.sid, m.recordType, m.fbiNumber, m.iiiStatus, m.rapbackSubscriptionIndicator, " +
+            "c.criminalCount, c.nonCriminalCount, " +
+            "(SELECT COUNT(d) FROM IdentDocument d WHERE d.master.systemId = m.systemId AND UPPER(d.documentType) = 'CNS'), " +
+            "c.latestCriminalDate " +
+            "FROM IdentMaster m LEFT JOIN IdentEventCounts c ON c.systemId = m.systemId " +
+            "WHERE m.systemId = :systemId")
+    List<Object[]> findExpungementSummary(@Param("systemId") Long systemId);
+
+    // Record Type rule of IdentUpdateService.recalculateRecordType for many records in one statement,
+    // reading criminal events from T_IDENT_EVENT_COUNTS (recount first). Returns the number of rows changed.
+    @Modifying
+    @Query(value = "UPDATE m SET RecordType = x.RecordType, LastUpdateDate = :now " +
+            "FROM T_IDENT_MASTER m " +
+            "JOIN T_IDENT_NAMES p ON p.SystemID = m.SystemID AND p.NameType = 'P' " +
+            "LEFT JOIN T_IDENT_EVENT_COUNTS c ON c.SystemID = m.SystemID " +
+            "CROSS APPLY (SELECT CASE " +
+            "  WHEN ISNULL(LTRIM(RTRIM(m.FBINumber)), '') = '' AND ISNULL(LTRIM(RTRIM(p.MafisFingerprint)), '') = '' THEN 'T' " +
+            "  WHEN ISNULL(c.CriminalCount, 0) > 0 THEN ' ' " +
+            "  ELSE 'N' END AS RecordType) x " +
+            "WHERE m.SystemID IN (:systemIds) AND (m.RecordType IS NULL OR m.RecordType <> x.RecordType)",
+            nativeQuery = true)
+    int settleRecordTypes(@Param("systemIds") Collection<Long> systemIds, @Param("now") LocalDateTime now);
+
+    // Existing SystemIDs of a bulk chunk, update-locked until commit so none is deleted before the
+    // change events of the chunk are handled
+    @Query(value = "SELECT SystemID FROM T_IDENT_MASTER WITH (UPDLOCK, ROWLOCK) WHERE SystemID IN (:systemIds)",
+            nativeQuery = true)
+    List<Long> lockExistingSystemIds(@Param("systemIds") Collection<Long> systemIds);
+
+    // Bulk demographic correction: null parameters keep the current column value
+    @Modifying
+    @Query("UPDATE IdentMaster m SET " +
+            "m.raceCode = COALESCE(:race, m.raceCode), " +
+            "m.sexCode = COALESCE(:sex, m.sexCode), " +
+            "m.placeOfBirthCode = COALESCE(:pob, m.placeOfBirthCode), " +
+            "m.eyeColorCode = COALESCE(:eye, m.eyeColorCode), " +
+            "m.hairColorCode = COALESCE(:hair, m.hairColorCode), " +
+            "m.skinToneCode = COALESCE(:skin, m.skinToneCode), " +
+            "m.citizenshipCode = COALESCE(:citizenship, m.citizenshipCode), " +
+            "m.lastUpdateDate = :now " +
+            "WHERE m.systemId IN :systemIds")
+    int bulkUpdateDemographics(
+            @Param("systemIds") Collection<Long> systemIds,
+            @Param("race") String race,
+            @Param("sex") String sex,
+            @Param("pob") String placeOfBirth,
+            @Param("eye") String eyeColor,
+            @Param("hair") String hairColor,
+            @Param("skin") String skinTone,
+            @Param("citizenship") String citizenship,
+            @Param("now") LocalDateTime now);
+}
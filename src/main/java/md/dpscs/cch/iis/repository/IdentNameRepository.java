@@ -4,18 +4,33 @@ import md.dpscs.cch.iis.model.IdentName;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface IdentNameRepository extends JpaRepository<IdentName, Long> {
 
     List<IdentName> findByMaster_SystemId(Long systemId);
 
+    // Returns rows of [NameID, LastName, SoundexCode] in NameID order (Soundex recomputation)
+    @Query("SELECT n.nameId, n.lastName, n.soundexCode FROM IdentName n WHERE n.nameId > :afterId ORDER BY n.nameId")
+    List<Object[]> findSoundexRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT COUNT(n) FROM IdentName n WHERE n.nameId > :afterId")
+    long countNamesAfter(@Param("afterId") Long afterId);
+
     @Query("SELECT COALESCE(MAX(n.sequenceNumber), 0) FROM IdentName n WHERE n.master.systemId = :systemId")
     Integer findMaxSequenceBySystemId(@Param("systemId") Long systemId);
 
+    // Keeps Race/Sex of every name (Primary AND Aliases) in sync with the master after a bulk correction
+    @Modifying
+    @Query("UPDATE IdentName n SET n.raceCode = COALESCE(:race, n.raceCode), n.sexCode = COALESCE(:sex, n.sexCode) " +
+            "WHERE n.master.systemId IN :systemIds")
+    int bulkUpdateRaceSex(@Param("systemIds") Collection<Long> systemIds, @Param("race") String race, @Param("sex") String sex);
+
     boolean existsByMaster_SystemIdAndLastNameAndFirstNameAndMiddleNameAndNameType(
             Long systemId, String lastName, String firstName, String middleName, String nameType
     );
@@ -0,0 +1,37 @@
+package md.dpscs.cch.iis.repository;
+
+import md.dpscs.cch.iis.model.IdentOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface IdentOutboxRepository extends JpaRepository<IdentOutboxMessage, Long> {
+
+    /**
+     * Oldest undelivered message of each SID, if it is due. Later messages of a SID wait until
+     * the one ahead of them is SENT or FAILED, which keeps delivery ordered per SID.
+     * A SENDING row whose lease has expired (dispatcher died mid-send) is due again.
+     */
+    @Query("SELECT o FROM IdentOutboxMessage o " +
+           "WHERE o.status IN ('PENDING', 'SENDING') AND o.nextAttemptAt <= :now " +
+           "AND o.id = (SELECT MIN(o2.id) FROM IdentOutboxMessage o2 " +
+           "            WHERE o2.sid = o.sid AND o2.status IN ('PENDING', 'SENDING')) " +
+           "ORDER BY o.id")
+    List<IdentOutboxMessage> findDueHeads(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claims a message for delivery. Returns 0 if another dispatcher claimed it first
+     * (the attempt count no longer matches).
+     */
+    @Modifying
+    @Query("UPDATE IdentOutboxMessage o SET o.status = 'SENDING', o.attempts = o.attempts + 1, " +
+           "o.nextAttemptAt = :leaseUntil WHERE o.id = :id AND o.attempts = :attempts")
+    int claim(@Param("id") Long id, @Param("attempts") int attempts, @Param("leaseUntil") LocalDateTime leaseUntil);
+}
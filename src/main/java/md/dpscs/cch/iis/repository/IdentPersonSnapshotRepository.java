@@ -0,0 +1,34 @@
+package md.dpscs.cch.iis.repository;
+
+import md.dpscs.cch.iis.model.IdentPersonSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface IdentPersonSnapshotRepository extends JpaRepository<IdentPersonSnapshot, Long> {
+
+    // Atomic insert-or-replace so concurrent rebuilds of the same SID never collide on the PK
+    @Modifying
+    @Query(value = "MERGE T_IDENT_PERSON_SNAPSHOT WITH (HOLDLOCK) AS t " +
+            "USING (SELECT :systemId AS SystemID) AS s ON t.SystemID = s.SystemID " +
+            "WHEN MATCHED THEN UPDATE SET Payload = :payload, SnapshotVersion = t.SnapshotVersion + 1, BuiltAt = :builtAt " +
+            "WHEN NOT MATCHED THEN INSERT (SystemID, Payload, SnapshotVersion, BuiltAt) VALUES (:systemId, :payload, 1, :builtAt);",
+            nativeQuery = true)
+    int upsert(@Param("systemId") Long systemId, @Param("payload") byte[] payload, @Param("builtAt") LocalDateTime builtAt);
+
+    @Modifying
+    @Query("DELETE FROM IdentPersonSnapshot s WHERE s.systemId = :systemId")
+    int deleteBySystemId(@Param("systemId") Long systemId);
+
+    @Query("SELECT s.systemId FROM IdentPersonSnapshot s WHERE s.systemId IN :systemIds")
+    List<Long> findExistingIds(@Param("systemIds") Collection<Long> systemIds);
+
+    @Query("SELECT s.snapshotVersion FROM IdentPersonSnapshot s WHERE s.systemId = :systemId")
+    Optional<Long> findVersionBySystemId(@Param("systemId") Long systemId);
+}
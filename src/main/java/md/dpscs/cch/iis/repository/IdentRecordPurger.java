@@ -0,0 +1,50 @@
+package md.dpscs.cch.iis.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Removes an entire Ident record (Cancel Entire) with one set-based DELETE per table.
+ * <p>
+ * Child tables are purged in a fixed order and the master row last, so concurrent purges
+ * always take their locks in the same sequence and the statement count does not depend on
+ * how many rows the record has. Runs on the current transaction's connection; rows already
+ * loaded into the persistence context are left as they are and must not be modified afterwards.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdentRecordPurger {
+
+    private static final List<String> PURGE_ORDER = List.of(
+            "T_IDENT_DOCUMENTS",
+            "T_IDENT_NAMES",
+            "T_IDENT_SSN",
+            "T_IDENT_ADDRESS",
+            "T_IDENT_SCARS_MARKS",
+            "T_IDENT_DL",
+            "T_IDENT_MISC_NUM",
+            "T_IDENT_FP_HENRY",
+            "T_IDENT_FP_NCIC",
+            "T_IDENT_DOB_ALIAS",
+            "T_IDENT_FLAGS",
+            "T_IDENT_EVENT_COUNTS",
+            "T_IDENT_MASTER"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns the total number of rows deleted across all tables.
+     */
+    public int purge(Long systemId) {
+        int deleted = 0;
+        for (String table : PURGE_ORDER) {
+            deleted += jdbcTemplate.update("DELETE FROM " + table + " WHERE SystemID = ?", systemId);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,181 @@
+package md.dpscs.cch.iis.service;
+
+import md.dpscs.cch.iis.dto.UpdateNameRequest;
+import md.dpscs.cch.iis.model.IdentMaster;
+import md.dpscs.cch.iis.model.IdentName;
+import md.dpscs.cch.iis.repository.IdentChildBatchWriter;
+import md.dpscs.cch.iis.repository.IdentNameRepository;
+import md.dpscs.cch.iis.util.MainframeDataUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Applies an alias edit (II0800C) as a diff against the names already on file.
+ * <p>
+ * The names of the SystemID are loaded once; duplicate checks, ID lookups and sequence numbers
+ * are resolved in memory. The result is written with at most three round trips regardless of
+ * the number of aliases: one bulk DELETE, one batched UPDATE flush (Hibernate JDBC batching of
+ * the dirty entities) and one JDBC INSERT batch. Submitted aliases whose mapped fields already match
+ * the row on file are not counted as updated, so re-saving an unchanged list writes nothing.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class AliasReconciler {
+
+    private final IdentNameRepository nameRepo;
+    private final IdentChildBatchWriter batchWriter;
+    private final MainframeDataUtils utils;
+
+    public record Result(List<Long> deletedIds, int inserted, int updated) {}
+
+    public Result reconcile(IdentMaster master, List<UpdateNameRequest> requests) {
+        return reconcile(master, nameRepo.findByMaster_SystemId(master.getSystemId()), requests);
+    }
+
+    /**
+     * @param current the names of the SystemID, already loaded in this persistence context
+     */
+    public Result reconcile(IdentMaster master, List<IdentName> current, List<UpdateNameRequest> requests) {
+
+        IdentName primary = null;
+        Map<Long, IdentName> aliasesById = new HashMap<>();
+        int maxSeq = 0;
+        for (IdentName n : current) {
+            if ("P".equals(n.getNameType())) {
+                if (primary == null) primary = n;
+            } else if ("A".equals(n.getNameType())) {
+                aliasesById.put(n.getNameId(), n);
+            }
+            if (n.getSequenceNumber() != null) maxSeq = Math.max(maxSeq, n.getSequenceNumber());
+        }
+        if (primary == null) {
+            throw new IllegalStateException("Primary Name not found");
+        }
+
+        // --- 1. Deletes (Driven by React Flag) ---
+        Set<Long> deleteIds = new LinkedHashSet<>();
+        for (UpdateNameRequest req : requests) {
+            if (Boolean.TRUE.equals(req.getIsMarkedForDeletion()) && req.getId() != null) {
+                if (!aliasesById.containsKey(req.getId())) {
+                    throw new IllegalArgumentException("Alias ID not found: " + req.getId());
+                }
+                deleteIds.add(req.getId());
+            }
+        }
+
+        // Alias names that remain on file; new and renamed aliases are added as they are processed
+        Set<String> aliasKeys = new HashSet<>();
+        for (IdentName alias : aliasesById.values()) {
+            if (!deleteIds.contains(alias.getNameId())) aliasKeys.add(keyOf(alias));
+        }
+
+        // --- 2. Inserts / Updates ---
+        List<IdentName> inserts = new ArrayList<>();
+        int updated = 0;
+        for (UpdateNameRequest req : requests) {
+            if (Boolean.TRUE.equals(req.getIsMarkedForDeletion())) continue;
+
+            // (Matches Mainframe II0800C logic which prevents -803 SQL Errors)
+            if (isSameName(primary, req)) {
+                throw new IllegalArgumentException("Alias cannot be the same as the primary name: " + req.getLastName());
+            }
+
+            String key = keyOf(req);
+            IdentName alias;
+            if (req.getId() != null) {
+                alias = aliasesById.get(req.getId());
+                if (alias == null || deleteIds.contains(req.getId())) {
+                    throw new IllegalArgumentException("Alias ID not found: " + req.getId());
+                }
+                aliasKeys.remove(keyOf(alias));
+                aliasKeys.add(key);
+                if (mapAlias(alias, req, primary)) updated++;
+            } else {
+                if (!aliasKeys.add(key)) {
+                    throw new IllegalArgumentException("Duplicate Alias Name: " + req.getLastName() + ", " + req.getFirstName());
+                }
+                alias = new IdentName();
+                alias.setMaster(master);
+                alias.setNameType("A");
+                alias.setSequenceNumber(++maxSeq); // Mainframe II0800C Requirement: Generate Sequence Number
+                mapAlias(alias, req, primary);
+                inserts.add(alias);
+            }
+        }
+
+        // --- 3. Apply ---
+        if (!deleteIds.isEmpty()) {
+            nameRepo.deleteAllByIdInBatch(deleteIds);
+        }
+        if (updated > 0) {
+            nameRepo.flush(); // Write updated rows before new ones so renames never collide with inserts
+        }
+        batchWriter.insertNames(inserts);
+
+        return new Result(List.copyOf(deleteIds), inserts.size(), updated);
+    }
+
+    /**
+     * @return true if any field of the alias changed
+     */
+    private boolean mapAlias(IdentName alias, UpdateNameRequest req, IdentName primary) {
+        String last = req.getLastName().toUpperCase();
+        String first = req.getFirstName().toUpperCase();
+        String mid = req.getMiddleName() != null ? req.getMiddleName().toUpperCase() : "";
+        String midInitial = !mid.isEmpty() ? mid.substring(0, 1) : "";
+        String soundex = utils.calculateStandardSoundex(last);
+
+        boolean changed = !Objects.equals(alias.getLastName(), last)
+                || !Objects.equals(alias.getFirstName(), first)
+                || !Objects.equals(alias.getMiddleName(), mid)
+                || !Objects.equals(alias.getMiddleInitial(), midInitial)
+                || !Objects.equals(alias.getSoundexCode(), soundex)
+                || !Objects.equals(alias.getRaceCode(), primary.getRaceCode())
+                || !Objects.equals(alias.getSexCode(), primary.getSexCode())
+                || !Objects.equals(alias.getDateOfBirth(), primary.getDateOfBirth())
+                || !Objects.equals(alias.getMafisFingerprint(), primary.getMafisFingerprint());
+        if (!changed) return false;
+
+        alias.setLastName(last);
+        alias.setFirstName(first);
+        alias.setMiddleName(mid);
+        alias.setMiddleInitial(midInitial);
+
+        // Inherit Demographics from Primary (per FRD/Mainframe logic)
+        alias.setRaceCode(primary.getRaceCode());
+        alias.setSexCode(primary.getSexCode());
+        alias.setDateOfBirth(primary.getDateOfBirth());
+        alias.setMafisFingerprint(primary.getMafisFingerprint());
+
+        alias.setSoundexCode(soundex);
+        return true;
+    }
+
+    private boolean isSameName(IdentName dbName, UpdateNameRequest req) {
+        String dbMid = dbName.getMiddleName() == null ? "" : dbName.getMiddleName().trim();
+        String reqMid = req.getMiddleName() == null ? "" : req.getMiddleName().trim();
+        return dbName.getLastName().equalsIgnoreCase(req.getLastName()) &&
+                dbName.getFirstName().equalsIgnoreCase(req.getFirstName()) &&
+                dbMid.equalsIgnoreCase(reqMid);
+    }
+
+    // Same comparison as the former existsByMaster_SystemIdAndLastNameAndFirstNameAndMiddleNameAndNameType check
+    private static String keyOf(IdentName n) {
+        return n.getLastName() + '|' + n.getFirstName() + '|' + (n.getMiddleName() != null ? n.getMiddleName() : "");
+    }
+
+    private static String keyOf(UpdateNameRequest req) {
+        return req.getLastName().toUpperCase() + '|' + req.getFirstName().toUpperCase() + '|'
+                + (req.getMiddleName() != null ? req.getMiddleName().toUpperCase() : "");
+    }
+}
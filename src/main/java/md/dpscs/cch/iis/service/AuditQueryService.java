@@ -0,0 +1,120 @@
+package md.dpscs.cch.iis.service;
+
+import md.dpscs.cch.iis.dto.AuditLogDTO;
+import md.dpscs.cch.iis.dto.AuditLogPageDTO;
+import md.dpscs.cch.iis.model.AuditLog;
+import md.dpscs.cch.iis.repository.AuditLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads T_AUDIT_LOG for compliance reviews, filtered by user, action and time range.
+ * <p>
+ * Every query is bounded by a time range of at most {@code ident.audit.query.max-range}, so it only
+ * touches the monthly partitions of that range. Paging is keyset based on (timestamp DESC, id DESC):
+ * the last row of a page is the cursor for the next one, so deep pages cost the same as the first.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditQueryService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final AuditLogRepository auditLogRepo;
+
+    @Value("${ident.audit.query.page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${ident.audit.query.max-range:P31D}")
+    private Duration maxRange;
+
+    /**
+     * Returns one page of entries in [from, to), newest first. Without a cursor the first page is returned.
+     *
+     * @param to range end (exclusive), defaults to now
+     */
+    @Transactional(readOnly = true)
+    public AuditLogPageDTO getPage(String username, String action, LocalDateTime from, LocalDateTime to,
+                                   LocalDateTime afterTimestamp, Long afterId, Integer size) {
+        if (from == null) {
+            throw new IllegalArgumentException("from is required.");
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        if (!from.isBefore(end)) {
+            throw new IllegalArgumentException("from must be before to.");
+        }
+        if (Duration.between(from, end).compareTo(maxRange) > 0) {
+            throw new IllegalArgumentException("Time range must not exceed " + maxRange.toDays() + " days.");
+        }
+        if ((afterTimestamp == null) != (afterId == null)) {
+            throw new IllegalArgumentException("afterTimestamp and afterId must be supplied together.");
+        }
+        // A cursor outside [from, to) would read past the range end or before its start
+        if (afterTimestamp != null && (afterTimestamp.isBefore(from) || !afterTimestamp.isBefore(end))) {
+            throw new IllegalArgumentException("afterTimestamp must be within [from, to).");
+        }
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+
+        String user = StringUtils.hasText(username) ? username.trim() : null;
+        String act = StringUtils.hasText(action) ? action.trim() : null;
+
+        // First page: everything before the range end, i.e. [from, to)
+        LocalDateTime cursorTimestamp = afterTimestamp != null ? afterTimestamp : end;
+        long cursorId = afterId != null ? afterId : Long.MIN_VALUE;
+
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<AuditLog> rows;
+        if (user != null && act != null) {
+            rows = auditLogRepo.findPageByUsernameAndAction(user, act, from, cursorTimestamp, cursorId, limit);
+        } else if (user != null) {
+            rows = auditLogRepo.findPageByUsername(user, from, cursorTimestamp, cursorId, limit);
+        } else if (act != null) {
+            rows = auditLogRepo.findPageByAction(act, from, cursorTimestamp, cursorId, limit);
+        } else {
+            rows = auditLogRepo.findPage(from, cursorTimestamp, cursorId, limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        int count = Math.min(rows.size(), pageSize);
+
+        List<AuditLogDTO> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(toDTO(rows.get(i)));
+        }
+
+        AuditLogPageDTO page = new AuditLogPageDTO();
+        page.setEntries(entries);
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            AuditLog last = rows.get(count - 1);
+            page.setNextAfterTimestamp(last.getTimestamp());
+            page.setNextAfterId(last.getId());
+        }
+        return page;
+    }
+
+    private static AuditLogDTO toDTO(AuditLog entry) {
+        AuditLogDTO dto = new AuditLogDTO();
+        dto.setId(entry.getId());
+        dto.setUsername(entry.getUsername());
+        dto.setAction(entry.getAction());
+        dto.setIpAddress(entry.getIpAddress());
+        dto.setDetails(entry.getDetails());
+        dto.setTimestamp(entry.getTimestamp());
+        return dto;
+    }
+}
@@ -1,11 +1,10 @@
 package md.dpscs.cch.iis.service;
 
 import jakarta.servlet.http.HttpServletRequest;
+import md.dpscs.cch.iis.job.AuditLogWriter;
 import md.dpscs.cch.iis.model.AuditLog;
-import md.dpscs.cch.iis.repository.AuditLogRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,20 +15,19 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 @Service
 public class AuditService {
     private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
 
-    public AuditService(AuditLogRepository auditLogRepository) {
-        this.auditLogRepository = auditLogRepository;
+    public AuditService(AuditLogWriter auditLogWriter) {
+        this.auditLogWriter = auditLogWriter;
     }
 
     /**
-     * Creates and saves an audit log entry.
-     * It automatically retrieves the currently authenticated user's name.
+     * Creates an audit log entry and hands it to the write-behind AuditLogWriter,
+     * which inserts it with other entries in a batch shortly afterwards.
      *
      * @param action  A description of the action performed (e.g., "SEARCH_CLICK").
      * @param details Additional JSON details about the action (e.g., the search criteria).
      */
-    @Async
     public void logAction(String username, String ipAddress, String action, String details) {
         if (username == null) username = "UNKNOWN";
         if (ipAddress == null) ipAddress = "0.0.0.0";
@@ -39,24 +37,16 @@ public class AuditService {
         if (details == null) {
             details = "";
         }
-        AuditLog logEntry = new AuditLog(username, action, details, ipAddress);
-        try {
-            auditLogRepository.save(logEntry);
-            logger.info("Audit: User '{}' | IP '{}' | Action '{}'", username, ipAddress, action);
-        } catch (Exception e) {
-            // Prevent audit failure from crashing the main thread (though @Async handles most isolation)
-            logger.error("Failed to save audit log", e);
-        }
+        auditLogWriter.enqueue(new AuditLog(username, action, details, ipAddress));
+        logger.info("Audit: User '{}' | IP '{}' | Action '{}'", username, ipAddress, action);
     }
 
     /**
      * A special method for logging login attempts, as the user is not yet in the security context.
      */
-    @Async
     public void logLoginAttempt(String username, String ipAddress, boolean success) {
         String action = success ? "LOGIN_SUCCESS" : "LOGIN_FAILURE";
-        AuditLog logEntry = new AuditLog(username, action, null, ipAddress);
-        auditLogRepository.save(logEntry);
+        auditLogWriter.enqueue(new AuditLog(username, action, null, ipAddress));
         logger.info("Audit: Login attempt for '{}' from '{}': {}", username, ipAddress, success);
     }
 
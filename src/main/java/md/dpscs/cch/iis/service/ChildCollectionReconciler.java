@@ -0,0 +1,86 @@
+package md.dpscs.cch.iis.service;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Reconciles a child collection of a SystemID (cautions, DOB aliases, SMTs, SSNs, misc numbers)
+ * against the values submitted by the UI.
+ * <p>
+ * Rows and requested values are matched on a normalized key. Rows whose key is no longer requested
+ * are deleted with one DELETE ... WHERE id IN (...); requested keys not on file are created and
+ * inserted as one JDBC batch. Every new value is built (and validated) before anything is written,
+ * and a value submitted twice is only inserted once.
+ * </p>
+ */
+@Component
+public class ChildCollectionReconciler {
+
+    /**
+     * Minimal change set for one collection.
+     */
+    public record Delta<E>(List<Long> deleteIds, List<E> inserts) {
+        public boolean isEmpty() {
+            return deleteIds.isEmpty() && inserts.isEmpty();
+        }
+    }
+
+    /**
+     * Computes the delta between the rows on file and the requested values.
+     *
+     * @param existing    rows currently on file
+     * @param requested   values submitted by the client
+     * @param existingKey comparison key of a row on file
+     * @param requestKey  comparison key of a requested value (same normalization as existingKey)
+     * @param idOf        primary key of a row on file
+     * @param factory     validates a requested value and builds its new row; may return null to skip it
+     */
+    public <E, R, K> Delta<E> diff(List<E> existing, List<R> requested,
+                                   Function<E, K> existingKey, Function<R, K> requestKey,
+                                   Function<E, Long> idOf, Function<R, E> factory) {
+        Map<K, R> wanted = new LinkedHashMap<>();
+        for (R value : requested) {
+            wanted.putIfAbsent(requestKey.apply(value), value);
+        }
+
+        List<Long> deleteIds = new ArrayList<>();
+        Set<K> onFile = new HashSet<>();
+        for (E row : existing) {
+            K key = existingKey.apply(row);
+            if (key != null && wanted.containsKey(key)) {
+                onFile.add(key);
+            } else {
+                deleteIds.add(idOf.apply(row));
+            }
+        }
+
+        List<E> inserts = new ArrayList<>();
+        for (Map.Entry<K, R> entry : wanted.entrySet()) {
+            if (onFile.contains(entry.getKey())) continue;
+            E row = factory.apply(entry.getValue());
+            if (row != null) inserts.add(row);
+        }
+        return new Delta<>(deleteIds, inserts);
+    }
+
+    /**
+     * Writes a delta: one bulk DELETE by ID list and one batched INSERT, each only when needed.
+     */
+    public <E> void apply(Delta<E> delta, JpaRepository<E, Long> repository, Consumer<List<E>> batchInsert) {
+        if (!delta.deleteIds().isEmpty()) {
+            repository.deleteAllByIdInBatch(delta.deleteIds());
+        }
+        if (!delta.inserts().isEmpty()) {
+            batchInsert.accept(delta.inserts());
+        }
+    }
+}
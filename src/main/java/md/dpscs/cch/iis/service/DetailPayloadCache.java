@@ -0,0 +1,115 @@
+package md.dpscs.cch.iis.service;
+
+import md.dpscs.cch.iis.dto.PersonDetailDTO;
+import md.dpscs.cch.iis.event.IdentRecordChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded cache of the serialized full Person Detail response (JSON bytes + GZIP variant).
+ * <p>
+ * Entries are tagged with the snapshot version of the record (T_IDENT_PERSON_SNAPSHOT.SnapshotVersion,
+ * bumped on every write) and only served while that version is still current. Entries are also
+ * dropped AFTER_COMMIT of any transaction that publishes an IdentRecordChangedEvent for the SID.
+ * The total size of all cached bytes is capped; least recently used entries go first.
+ * </p>
+ */
+@Component
+public class DetailPayloadCache {
+
+    public record Payload(long version, byte[] json, byte[] gzip) {
+        long size() {
+            return (long) json.length + gzip.length;
+        }
+    }
+
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
+    private final long maxBytes;
+
+    // Access-ordered for LRU eviction; guarded by 'this'
+    private final LinkedHashMap<Long, Payload> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public DetailPayloadCache(JsonMapper jsonMapper, MeterRegistry meterRegistry,
+                              @Value("${ident.detail.payload-cache.max-bytes:67108864}") long maxBytes) {
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+        this.maxBytes = maxBytes;
+        meterRegistry.gauge("ident.detail.payload-cache.bytes", this, DetailPayloadCache::currentBytes);
+    }
+
+    /**
+     * Returns the cached payload when it was built from the given record version, otherwise null.
+     */
+    public synchronized Payload get(Long systemId, long version) {
+        Payload payload = entries.get(systemId);
+        boolean hit = payload != null && payload.version() == version;
+        meterRegistry.counter("ident.detail.payload-cache", "result", hit ? "hit" : "miss").increment();
+        return hit ? payload : null;
+    }
+
+    /**
+     * Serializes the DTO with the application's JSON mapper (same bytes the JSON converter
+     * would write) and compresses it once.
+     */
+    public Payload encode(PersonDetailDTO dto, long version) {
+        byte[] json = jsonMapper.writeValueAsBytes(dto);
+        return new Payload(version, json, gzip(json));
+    }
+
+    public synchronized void put(Long systemId, Payload payload) {
+        if (payload.size() > maxBytes) return; // Never cache a single record larger than the whole budget
+
+        Payload previous = entries.put(systemId, payload);
+        if (previous != null) totalBytes -= previous.size();
+        totalBytes += payload.size();
+
+        Iterator<Map.Entry<Long, Payload>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Payload evicted = eldest.next().getValue();
+            eldest.remove();
+            totalBytes -= evicted.size();
+        }
+    }
+
+    public synchronized void evict(Long systemId) {
+        Payload removed = entries.remove(systemId);
+        if (removed != null) totalBytes -= removed.size();
+    }
+
+    /**
+     * Drops the entry once the write is visible to readers. Rollbacks leave the entry in place
+     * (the data did not change); the version check covers requests that raced with the commit.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRecordChanged(IdentRecordChangedEvent event) {
+        evict(event.systemId());
+    }
+
+    private synchronized long currentBytes() {
+        return totalBytes;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(512, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress detail payload", e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -3,16 +3,19 @@ package md.dpscs.cch.iis.service;
 import md.dpscs.cch.iis.dto.*;
 import md.dpscs.cch.iis.model.*;
 import md.dpscs.cch.iis.repository.*;
-import md.dpscs.cch.iis.util.MainframeDataUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -30,257 +33,177 @@ public class DetailService {
     private final IdentScarsMarksRepository scarsRepo;
     private final IdentHenryFPRepository henryRepo;
     private final IdentNcicFPRepository ncicRepo;
-    private final IdentDocumentRepository docRepo;
 
     // --- Services & Utilities ---
     private final ReferenceDataService refService;
-    private final MainframeDataUtils utils;
+    private final DocumentHistoryService documentHistory;
+    private final PersonDetailAssembler assembler;
+    private final MeterRegistry meterRegistry;
 
-    @Transactional(readOnly = true)
-    public PersonDetailDTO getPersonDetails(Long systemId) {
-
-        // 1. Fetch Core Master Record
-        IdentMaster master = masterRepo.findById(systemId)
-                .orElseThrow(() -> new RuntimeException("Record not found for SystemID: " + systemId));
-
-        // 2. Execute Parallel Fetches
-        var namesFut = CompletableFuture.supplyAsync(() -> nameRepo.findByMaster_SystemId(systemId));
-        var addrFut = CompletableFuture.supplyAsync(() -> addrRepo.findByMaster_SystemId(systemId));
-        var ssnFut = CompletableFuture.supplyAsync(() -> ssnRepo.findByMaster_SystemId(systemId));
-        var dlFut = CompletableFuture.supplyAsync(() -> dlRepo.findByMaster_SystemId(systemId));
-        var miscFut = CompletableFuture.supplyAsync(() -> miscRepo.findByMaster_SystemId(systemId));
-        var dobFut = CompletableFuture.supplyAsync(() -> dobRepo.findByMaster_SystemId(systemId));
-        var flagFut = CompletableFuture.supplyAsync(() -> flagRepo.findByMaster_SystemId(systemId));
-        var scarFut = CompletableFuture.supplyAsync(() -> scarsRepo.findByMaster_SystemId(systemId));
-        var henryFut = CompletableFuture.supplyAsync(() -> henryRepo.findByMaster_SystemId(systemId));
-        var ncicFut = CompletableFuture.supplyAsync(() -> ncicRepo.findByMaster_SystemId(systemId));
-        var docsFut = CompletableFuture.supplyAsync(() -> docRepo.findByMaster_SystemIdOrderByDocumentDateDesc(systemId));
-
-        // 3. Join threads
-        CompletableFuture.allOf(namesFut, addrFut, ssnFut, dlFut, miscFut, dobFut, flagFut, scarFut, henryFut, ncicFut, docsFut).join();
-
-        // 4. Load Reference Data
-        Map<String, String> cautionMap = refService.getAllCautionCodes();
-
-        // 5. Assemble DTO
-        PersonDetailDTO dto = new PersonDetailDTO();
-
-        // --- Header Information ---
-        dto.setSystemId(master.getSystemId());
-        dto.setSid(master.getSid());
-        dto.setFbiNumber(master.getFbiNumber());
-
-        // FIX: Map Record Type Code to Description (Source 1785)
-        dto.setRecordType(mapRecordType(master.getRecordType()));
+    // --- Snapshot Fast Path ---
+    private final IdentPersonSnapshotRepository snapshotRepo;
+    private final PersonSnapshotCodec snapshotCodec;
+    private final DetailPayloadCache payloadCache;
 
-        dto.setRapbackSubscriptionIndicator(master.getRapbackSubscriptionIndicator());
+    @Value("${ident.snapshot.read-enabled:true}")
+    private boolean snapshotReadEnabled;
 
-        dto.setLastUpdated(master.getLastUpdateDate());
-        dto.setComments(master.getComments());
-
-        // --- Personal Identifiers ---
-        dto.setRace(master.getRaceCode());
-        dto.setSex(master.getSexCode());
-        dto.setHeight(master.getHeight());
-        dto.setWeight(master.getWeight());
-        dto.setEyeColor(master.getEyeColorCode());
-        dto.setHairColor(master.getHairColorCode());
-        dto.setSkinTone(master.getSkinToneCode());
-        dto.setPlaceOfBirth(master.getPlaceOfBirthCode());
-        dto.setCitizenship(master.getCitizenshipCode());
-
-        // --- Mapped Lists ---
-        dto.setNamesAndAliases(namesFut.join().stream().map(this::mapName).collect(Collectors.toList()));
-        dto.setAddressHistory(addrFut.join().stream().map(this::mapAddress).collect(Collectors.toList()));
-        dto.setSsnHistory(ssnFut.join().stream().map(this::mapSsn).collect(Collectors.toList()));
-        dto.setDriverLicenses(dlFut.join().stream().map(this::mapDl).collect(Collectors.toList()));
-        dto.setSecondaryIdentifiers(miscFut.join().stream().map(this::mapMisc).collect(Collectors.toList()));
-        dto.setAlternateDOBs(dobFut.join().stream().map(this::mapDob).collect(Collectors.toList()));
-        dto.setScarsAndMarks(scarFut.join().stream().map(this::mapScar).collect(Collectors.toList()));
-
-        // --- Map Flags & Cautions ---
-        dto.setFlags(flagFut.join().stream().map(f -> mapFlag(f, cautionMap)).collect(Collectors.toList()));
-
-        // 1. Map Misc Numbers
-        List<SecondaryIDDTO> miscList = miscFut.join().stream()
-                .map(this::mapMisc)
-                .collect(Collectors.toList());
-
-        // 2. Map Driver's Licenses as "Misc Numbers" (Type = "DL")
-        List<SecondaryIDDTO> dlAsMisc = dlFut.join().stream()
-                .map(this::mapDlToMisc)
-                .toList();
-
-        // 3. Combine them
-        miscList.addAll(dlAsMisc);
-        dto.setSecondaryIdentifiers(miscList);
-
-        // (Optional) Keep dedicated DL list if needed for other logic, otherwise this is redundant but harmless
-        dto.setDriverLicenses(dlFut.join().stream().map(this::mapDl).collect(Collectors.toList()));
-
-        // --- Fingerprint Classifications ---
-        List<FingerprintDTO> fpList = new ArrayList<>();
-        henryFut.join().forEach(h -> fpList.add(mapHenry(h)));
-        ncicFut.join().forEach(n -> fpList.add(mapNcic(n)));
-        dto.setFingerprints(fpList);
+    @Transactional(readOnly = true)
+    public PersonDetailDTO getPersonDetails(Long systemId) {
+        return getPersonDetails(systemId, DetailSection.all());
+    }
 
-        // --- Fingerprint Pattern Type (MAFIS) ---
-        IdentName primaryName = dto.getNamesAndAliases().isEmpty() ? null :
-                namesFut.join().stream().filter(n -> "P".equals(n.getNameType())).findFirst().orElse(namesFut.join().getFirst());
+    /**
+     * Builds the Person Detail view for the requested sections only.
+     * Child tables belonging to sections that were not requested are never queried,
+     * and the matching PersonDetailDTO lists are left null.
+     * <p>
+     * When a snapshot exists for the record it is served with one primary-key read instead.
+     * </p>
+     */
+    @Transactional(readOnly = true)
+    public PersonDetailDTO getPersonDetails(Long systemId, Set<DetailSection> sections) {
+        Timer.Sample total = Timer.start(meterRegistry);
 
-        if (primaryName != null && primaryName.getMafisFingerprint() != null) {
-            String rawFp = primaryName.getMafisFingerprint();
-            String convertedFp = utils.convertMafisHandToDisplay(rawFp);
-            String paddedFp = String.format("%-10s", convertedFp);
-            dto.setPatternRight(paddedFp.substring(0, 5).trim());
-            dto.setPatternLeft(paddedFp.substring(5, Math.min(10, paddedFp.length())).trim());
-        } else {
-            dto.setPatternRight("");
-            dto.setPatternLeft("");
+        PersonDetailDTO dto = snapshotReadEnabled ? readSnapshot(systemId, sections) : null;
+        if (dto == null) {
+            dto = buildDetails(systemId, sections, true);
         }
 
-        // --- Documents ---
-        List<IdentDocument> allDocs = docsFut.join();
-        dto.setArrestDocuments(allDocs.stream().filter(d -> "ARREST".equalsIgnoreCase(d.getDocCategory())).map(this::mapDoc).collect(Collectors.toList()));
-        dto.setIndexDocuments(allDocs.stream().filter(d -> "INDEX".equalsIgnoreCase(d.getDocCategory())).map(this::mapDoc).collect(Collectors.toList()));
-        dto.setGeneralReferences(allDocs.stream().filter(d -> "REFER".equalsIgnoreCase(d.getDocCategory())).map(this::mapDoc).collect(Collectors.toList()));
-
-        // --- Derived Caution Flag ---
-        String primaryCaution = dto.getFlags().stream()
-                .filter(f -> "CAUTION".equals(f.getType()))
-                .findFirst()
-                .map(FlagDTO::getDescription)
-                .orElse("NONE");
-        dto.setCautionFlag(primaryCaution);
-
+        total.stop(meterRegistry.timer("ident.detail.request", "sections", sectionsTag(sections)));
         return dto;
     }
 
-    private SecondaryIDDTO mapDlToMisc(IdentDL entity) {
-        SecondaryIDDTO dto = new SecondaryIDDTO();
-        dto.setIdType("DL");
-        String state = entity.getStateSource() != null ? entity.getStateSource().trim() : "";
-        String num = entity.getLicenseNumber() != null ? entity.getLicenseNumber().trim() : "";
-        dto.setIdValue((state + num).trim());
-        return dto;
-    }
+    /**
+     * Returns the full Person Detail view as serialized JSON (plain and GZIP), served from the
+     * payload cache while the record's snapshot version is unchanged.
+     * Records without a snapshot have no version to validate against and are never cached.
+     */
+    @Transactional(readOnly = true)
+    public DetailPayloadCache.Payload getFullDetailPayload(Long systemId) {
+        Long version = snapshotRepo.findVersionBySystemId(systemId).orElse(null);
+        if (version != null) {
+            DetailPayloadCache.Payload cached = payloadCache.get(systemId, version);
+            if (cached != null) return cached;
+        }
 
-    // --- NEW HELPER: Record Type Mapping ---
-    private String mapRecordType(String code) {
-        if (code == null) return "CRIMINAL";
-        return switch (code.toUpperCase()) {
-            case "J" -> "JUVENILE";
-            case "N" -> "NON-CRIMINAL";
-            case "T" -> "PENDING";
-            case "F" -> "FLYER";
-            default -> "CRIMINAL";
-        };
+        PersonDetailDTO dto = getPersonDetails(systemId, DetailSection.all());
+        DetailPayloadCache.Payload payload = payloadCache.encode(dto, version == null ? -1 : version);
+        if (version != null) payloadCache.put(systemId, payload);
+        return payload;
     }
 
-    // --- Mappers (Existing) ---
-    private NameDTO mapName(IdentName entity) {
-        NameDTO dto = new NameDTO();
-        dto.setId(entity.getNameId());
-        dto.setNameType(entity.getNameType());
-        dto.setLastName(entity.getLastName());
-        dto.setFirstName(entity.getFirstName());
-        dto.setMiddleName(entity.getMiddleName());
-        dto.setMiddleInitial(entity.getMiddleInitial());
-        dto.setDateOfBirth(entity.getDateOfBirth());
-        dto.setRace(entity.getRaceCode());
-        dto.setSex(entity.getSexCode());
-        return dto;
+    /**
+     * Builds the complete Person Detail view from the live tables, sequentially, on the caller's
+     * transaction. Used to rebuild snapshots so uncommitted changes of that transaction are included
+     * (the parallel fetches in getPersonDetails run on other connections).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public PersonDetailDTO buildFullDetailsInCurrentTransaction(Long systemId) {
+        return buildDetails(systemId, DetailSection.all(), false);
     }
 
-    private AddressDTO mapAddress(IdentAddress entity) {
-        AddressDTO dto = new AddressDTO();
-        dto.setStreetNumber(entity.getStreetNumber());
-        dto.setStreetDirection(entity.getStreetDirection());
-        dto.setStreetName(entity.getStreetName());
-        dto.setStreetSuffix(entity.getStreetSuffix());
-        dto.setCity(entity.getCity());
-        dto.setState(entity.getStateCode());
-        dto.setZip(entity.getZipCode());
-        dto.setIsCurrent(entity.getIsCurrent());
+    private PersonDetailDTO readSnapshot(Long systemId, Set<DetailSection> sections) {
+        IdentPersonSnapshot snapshot = timed("snapshot", () -> snapshotRepo.findById(systemId)).orElse(null);
+        if (snapshot == null) {
+            meterRegistry.counter("ident.detail.snapshot", "result", "miss").increment();
+            return null;
+        }
+        meterRegistry.counter("ident.detail.snapshot", "result", "hit").increment();
 
-        String full = (entity.getStreetNumber() != null ? entity.getStreetNumber() + " " : "") +
-                (entity.getStreetDirection() != null ? entity.getStreetDirection() + " " : "") +
-                (entity.getStreetName() != null ? entity.getStreetName() + " " : "") +
-                (entity.getStreetSuffix() != null ? entity.getStreetSuffix() : "");
-        dto.setFullAddress(full.trim());
+        PersonDetailDTO dto = snapshotCodec.decode(snapshot.getPayload());
+        clearUnrequestedSections(dto, sections);
         return dto;
     }
 
-    private SsnDTO mapSsn(IdentSSN entity) {
-        SsnDTO dto = new SsnDTO();
-        dto.setSsn(entity.getSsn());
-        dto.setDateRecorded(entity.getDateRecorded() != null ? entity.getDateRecorded().toLocalDate() : null);
-        return dto;
-    }
+    private PersonDetailDTO buildDetails(Long systemId, Set<DetailSection> sections, boolean parallel) {
+        // 1. Fetch Core Master Record
+        IdentMaster master = timed("header", () -> masterRepo.findById(systemId))
+                .orElseThrow(() -> new RuntimeException("Record not found for SystemID: " + systemId));
 
-    private DriverLicenseDTO mapDl(IdentDL entity) {
-        DriverLicenseDTO dto = new DriverLicenseDTO();
-        dto.setLicenseNumber(entity.getLicenseNumber());
-        dto.setStateCode(entity.getStateSource());
-        return dto;
-    }
+        boolean wantDl = sections.contains(DetailSection.LICENSES) || sections.contains(DetailSection.IDENTIFIERS);
+
+        // 2. Execute Parallel Fetches (Only for the requested sections)
+        var namesFut = fetch(parallel, sections.contains(DetailSection.NAMES), "names", () -> nameRepo.findByMaster_SystemId(systemId));
+        var addrFut = fetch(parallel, sections.contains(DetailSection.ADDRESSES), "addresses", () -> addrRepo.findByMaster_SystemId(systemId));
+        var ssnFut = fetch(parallel, sections.contains(DetailSection.SSNS), "ssns", () -> ssnRepo.findByMaster_SystemId(systemId));
+        var dlFut = fetch(parallel, wantDl, "licenses", () -> dlRepo.findByMaster_SystemId(systemId));
+        var miscFut = fetch(parallel, sections.contains(DetailSection.IDENTIFIERS), "identifiers", () -> miscRepo.findByMaster_SystemId(systemId));
+        var dobFut = fetch(parallel, sections.contains(DetailSection.DOBS), "dobs", () -> dobRepo.findByMaster_SystemId(systemId));
+        var flagFut = fetch(parallel, sections.contains(DetailSection.FLAGS), "flags", () -> flagRepo.findByMaster_SystemId(systemId));
+        var scarFut = fetch(parallel, sections.contains(DetailSection.SCARS), "scars", () -> scarsRepo.findByMaster_SystemId(systemId));
+        var henryFut = fetch(parallel, sections.contains(DetailSection.FINGERPRINTS), "fingerprints", () -> henryRepo.findByMaster_SystemId(systemId));
+        var ncicFut = fetch(parallel, sections.contains(DetailSection.FINGERPRINTS), "fingerprints", () -> ncicRepo.findByMaster_SystemId(systemId));
+        var docsFut = fetch(parallel, sections.contains(DetailSection.DOCUMENTS), "documents",
+                DocumentHistoryService.FirstPages.EMPTY, () -> documentHistory.loadFirstPages(systemId));
 
-    private SecondaryIDDTO mapMisc(IdentMiscNum entity) {
-        SecondaryIDDTO dto = new SecondaryIDDTO();
+        // 3. Join threads
+        CompletableFuture.allOf(namesFut, addrFut, ssnFut, dlFut, miscFut, dobFut, flagFut, scarFut, henryFut, ncicFut, docsFut).join();
 
-        dto.setIdType(entity.getMiscNumType());
-        String num = entity.getMiscNumber() != null ? entity.getMiscNumber().trim() : "";
+        // 4. Load Reference Data
+        Map<String, String> cautionMap = sections.contains(DetailSection.FLAGS) ? refService.getAllCautionCodes() : Map.of();
 
-        dto.setIdValue((num).trim());
+        // 5. Assemble DTO (single pass over each child list)
+        var rows = new PersonDetailAssembler.Rows(
+                namesFut.join(), addrFut.join(), ssnFut.join(), dlFut.join(), miscFut.join(), dobFut.join(),
+                flagFut.join(), scarFut.join(), henryFut.join(), ncicFut.join(), docsFut.join());
 
-        return dto;
+        return timed("assemble", () -> assembler.assemble(master, rows, sections, cautionMap));
     }
 
-    private AltDOBDTO mapDob(IdentDobAlias entity) {
-        AltDOBDTO dto = new AltDOBDTO();
-        dto.setDob(entity.getDateOfBirth());
-        return dto;
+    /**
+     * Snapshots always hold every section; drop the ones the caller did not ask for
+     * so the response matches a live section-selective fetch.
+     */
+    private void clearUnrequestedSections(PersonDetailDTO dto, Set<DetailSection> sections) {
+        if (!sections.contains(DetailSection.NAMES)) {
+            dto.setNamesAndAliases(null);
+            dto.setPatternRight(null);
+            dto.setPatternLeft(null);
+        }
+        if (!sections.contains(DetailSection.ADDRESSES)) dto.setAddressHistory(null);
+        if (!sections.contains(DetailSection.FINGERPRINTS)) dto.setFingerprints(null);
+        if (!sections.contains(DetailSection.FLAGS)) {
+            dto.setFlags(null);
+            dto.setCautionFlag(null);
+        }
+        if (!sections.contains(DetailSection.SSNS)) dto.setSsnHistory(null);
+        if (!sections.contains(DetailSection.LICENSES)) dto.setDriverLicenses(null);
+        if (!sections.contains(DetailSection.IDENTIFIERS)) dto.setSecondaryIdentifiers(null);
+        if (!sections.contains(DetailSection.SCARS)) dto.setScarsAndMarks(null);
+        if (!sections.contains(DetailSection.DOBS)) dto.setAlternateDOBs(null);
+        if (!sections.contains(DetailSection.DOCUMENTS)) {
+            dto.setArrestDocuments(null);
+            dto.setIndexDocuments(null);
+            dto.setGeneralReferences(null);
+            dto.setDocumentCounts(null);
+        }
     }
 
-    private FlagDTO mapFlag(IdentFlag entity, Map<String, String> cautionMap) {
-        FlagDTO dto = new FlagDTO();
-        dto.setCode(entity.getFlagCode());
-        dto.setType(entity.getFlagType());
-        String desc = cautionMap.getOrDefault(entity.getFlagCode(), entity.getFlagCode());
-        dto.setDescription(desc);
-        return dto;
-    }
+    // --- Section Fetch & Timing Helpers ---
 
-    private AttributeDTO mapScar(IdentScarsMarks entity) {
-        AttributeDTO dto = new AttributeDTO();
-        dto.setCode(entity.getCode());
-        dto.setDescription(entity.getDescription());
-        return dto;
+    /**
+     * Runs the query for a section (asynchronously when parallel), or returns an empty list
+     * without touching the database when the section was not requested.
+     */
+    private <T> CompletableFuture<List<T>> fetch(boolean parallel, boolean requested, String section, Supplier<List<T>> query) {
+        return fetch(parallel, requested, section, List.of(), query);
     }
 
-    private FingerprintDTO mapHenry(IdentHenryFP entity) {
-        FingerprintDTO dto = new FingerprintDTO();
-        dto.setType("HENRY");
-        dto.setPrimary(entity.getPrimaryHenry());
-        dto.setClassification(entity.getFpcHenry());
-        return dto;
+    private <T> CompletableFuture<T> fetch(boolean parallel, boolean requested, String section, T whenSkipped, Supplier<T> query) {
+        if (!requested) return CompletableFuture.completedFuture(whenSkipped);
+        if (!parallel) return CompletableFuture.completedFuture(timed(section, query));
+        return CompletableFuture.supplyAsync(() -> timed(section, query));
     }
 
-    private FingerprintDTO mapNcic(IdentNcicFP entity) {
-        FingerprintDTO dto = new FingerprintDTO();
-        dto.setType("NCIC");
-        dto.setClassification(entity.getFpcPattern());
-        return dto;
+    private <T> T timed(String section, Supplier<T> query) {
+        return meterRegistry.timer("ident.detail.section", "section", section).record(query);
     }
 
-    private DocumentDTO mapDoc(IdentDocument entity) {
-        DocumentDTO dto = new DocumentDTO();
-        dto.setId(entity.getDocId());
-        dto.setDocumentType(entity.getDocumentType());
-        dto.setDocumentNumber(entity.getDocumentNumber());
-        dto.setDocumentDate(entity.getDocumentDate());
-        dto.setDescription(entity.getDescription());
-        dto.setCategory(entity.getDocCategory());
-        return dto;
+    // Bounded tag values: a series per section combination would grow up to 2^n timers
+    private String sectionsTag(Set<DetailSection> sections) {
+        if (sections.size() == DetailSection.values().length) return "all";
+        if (sections.isEmpty()) return "header";
+        return "partial";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+package md.dpscs.cch.iis.service;
+
+import md.dpscs.cch.iis.dto.DocumentDTO;
+import md.dpscs.cch.iis.dto.DocumentPageDTO;
+import md.dpscs.cch.iis.model.IdentDocument;
+import md.dpscs.cch.iis.repository.IdentDocumentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves the Arrest / Index / Refer document history of a SystemID in pages.
+ * <p>
+ * Paging is keyset based on (DocumentDate DESC, DocID DESC): the last row of a page is the
+ * cursor for the next one, and every page is an index seek on (SystemID, DocCategory), so deep
+ * pages cost the same as the first. Documents without a DocumentDate (legacy rows) come last and
+ * are paged with {@link #NULL_DATE} as their cursor date. The category total is only counted for
+ * the first page.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentHistoryService {
+
+    public static final List<String> CATEGORIES = List.of("ARREST", "INDEX", "REFER");
+    private static final int MAX_PAGE_SIZE = 200;
+
+    /** Sort key and cursor date of documents without a DocumentDate (older than any real date). */
+    public static final LocalDate NULL_DATE = LocalDate.of(1, 1, 1);
+
+    private final IdentDocumentRepository docRepo;
+    private final PersonDetailAssembler assembler;
+
+    @Value("${ident.detail.document-page-size:25}")
+    private int defaultPageSize;
+
+    /**
+     * Per-category document counts plus the first page of each category (Detail view).
+     */
+    public record FirstPages(
+            Map<String, Long> counts,
+            List<IdentDocument> arrest,
+            List<IdentDocument> index,
+            List<IdentDocument> refer
+    ) {
+        public static final FirstPages EMPTY = new FirstPages(Map.of(), List.of(), List.of(), List.of());
+    }
+
+    /**
+     * Loads counts and first pages with four small queries, regardless of how many documents exist.
+     * Runs on whichever transaction/connection the caller provides.
+     */
+    public FirstPages loadFirstPages(Long systemId) {
+        Map<String, Long> counts = new HashMap<>(4);
+        for (Object[] row : docRepo.countByCategory(systemId)) {
+            if (row[0] != null) counts.put((String) row[0], (Long) row[1]);
+        }
+
+        PageRequest firstPage = PageRequest.of(0, defaultPageSize);
+        return new FirstPages(
+                counts,
+                counts.containsKey("ARREST") ? docRepo.findFirstPageByCategory(systemId, "ARREST", firstPage) : List.of(),
+                counts.containsKey("INDEX") ? docRepo.findFirstPageByCategory(systemId, "INDEX", firstPage) : List.of(),
+                counts.containsKey("REFER") ? docRepo.findFirstPageByCategory(systemId, "REFER", firstPage) : List.of());
+    }
+
+    /**
+     * Returns one page of a category. Without a cursor the first page is returned.
+     */
+    @Transactional(readOnly = true)
+    public DocumentPageDTO getPage(Long systemId, String category, LocalDate afterDate, Long afterId, Integer size) {
+        String cat = category == null ? "" : category.trim().toUpperCase();
+        if (!CATEGORIES.contains(cat)) {
+            throw new IllegalArgumentException("Invalid document category: " + category + " (expected ARREST, INDEX or REFER)");
+        }
+        if ((afterDate == null) != (afterId == null)) {
+            throw new IllegalArgumentException("afterDate and afterId must be supplied together.");
+        }
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<IdentDocument> rows = fetch(systemId, cat, afterDate, afterId, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        int count = Math.min(rows.size(), pageSize);
+
+        List<DocumentDTO> docs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            docs.add(assembler.mapDocument(rows.get(i)));
+        }
+
+        DocumentPageDTO page = new DocumentPageDTO();
+        page.setCategory(cat);
+        if (afterDate == null) {
+            page.setTotalCount(docRepo.countByMaster_SystemIdAndDocCategory(systemId, cat));
+        }
+        page.setDocuments(docs);
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            IdentDocument last = rows.get(count - 1);
+            page.setNextAfterDate(last.getDocumentDate() != null ? last.getDocumentDate() : NULL_DATE);
+            page.setNextAfterId(last.getDocId());
+        }
+        return page;
+    }
+
+    private List<IdentDocument> fetch(Long systemId, String category, LocalDate afterDate, Long afterId, int limit) {
+        if (afterDate == null) {
+            return docRepo.findFirstPageByCategory(systemId, category, PageRequest.of(0, limit));
+        }
+        if (afterDate.equals(NULL_DATE)) {
+            return docRepo.findUndatedPageByCategory(systemId, category, afterId, PageRequest.of(0, limit));
+        }
+
+        // Dated rows after the cursor, then the undated tail if the page is not full yet
+        List<IdentDocument> rows = new ArrayList<>(
+                docRepo.findDatedPageByCategoryAfter(systemId, category, afterDate, afterId, PageRequest.of(0, limit)));
+        if (rows.size() < limit) {
+            rows.addAll(docRepo.findUndatedPageByCategory(systemId, category, Long.MAX_VALUE,
+                    PageRequest.of(0, limit - rows.size())));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,108 @@
+package md.dpscs.cch.iis.service;
+
+import md.dpscs.cch.iis.model.IdentDocument;
+import md.dpscs.cch.iis.model.IdentEventCounts;
+import md.dpscs.cch.iis.repository.IdentDocumentRepository;
+import md.dpscs.cch.iis.repository.IdentEventCountsRepository;
+import md.dpscs.cch.iis.util.CriminalEventTypes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps T_IDENT_EVENT_COUNTS in step with T_IDENT_DOCUMENTS.
+ * <p>
+ * Every path that inserts or deletes documents reports it here in the same transaction, after the
+ * change; the counters are adjusted in place, so readers get the criminal / non-criminal counts and
+ * the latest criminal date with one primary-key read. The latest date is re-queried only when the
+ * deleted document carried it. A record without a counter row yet (not backfilled) is counted from
+ * its documents on first use, and {@code EventCountsVerifyJob} corrects any drift.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class EventCountsService {
+
+    private final IdentEventCountsRepository countsRepo;
+    private final IdentDocumentRepository docRepo;
+
+    /**
+     * Current counters of the record, created from its documents if missing.
+     */
+    public IdentEventCounts get(Long systemId) {
+        return countsRepo.findById(systemId).orElseGet(() -> {
+            recount(List.of(systemId));
+            return countsRepo.findById(systemId)
+                    .orElseThrow(() -> new IllegalArgumentException("Record not found for SystemID: " + systemId));
+        });
+    }
+
+    public void documentAdded(IdentDocument doc) {
+        Optional<IdentEventCounts> locked = lockCounts(doc.getMaster().getSystemId());
+        if (locked.isEmpty()) return; // Just counted, including this document
+
+        IdentEventCounts counts = locked.get();
+        if (CriminalEventTypes.isCriminal(doc.getDocumentType())) {
+            counts.setCriminalCount(counts.getCriminalCount() + 1);
+            LocalDate date = doc.getDocumentDate();
+            if (date != null && (counts.getLatestCriminalDate() == null || date.isAfter(counts.getLatestCriminalDate()))) {
+                counts.setLatestCriminalDate(date);
+            }
+        } else {
+            counts.setNonCriminalCount(counts.getNonCriminalCount() + 1);
+        }
+        counts.setUpdatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * @param docs documents of the record that have been deleted in this transaction
+     */
+    public void documentsRemoved(Long systemId, Collection<IdentDocument> docs) {
+        if (docs.isEmpty()) return;
+        Optional<IdentEventCounts> locked = lockCounts(systemId);
+        if (locked.isEmpty()) return;
+
+        IdentEventCounts counts = locked.get();
+        boolean latestRemoved = false;
+        for (IdentDocument doc : docs) {
+            if (CriminalEventTypes.isCriminal(doc.getDocumentType())) {
+                counts.setCriminalCount(counts.getCriminalCount() - 1);
+                latestRemoved |= doc.getDocumentDate() != null && doc.getDocumentDate().equals(counts.getLatestCriminalDate());
+            } else {
+                counts.setNonCriminalCount(counts.getNonCriminalCount() - 1);
+            }
+        }
+        if (latestRemoved) {
+            // Another criminal event may share the date; the query flushes the deletes first
+            counts.setLatestCriminalDate(docRepo.findLatestDocumentDate(systemId, CriminalEventTypes.TYPES));
+        }
+        counts.setUpdatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Recomputes the counters of the given records from their documents; returns the rows corrected.
+     */
+    public int recount(Collection<Long> systemIds) {
+        if (systemIds.isEmpty()) return 0;
+        return countsRepo.recount(systemIds, CriminalEventTypes.TYPES, LocalDateTime.now());
+    }
+
+    /**
+     * The locked counter row, or empty if there was none and it has just been counted from the documents.
+     */
+    private Optional<IdentEventCounts> lockCounts(Long systemId) {
+        Optional<IdentEventCounts> counts = countsRepo.findByIdForUpdate(systemId);
+        if (counts.isEmpty()) {
+            recount(List.of(systemId));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,87 @@
+package md.dpscs.cch.iis.service;
+
+import md.dpscs.cch.iis.model.*;
+import md.dpscs.cch.iis.util.CriminalEventTypes;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Everything one expungement request reads about a record, loaded once after the record lock is taken:
+ * the master, its documents, names, SSNs and addresses, and whether the FBI owns the SID.
+ * <p>
+ * The lists are snapshots; documents deleted during the request stay in them, so counts and
+ * dates reflect the record as it was when the request started.
+ * </p>
+ */
+record ExpungementAggregate(IdentMaster master,
+                            List<IdentDocument> documents,
+                            List<IdentName> names,
+                            List<IdentSSN> ssns,
+                            List<IdentAddress> addresses,
+                            boolean fbiOwned) {
+
+    ExpungementAggregate {
+        documents = List.copyOf(documents);
+        names = List.copyOf(names);
+        ssns = List.copyOf(ssns);
+        addresses = List.copyOf(addresses);
+    }
+
+    static boolean isCriminal(IdentDocument doc) {
+        return CriminalEventTypes.isCriminal(doc.getDocumentType());
+    }
+
+    long crimCount() {
+        return documents.stream().filter(ExpungementAggregate::isCriminal).count();
+    }
+
+    long nonCrimCount() {
+        return documents.size() - crimCount();
+    }
+
+    /**
+     * The document with the given ID, if it belongs to this record.
+     */
+    Optional<IdentDocument> document(Long docId) {
+        return documents.stream().filter(d -> d.getDocId().equals(docId)).findFirst();
+    }
+
+    boolean hasDocumentType(String type) {
+        return documents.stream().anyMatch(d -> type.equalsIgnoreCase(d.getDocumentType()));
+    }
+
+    boolean hasNonCriminal() {
+        return documents.stream().anyMatch(d -> !isCriminal(d));
+    }
+
+    LocalDate latestCriminalDate() {
+        return documents.stream()
+                .filter(ExpungementAggregate::isCriminal)
+                .map(IdentDocument::getDocumentDate)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    /**
+     * The Primary name, else the first name on file, else an empty name.
+     */
+    IdentName primaryName() {
+        return names.stream()
+                .filter(n -> "P".equals(n.getNameType()))
+                .findFirst()
+                .orElseGet(() -> names.isEmpty() ? new IdentName() : names.getFirst());
+    }
+
+    Optional<IdentAddress> currentAddress() {
+        return addresses.stream().filter(a -> Boolean.TRUE.equals(a.getIsCurrent())).findFirst();
+    }
+
+    Optional<String> firstSsn() {
+        return ssns.stream().findFirst().map(IdentSSN::getSsn);
+    }
+}
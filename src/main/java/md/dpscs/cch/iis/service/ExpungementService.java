@@ -1,8 +1,12 @@
 package md.dpscs.cch.iis.service;
 
+import md.dpscs.cch.iis.dto.ExpungementOperationDTO;
+import md.dpscs.cch.iis.dto.ExpungementPreviewDTO;
 import md.dpscs.cch.iis.dto.ExpungementRequest;
+import md.dpscs.cch.iis.event.IdentRecordChangedEvent;
 import md.dpscs.cch.iis.model.*;
 import md.dpscs.cch.iis.repository.*;
+import md.dpscs.cch.iis.util.CriminalEventTypes;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
@@ -10,7 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,56 +27,199 @@ public class ExpungementService {
     private final IdentDocumentRepository docRepo;
     private final IdentAddressRepository addressRepo;
     private final IdentSSNRepository ssnRepo;
-    private final IdentScarsMarksRepository scarsRepo;
-    private final IdentDLRepository dlRepo;
-    private final IdentMiscNumRepository miscNumRepo;
-    private final IdentHenryFPRepository henryFpRepo;
-    private final IdentNcicFPRepository ncicFpRepo;
-    private final IdentDobAliasRepository dobAliasRepo;
+    private final IdentRecordPurger recordPurger;
 
     private final IdentExpungementRepository expungementRepo;
     private final IdentFbiDowngradeRepository fbiDowngradeRepo;
-    private final IdentFbiMasterRepository fbiMasterRepo;
+    private final FbiOwnershipService fbiOwnership;
 
     private final AuditService auditService;
+    private final OutboxService outboxService;
+    private final RecordLockService recordLock;
+    private final EventCountsService eventCounts;
     private final ApplicationEventPublisher eventPublisher;
 
-    private static final List<String> CRIMINAL_TYPES = List.of(
-            "BIN", "DOC", "DIO", "IUR", "PAA", "PAB", "COF", "PAR", "PAV", "PAL",
-            "WPR", "WPL", "WAR", "WAA", "DET", "CSO", "SOR", "SVO", "SVP", "OFF",
-            "CIE", "PAC", "PAD", "PAE", "PAF", "PAG", "PAH", "PAI", "PAJ",
-            "209", "211", "CAR", "CNS", "DPP"
-    );
+    private static final String FBI_OWNED_WARNING = "REC IS FBI OWNED - DRS MSG NOT SENT";
 
     @Transactional
     public String processExpungement(ExpungementRequest req) {
-        IdentMaster master = masterRepo.findById(req.getSystemId())
-                .orElseThrow(() -> new IllegalArgumentException("System ID not found: " + req.getSystemId()));
-
-        long crimCount = docRepo.countByMaster_SystemIdAndDocumentTypeIn(master.getSystemId(), CRIMINAL_TYPES);
-        long totalCount = docRepo.countByMaster_SystemId(master.getSystemId());
-        long nonCrimCount = totalCount - crimCount;
+        IdentMaster master = recordLock.lockForUpdate(req.getSystemId());
+        ExpungementAggregate agg = loadAggregate(master);
 
+        String warningMessage;
         switch (req.getDeleteType().toUpperCase()) {
             case "PART_CANCEL":
-                processPartCancel(master, req, crimCount, nonCrimCount);
-                return null; // No warning for Part Cancel
+                processPartCancel(agg, req);
+                warningMessage = null; // No warning for Part Cancel
+                break;
             case "DOWNGRADE":
-                return processDowngrade(master, req, crimCount, nonCrimCount);
+                warningMessage = processDowngrade(agg, req);
+                break;
             case "CANCEL_ENTIRE":
-                return processCancelEntire(master, req, crimCount, nonCrimCount);
+                warningMessage = processCancelEntire(agg, req);
+                eventPublisher.publishEvent(IdentRecordChangedEvent.deleted(master.getSystemId()));
+                return warningMessage;
             case "PARTIAL":
-                processPartial(master, req, crimCount, nonCrimCount);
-                return null;
+                processPartial(agg, req);
+                warningMessage = null;
+                break;
             case "CANCEL":
-                processCancel(req);
-                return null;
+                processCancel(agg, req);
+                warningMessage = null;
+                break;
             default:
                 throw new IllegalArgumentException("Invalid Delete Type: " + req.getDeleteType());
         }
+
+        eventPublisher.publishEvent(IdentRecordChangedEvent.updated(master.getSystemId()));
+        return warningMessage;
+    }
+
+    /**
+     * Which delete types processExpungement would accept for the record right now, computed from one
+     * aggregate query without locking or writing anything. Event-level types are reported once for a
+     * criminal and once for a non-criminal target document, when the record has one. Checks that depend
+     * on request fields (e.g. clearing the UCN on a Downgrade) are not evaluated.
+     */
+    @Transactional(readOnly = true)
+    public ExpungementPreviewDTO previewExpungement(Long systemId, String requestingUnit) {
+        List<Object[]> rows = masterRepo.findExpungementSummary(systemId);
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Record not found for SystemID: " + systemId);
+        }
+        Object[] row = rows.getFirst();
+
+        String recordType = (String) row[1];
+        String fbiNumber = (String) row[2];
+        String iiiStatus = (String) row[3];
+        String rapback = (String) row[4];
+        long crimCount = count(row[5]);
+        long nonCrimCount = count(row[6]);
+        LocalDate latestCriminalDate = (LocalDate) row[8];
+        if (row[5] == null) {
+            // No counter row yet (not backfilled); count the documents instead of writing in a read-only transaction
+            crimCount = docRepo.countByMaster_SystemIdAndDocumentTypeIn(systemId, CriminalEventTypes.TYPES);
+            nonCrimCount = docRepo.countByMaster_SystemId(systemId) - crimCount;
+            latestCriminalDate = docRepo.findLatestDocumentDate(systemId, CriminalEventTypes.TYPES);
+        }
+        boolean hasCns = count(row[7]) > 0;
+        boolean isFbiOwned = fbiOwnership.isFbiOwned((String) row[0]);
+
+        boolean hasFbiNumber = fbiNumber != null && !fbiNumber.trim().isEmpty();
+        boolean isOnIII = "S".equalsIgnoreCase(iiiStatus) || "M".equalsIgnoreCase(iiiStatus);
+        boolean isPending = "T".equals(recordType) || "PENDING".equals(recordType);
+        boolean isDataIntegrity = "DATA_INTEGRITY".equals(requestingUnit);
+
+        List<ExpungementOperationDTO> operations = new ArrayList<>();
+
+        // Same checks, in the same order, as processCancelEntire
+        String reason = null;
+        if (crimCount > 1) {
+            reason = "MULTIPLE ARREST EVENTS EXIST – CAN NOT PERFORM AN EXPUNGE ENTIRE.";
+        } else if (nonCrimCount > 0 || crimCount == 0) {
+            reason = "NON-CRIMINAL EVENTS EXIST - CAN NOT PERFORM AN EXPUNGE ENTIRE ON THIS RECORD!";
+        } else if (!isFbiOwned && isOnIII && !hasFbiNumber) {
+            reason = "GIVE THIS CASE TO YOUR SUPERVISOR. NO DRS MSG WAS SENT – THE FBI # IS MISSING.";
+        }
+        operations.add(operation("CANCEL_ENTIRE", "RECORD", reason, isFbiOwned ? FBI_OWNED_WARNING : null));
+
+        // processDowngrade
+        reason = null;
+        String warning = null;
+        if (crimCount == 0) {
+            reason = "MUST HAVE AN EXISTING CRIMINAL EVENT TO PERFORM THIS DOWNGRADE FUNCTION.";
+        } else if (nonCrimCount == 0 && !isDataIntegrity) {
+            reason = "MUST HAVE AN EXISTING NON-CRIMINAL EVENT TO PERFORM THIS DOWNGRADE FUNCTION.";
+        } else if (isDataIntegrity) {
+            if (isPending && !hasCns) {
+                reason = "DI Downgrade Blocked: Pending record with multiple criminals requires a 'CNS' event.";
+            } else if (!isPending && nonCrimCount == 0) {
+                reason = "DI Downgrade Blocked: Multiple criminals exist. Add a Non-Criminal reference first.";
+            }
+        } else if (crimCount > 1) {
+            reason = "MULTIPLE ARREST EVENTS EXIST – CAN NOT PERFORM A DOWNGRADE. USE PART CANCEL.";
+        } else if (isFbiOwned) {
+            warning = FBI_OWNED_WARNING;
+        } else if (!hasFbiNumber) {
+            reason = "GIVE THIS CASE TO YOUR SUPERVISOR. NO DRS MSG WAS SENT – THE UCN # IS MISSING.";
+        }
+        operations.add(operation("DOWNGRADE", "RECORD", reason, warning));
+
+        // processPartCancel / processPartial / processCancel, by the kind of document selected
+        if (crimCount > 0) {
+            boolean isLast = crimCount <= 1;
+            operations.add(operation("PART_CANCEL", "CRIMINAL_EVENT",
+                    isLast ? "Cannot delete the last criminal event via Part Cancel. Use 'Downgrade'." : null, null));
+            operations.add(operation("PARTIAL", "CRIMINAL_EVENT",
+                    isLast ? "Cannot perform PARTIAL on the last criminal event. Use 'Downgrade' to properly update the SID status." : null, null));
+            operations.add(operation("CANCEL", "CRIMINAL_EVENT",
+                    isLast ? "Cannot CANCEL the last criminal event. You must use 'Downgrade' to ensure the SID status is updated correctly." : null, null));
+        }
+        if (nonCrimCount > 0) {
+            String partCancelReason = null;
+            String partialReason = null;
+            if (crimCount == 1 && nonCrimCount == 1) {
+                partCancelReason = "Cannot perform PART CANCEL on this non-criminal event when a criminal event exists. Use 'Cancel'.";
+                partialReason = "Cannot perform PARTIAL on this non-criminal event when a criminal event exists. Use 'Cancel'.";
+            } else if (crimCount == 0 && nonCrimCount >= 2) {
+                partCancelReason = "Cannot perform PART CANCEL when only non-criminal events exist. Use 'Cancel'.";
+                partialReason = "Cannot perform PARTIAL when only non-criminal events exist. Use 'Cancel'.";
+            }
+            operations.add(operation("PART_CANCEL", "NON_CRIMINAL_EVENT", partCancelReason, null));
+            operations.add(operation("PARTIAL", "NON_CRIMINAL_EVENT", partialReason, null));
+            operations.add(operation("CANCEL", "NON_CRIMINAL_EVENT", null, null));
+        }
+
+        ExpungementPreviewDTO preview = new ExpungementPreviewDTO();
+        preview.setSystemId(systemId);
+        preview.setSid((String) row[0]);
+        preview.setRecordType(recordType);
+        preview.setCriminalCount(crimCount);
+        preview.setNonCriminalCount(nonCrimCount);
+        preview.setLatestCriminalDate(latestCriminalDate);
+        preview.setFbiOwned(isFbiOwned);
+        preview.setIiiStatus(iiiStatus);
+        preview.setOnIII(isOnIII);
+        preview.setRapbackActive("R".equalsIgnoreCase(rapback) || "Y".equalsIgnoreCase(rapback));
+        preview.setRequestingUnit(requestingUnit);
+        preview.setOperations(operations);
+        return preview;
+    }
+
+    private static ExpungementOperationDTO operation(String deleteType, String target, String reason, String warning) {
+        ExpungementOperationDTO op = new ExpungementOperationDTO();
+        op.setDeleteType(deleteType);
+        op.setTarget(target);
+        op.setAllowed(reason == null);
+        op.setReason(reason);
+        op.setWarning(reason == null ? warning : null);
+        return op;
+    }
+
+    private static long count(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
     }
 
-    private String processCancelEntire(IdentMaster master, ExpungementRequest req, long crimCount, long nonCrimCount) {
+    /**
+     * Loads everything the expungement branches read about the record in one pass, so each
+     * table is queried once per request no matter which branch runs.
+     */
+    private ExpungementAggregate loadAggregate(IdentMaster master) {
+        Long sysId = master.getSystemId();
+        return new ExpungementAggregate(
+                master,
+                docRepo.findByMaster_SystemId(sysId),
+                nameRepo.findByMaster_SystemId(sysId),
+                ssnRepo.findByMaster_SystemId(sysId),
+                addressRepo.findByMaster_SystemId(sysId),
+                fbiOwnership.isFbiOwned(master.getSid()));
+    }
+
+    private String processCancelEntire(ExpungementAggregate agg, ExpungementRequest req) {
+        IdentMaster master = agg.master();
+        long crimCount = agg.crimCount();
+        long nonCrimCount = agg.nonCrimCount();
+
         // VALIDATION: Ensure strictly ONE criminal event and ZERO non-criminal events exist.
         if (crimCount > 1) {
             throw new IllegalStateException("MULTIPLE ARREST EVENTS EXIST – CAN NOT PERFORM AN EXPUNGE ENTIRE.");
@@ -85,23 +232,22 @@ public class ExpungementService {
         }
 
         // Get Latest Criminal Date (LocalDate)
-        LocalDate eventDate = getLatestCriminalDate(master.getSystemId());
+        LocalDate eventDate = agg.latestCriminalDate();
         String warningMessage = null;
 
         boolean isOnIII = "S".equalsIgnoreCase(master.getIiiStatus()) || "M".equalsIgnoreCase(master.getIiiStatus());
-        boolean isFbiOwned = fbiMasterRepo.existsBySid(master.getSid());
 
         // FBI OWNERSHIP CHECK
-        if (isFbiOwned) {
+        if (agg.fbiOwned()) {
             // 1. Log to FBI Downgrade table (Modern Requirement)
-            createFbiDowngradeLog(master, req, eventDate);
+            createFbiDowngradeLog(agg, req, eventDate);
 
             // 2. Log to Standard Expungement table with Indicator 'X' (Legacy Parity with II0500C)
             // This ensures the record exists in the main log but marks it as FBI-owned ('X') so IP07 skips DRS.
-            createStandardExpungementLog(master, req, "EXP", "X", eventDate);
+            createStandardExpungementLog(agg, req, "EXP", "X", eventDate);
 
             // 3. Set Warning Message
-            warningMessage = "REC IS FBI OWNED - DRS MSG NOT SENT";
+            warningMessage = FBI_OWNED_WARNING;
 
             // NOTE: We do NOT call triggerIp07Transaction() here, effectively suppressing the DRS message.
         } else if(isOnIII){
@@ -110,15 +256,15 @@ public class ExpungementService {
                 throw new IllegalStateException("GIVE THIS CASE TO YOUR SUPERVISOR. NO DRS MSG WAS SENT – THE FBI # IS MISSING.");
             }
             // Log with 'E' for Cancel Entire
-            createStandardExpungementLog(master, req, "EXP", "E", eventDate);
+            createStandardExpungementLog(agg, req, "EXP", "E", eventDate);
 
             // Trigger downstream (IPS/IP07) processing
-            triggerIp07Transaction(master.getSid());
+            triggerIp07Transaction(master, "EXP");
         }
 
-        // Perform the deletion
-        deleteAllChildRecords(master.getSystemId());
-        masterRepo.delete(master);
+        // Perform the deletion: one DELETE per table, master last. The log above already holds
+        // everything it needs from the aggregate, so no row is read back just to be deleted.
+        recordPurger.purge(master.getSystemId());
 
         auditService.logAction(req.getUsername(), req.getUserIp(), "CANCEL_ENTIRE", "Deleted Entire SID: " + master.getSid());
 
@@ -127,18 +273,19 @@ public class ExpungementService {
 
     // File: src/main/java/md/dpscs/cch/iis/service/ExpungementService.java
 
-    private String processDowngrade(IdentMaster master, ExpungementRequest req, long crimCount, long nonCrimCount) {
+    private String processDowngrade(ExpungementAggregate agg, ExpungementRequest req) {
+        IdentMaster master = agg.master();
+        long crimCount = agg.crimCount();
+        long nonCrimCount = agg.nonCrimCount();
 
         // --- 1. VALIDATE TARGET DOCUMENT TYPE ---
         if (req.getDocumentId() != null) {
-            IdentDocument targetDoc = docRepo.findById(req.getDocumentId())
-                    .orElseThrow(() -> new IllegalArgumentException("Target Document not found"));
+            IdentDocument targetDoc = agg.document(req.getDocumentId())
+                    .orElseThrow(() -> docRepo.existsById(req.getDocumentId())
+                            ? new IllegalArgumentException("Security Mismatch: Document does not belong to SID.")
+                            : new IllegalArgumentException("Target Document not found"));
 
-            if (!targetDoc.getMaster().getSystemId().equals(master.getSystemId())) {
-                throw new IllegalArgumentException("Security Mismatch: Document does not belong to SID.");
-            }
-
-            if (!CRIMINAL_TYPES.contains(targetDoc.getDocumentType())) {
+            if (!ExpungementAggregate.isCriminal(targetDoc)) {
                 throw new IllegalStateException("CANNOT PERFORM DOWNGRADE ON A NON-CRIMINAL EVENT. PLEASE SELECT A CRIMINAL EVENT.");
             }
         }
@@ -149,7 +296,7 @@ public class ExpungementService {
         if (crimCount == 0) throw new IllegalStateException("MUST HAVE AN EXISTING CRIMINAL EVENT TO PERFORM THIS DOWNGRADE FUNCTION.");
         if (nonCrimCount == 0 && !isDataIntegrity) throw new IllegalStateException("MUST HAVE AN EXISTING NON-CRIMINAL EVENT TO PERFORM THIS DOWNGRADE FUNCTION.");
 
-        LocalDate eventDate = getLatestCriminalDate(master.getSystemId());
+        LocalDate eventDate = agg.latestCriminalDate();
         String warningMessage = null;
         String fbiLogIndicator = "";
         String processType = ""; // Variable to hold 'EXP' or 'DWN'
@@ -170,14 +317,12 @@ public class ExpungementService {
                 throw new IllegalStateException("Cannot clear FBI Number: Rapback is active.");
             }
 
-            createFbiDowngradeLog(master, req, eventDate);
+            createFbiDowngradeLog(agg, req, eventDate);
             master.setFbiNumber(null);
             isFbiChanged = true;
         }
 
         // --- 4. DETERMINE LOG INDICATOR & UNIT LOGIC ---
-        boolean isFbiOwned = fbiMasterRepo.existsBySid(master.getSid());
-
         if (isDataIntegrity) {
             // === DATA INTEGRITY UNIT (II2300C Logic) ===
             processType = "DWN"; // DI always uses DWN
@@ -185,10 +330,8 @@ public class ExpungementService {
 
             // Anchor Validation
             if (crimCount >= 1) {
-                boolean hasCns = docRepo.findByMaster_SystemId(master.getSystemId()).stream()
-                        .anyMatch(d -> "CNS".equalsIgnoreCase(d.getDocumentType()));
-                boolean hasOtherNonCrim = docRepo.findByMaster_SystemId(master.getSystemId()).stream()
-                        .anyMatch(d -> !CRIMINAL_TYPES.contains(d.getDocumentType().toUpperCase()));
+                boolean hasCns = agg.hasDocumentType("CNS");
+                boolean hasOtherNonCrim = agg.hasNonCriminal();
 
                 if (("T".equals(master.getRecordType()) || "PENDING".equals(master.getRecordType())) && !hasCns) {
                     throw new IllegalStateException("DI Downgrade Blocked: Pending record with multiple criminals requires a 'CNS' event.");
@@ -206,21 +349,21 @@ public class ExpungementService {
                 throw new IllegalStateException("MULTIPLE ARREST EVENTS EXIST – CAN NOT PERFORM A DOWNGRADE. USE PART CANCEL.");
             }
 
-            if (isFbiOwned) {
+            if (agg.fbiOwned()) {
                 fbiLogIndicator = "X";
-                warningMessage = "REC IS FBI OWNED - DRS MSG NOT SENT";
-                createFbiDowngradeLog(master, req, eventDate);
+                warningMessage = FBI_OWNED_WARNING;
+                createFbiDowngradeLog(agg, req, eventDate);
             } else {
                 fbiLogIndicator = "E";
                 if (master.getFbiNumber() == null || master.getFbiNumber().trim().isEmpty()) {
                     throw new IllegalStateException("GIVE THIS CASE TO YOUR SUPERVISOR. NO DRS MSG WAS SENT – THE UCN # IS MISSING.");
                 }
-                triggerIp07Transaction(master.getSid());
+                triggerIp07Transaction(master, processType);
             }
         }
 
         // --- 5. DATABASE UPDATES ---
-        IdentName primaryName = getPrimaryName(master.getSystemId());
+        IdentName primaryName = agg.primaryName();
         String fbi = master.getFbiNumber() != null ? master.getFbiNumber().trim() : "";
         String mafis = primaryName.getMafisFingerprint() != null ? primaryName.getMafisFingerprint().trim() : "";
 
@@ -234,29 +377,35 @@ public class ExpungementService {
         masterRepo.save(master);
 
         // --- 6. DELETE CRIMINAL RECORDS ---
-        docRepo.findByMaster_SystemId(master.getSystemId()).stream()
-                .filter(d -> CRIMINAL_TYPES.contains(d.getDocumentType()))
+        List<IdentDocument> criminalDocs = agg.documents().stream()
+                .filter(ExpungementAggregate::isCriminal)
                 .filter(d -> !"CNS".equalsIgnoreCase(d.getDocumentType())) // <--- CRITICAL FIX
-                .forEach(docRepo::delete);
+                .toList();
+        docRepo.deleteAll(criminalDocs);
+        eventCounts.documentsRemoved(master.getSystemId(), criminalDocs);
 
         // --- 7. FINAL LOG ---
         // FIX: Use the calculated 'processType' variable ("EXP" or "DWN")
-        createStandardExpungementLog(master, req, processType, fbiLogIndicator, eventDate);
+        createStandardExpungementLog(agg, req, processType, fbiLogIndicator, eventDate);
 
         auditService.logAction(req.getUsername(), req.getUserIp(), "DOWNGRADE", "Downgraded SID: " + master.getSid());
 
         return warningMessage;
     }
 
-    private void processPartCancel(IdentMaster master, ExpungementRequest req, long crimCount, long nonCrimCount) {
+    private void processPartCancel(ExpungementAggregate agg, ExpungementRequest req) {
         if (req.getDocumentId() == null) throw new IllegalArgumentException("Document ID required.");
 
-        IdentDocument doc = docRepo.findById(req.getDocumentId())
+        IdentMaster master = agg.master();
+        long crimCount = agg.crimCount();
+        long nonCrimCount = agg.nonCrimCount();
+
+        IdentDocument doc = agg.document(req.getDocumentId())
                 .orElseThrow(() -> new IllegalArgumentException("Document not found with ID: " + req.getDocumentId()));
 
         LocalDate eventDate = doc.getDocumentDate(); // Direct LocalDate assignment
 
-        boolean isCriminalDoc = CRIMINAL_TYPES.contains(doc.getDocumentType());
+        boolean isCriminalDoc = ExpungementAggregate.isCriminal(doc);
 
         if (isCriminalDoc && crimCount <= 1) {
             throw new IllegalStateException("Cannot delete the last criminal event via Part Cancel. Use 'Downgrade'.");
@@ -277,39 +426,40 @@ public class ExpungementService {
         }
 
         docRepo.delete(doc);
+        eventCounts.documentsRemoved(master.getSystemId(), List.of(doc));
 
         String fbiLogIndicator;
 
-        boolean isFbiOwned = fbiMasterRepo.existsBySid(master.getSid());
-
-        if(isFbiOwned){
+        if(agg.fbiOwned()){
             fbiLogIndicator="X";
-            createFbiDowngradeLog(master, req, eventDate);
+            createFbiDowngradeLog(agg, req, eventDate);
         }
         else{
             fbiLogIndicator="C";
         }
 
-        createStandardExpungementLog(master, req, "EXP", fbiLogIndicator, eventDate);
-        triggerIp07Transaction(master.getSid());
+        createStandardExpungementLog(agg, req, "EXP", fbiLogIndicator, eventDate);
+        triggerIp07Transaction(master, "EXP");
         auditService.logAction(req.getUsername(), req.getUserIp(), "PART_CANCEL", "Deleted Doc ID: " + req.getDocumentId());
     }
 
-    private void processPartial(IdentMaster master, ExpungementRequest req, long crimCount, long nonCrimCount) {
+    private void processPartial(ExpungementAggregate agg, ExpungementRequest req) {
         if (req.getDocumentId() == null) throw new IllegalArgumentException("Document ID required.");
 
-        // 1. Fetch the document BEFORE deleting it
-        IdentDocument doc = docRepo.findById(req.getDocumentId())
-                .orElseThrow(() -> new IllegalArgumentException("Document not found with ID: " + req.getDocumentId()));
+        IdentMaster master = agg.master();
+        long crimCount = agg.crimCount();
+        long nonCrimCount = agg.nonCrimCount();
 
-        if (!doc.getMaster().getSystemId().equals(master.getSystemId())) {
-            throw new IllegalArgumentException("Document does not belong to the provided System ID.");
-        }
+        // 1. Fetch the document BEFORE deleting it
+        IdentDocument doc = agg.document(req.getDocumentId())
+                .orElseThrow(() -> docRepo.existsById(req.getDocumentId())
+                        ? new IllegalArgumentException("Document does not belong to the provided System ID.")
+                        : new IllegalArgumentException("Document not found with ID: " + req.getDocumentId()));
 
         LocalDate eventDate = doc.getDocumentDate();
 
         // Check if this document is a Criminal Type
-        boolean isCriminalDoc = CRIMINAL_TYPES.contains(doc.getDocumentType());
+        boolean isCriminalDoc = ExpungementAggregate.isCriminal(doc);
 
         if (isCriminalDoc) {
             if (crimCount <= 1) {
@@ -326,40 +476,41 @@ public class ExpungementService {
 
         // 3. Delete the record
         docRepo.delete(doc);
+        eventCounts.documentsRemoved(master.getSystemId(), List.of(doc));
 
         String fbiLogIndicator;
 
-        boolean isFbiOwned = fbiMasterRepo.existsBySid(master.getSid());
-
-        if(isFbiOwned){
+        if(agg.fbiOwned()){
             fbiLogIndicator="X";
-            createFbiDowngradeLog(master, req, eventDate);
+            createFbiDowngradeLog(agg, req, eventDate);
         }
         else{
             fbiLogIndicator="P";
         }
 
         // 4. Log to T_IDENT_EXPUNGEMENT (IPT_RWEXP)
-        createStandardExpungementLog(master, req, "EXP", fbiLogIndicator, eventDate);
+        createStandardExpungementLog(agg, req, "EXP", fbiLogIndicator, eventDate);
 
         // 5. Audit
         auditService.logAction(req.getUsername(), req.getUserIp(), "PARTIAL", "Partial expungement Doc ID: " + req.getDocumentId());
     }
 
-    private void processCancel(ExpungementRequest req) {
+    private void processCancel(ExpungementAggregate agg, ExpungementRequest req) {
         if (req.getDocumentId() == null) throw new IllegalArgumentException("Document ID required.");
 
-        // 1. Fetch document to check type
-        IdentDocument doc = docRepo.findById(req.getDocumentId())
-                .orElseThrow(() -> new IllegalArgumentException("Document not found"));
+        // 1. Fetch document to check type (only the locked record's documents can be cancelled)
+        IdentDocument doc = agg.document(req.getDocumentId())
+                .orElseThrow(() -> docRepo.existsById(req.getDocumentId())
+                        ? new IllegalArgumentException("Document does not belong to the provided System ID.")
+                        : new IllegalArgumentException("Document not found"));
 
-        IdentMaster master = doc.getMaster();
+        IdentMaster master = agg.master();
 
         // 2. Count current criminal records
-        long crimCount = docRepo.countByMaster_SystemIdAndDocumentTypeIn(doc.getMaster().getSystemId(), CRIMINAL_TYPES);
+        long crimCount = agg.crimCount();
 
         // 3. Check if this is the LAST criminal record
-        boolean isCriminalDoc = CRIMINAL_TYPES.contains(doc.getDocumentType());
+        boolean isCriminalDoc = ExpungementAggregate.isCriminal(doc);
         if (isCriminalDoc && crimCount <= 1) {
             // BLOCK IT: Force user to use Downgrade to ensure Header/FBI logic runs
             throw new IllegalStateException("Cannot CANCEL the last criminal event. You must use 'Downgrade' to ensure the SID status is updated correctly.");
@@ -372,12 +523,11 @@ public class ExpungementService {
         }
 
         docRepo.delete(doc);
+        eventCounts.documentsRemoved(master.getSystemId(), List.of(doc));
 
         String fbiLogIndicator;
 
-        boolean isFbiOwned = fbiMasterRepo.existsBySid(master.getSid());
-
-        if(isFbiOwned){
+        if(agg.fbiOwned()){
             fbiLogIndicator="X";
         }
         else{
@@ -387,14 +537,20 @@ public class ExpungementService {
         LocalDate eventDate = doc.getDocumentDate();
 
         // 4. Log to T_IDENT_EXPUNGEMENT (IPT_RWEXP)
-        createStandardExpungementLog(master, req, "EXP", fbiLogIndicator, eventDate);
+        createStandardExpungementLog(agg, req, "EXP", fbiLogIndicator, eventDate);
 
         auditService.logAction(req.getUsername(), req.getUserIp(), "CANCEL", "Cancelled Doc ID: " + req.getDocumentId());
+
+        // The document is looked up by ID, so it may belong to a different SystemID than the request
+        if (!master.getSystemId().equals(req.getSystemId())) {
+            eventPublisher.publishEvent(IdentRecordChangedEvent.updated(master.getSystemId()));
+        }
     }
 
     // --- Helpers ---
 
-    private void createStandardExpungementLog(IdentMaster master, ExpungementRequest req, String processType, String fbiInd, LocalDate eventDate) {
+    private void createStandardExpungementLog(ExpungementAggregate agg, ExpungementRequest req, String processType, String fbiInd, LocalDate eventDate) {
+        IdentMaster master = agg.master();
         IdentExpungement log = new IdentExpungement();
         log.setSid(master.getSid());
         log.setSystemId(master.getSystemId());
@@ -404,7 +560,7 @@ public class ExpungementService {
         log.setFbiNumber(master.getFbiNumber());
         log.setEventDate(eventDate); // Passed directly as LocalDate
 
-        IdentName pName = getPrimaryName(master.getSystemId());
+        IdentName pName = agg.primaryName();
         log.setLastName(pName.getLastName());
         log.setFirstName(pName.getFirstName());
         log.setMiddleName(pName.getMiddleName());
@@ -419,9 +575,7 @@ public class ExpungementService {
         log.setSkinToneCode(master.getSkinToneCode());
         log.setPobCode(master.getPlaceOfBirthCode());
 
-        Optional<IdentAddress> addr = addressRepo.findByMaster_SystemId(master.getSystemId()).stream()
-                .filter(a -> Boolean.TRUE.equals(a.getIsCurrent())).findFirst();
-        addr.ifPresent(a -> {
+        agg.currentAddress().ifPresent(a -> {
             log.setStreetNumber(a.getStreetNumber());
             log.setStreetName(a.getStreetName());
             log.setCityName(a.getCity());
@@ -429,8 +583,7 @@ public class ExpungementService {
             log.setZipCode(a.getZipCode());
         });
 
-        ssnRepo.findByMaster_SystemId(master.getSystemId()).stream().findFirst()
-                .ifPresent(s -> log.setSsn(s.getSsn()));
+        agg.firstSsn().ifPresent(log::setSsn);
         log.setPcn(req.getCogentPcn());
         log.setCogentPcn(req.getCogentPcn());
         log.setCogentPcn2(req.getCogentPcn2());
@@ -442,7 +595,8 @@ public class ExpungementService {
         expungementRepo.save(log);
     }
 
-    private void createFbiDowngradeLog(IdentMaster master, ExpungementRequest req, LocalDate eventDate) {
+    private void createFbiDowngradeLog(ExpungementAggregate agg, ExpungementRequest req, LocalDate eventDate) {
+        IdentMaster master = agg.master();
 
         String fbiNumberToLog = master.getFbiNumber();
         if (fbiNumberToLog == null && req.getUcn() != null) {
@@ -470,13 +624,12 @@ public class ExpungementService {
             log.setFbiRecordIndicator("Y"); // 'Y' = FBI Owned/Processed
 
             // Populate Demographics for new record
-            IdentName pName = getPrimaryName(master.getSystemId());
+            IdentName pName = agg.primaryName();
             log.setLastName(pName.getLastName());
             log.setFirstName(pName.getFirstName());
             log.setMiddleName(pName.getMiddleName());
             log.setDob(pName.getDateOfBirth() != null ? pName.getDateOfBirth().toString() : null);
-            ssnRepo.findByMaster_SystemId(master.getSystemId()).stream().findFirst()
-                    .ifPresent(s -> log.setSsn(s.getSsn()));
+            agg.firstSsn().ifPresent(log::setSsn);
         }
 
         // Common Updates (Fields from Screen/Request)
@@ -489,36 +642,10 @@ public class ExpungementService {
         fbiDowngradeRepo.save(log);
     }
 
-    private IdentName getPrimaryName(Long sysId) {
-        List<IdentName> names = nameRepo.findByMaster_SystemId(sysId);
-        return names.stream()
-                .filter(n -> "P".equals(n.getNameType()))
-                .findFirst()
-                .orElseGet(() -> names.isEmpty() ? new IdentName() : names.get(0));
-    }
-
-    private LocalDate getLatestCriminalDate(Long sysId) {
-        return docRepo.findByMaster_SystemId(sysId).stream()
-                .filter(d -> CRIMINAL_TYPES.contains(d.getDocumentType()))
-                .max(Comparator.comparing(IdentDocument::getDocumentDate))
-                .map(IdentDocument::getDocumentDate)
-                .orElse(null);
-    }
-
-    private void deleteAllChildRecords(Long sysId) {
-        docRepo.deleteAllByMaster_SystemId(sysId);
-        nameRepo.deleteAll(nameRepo.findByMaster_SystemId(sysId));
-        ssnRepo.deleteAll(ssnRepo.findByMaster_SystemId(sysId));
-        addressRepo.deleteAll(addressRepo.findByMaster_SystemId(sysId));
-        scarsRepo.deleteAll(scarsRepo.findByMaster_SystemId(sysId));
-        dlRepo.deleteAll(dlRepo.findByMaster_SystemId(sysId));
-        miscNumRepo.deleteAll(miscNumRepo.findByMaster_SystemId(sysId));
-        henryFpRepo.deleteAll(henryFpRepo.findByMaster_SystemId(sysId));
-        ncicFpRepo.deleteAll(ncicFpRepo.findByMaster_SystemId(sysId));
-        dobAliasRepo.deleteAll(dobAliasRepo.findByMaster_SystemId(sysId));
-    }
-
-    private void triggerIp07Transaction(String sid) {
-       // eventPublisher.publishEvent(new ExpungementCreatedEvent(this, sid));
+    /**
+     * Queues the IP07 (DRS) transaction in the outbox; it is sent only if this transaction commits.
+     */
+    private void triggerIp07Transaction(IdentMaster master, String processType) {
+        outboxService.enqueueIp07(master, processType);
     }
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+package md.dpscs.cch.iis.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import md.dpscs.cch.iis.repository.IdentFbiMasterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * In-memory answer to "is this SID FBI owned" (T_IDENT_FBI_MASTER), so expungement rules make no
+ * database call for it.
+ * <p>
+ * The SIDs are held as one sorted String array (binary search, no per-entry objects) that is replaced
+ * atomically. The first poll after startup loads the table; later polls apply only the rows changed
+ * since the last seen SQL Server change-tracking version. The table is reloaded whole when change
+ * tracking is off or the last version has been cleaned up. Until the first load succeeds, lookups fall
+ * through to the database. Staleness, size and refresh outcomes are published as metrics.
+ * </p>
+ */
+@Service
+public class FbiOwnershipService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FbiOwnershipService.class);
+
+    private record Snapshot(String[] sids, Long version, Instant refreshedAt) {
+    }
+
+    private final IdentFbiMasterRepository fbiMasterRepo;
+    private final Counter refreshedCounter;
+    private final Counter reloadedCounter;
+    private final Counter failedCounter;
+    private final Counter fallbackCounter;
+
+    private volatile Snapshot snapshot;
+
+    public FbiOwnershipService(IdentFbiMasterRepository fbiMasterRepo, MeterRegistry meterRegistry) {
+        this.fbiMasterRepo = fbiMasterRepo;
+        this.refreshedCounter = meterRegistry.counter("ident.fbi-ownership.refresh", "result", "incremental");
+        this.reloadedCounter = meterRegistry.counter("ident.fbi-ownership.refresh", "result", "full");
+        this.failedCounter = meterRegistry.counter("ident.fbi-ownership.refresh", "result", "failed");
+        this.fallbackCounter = meterRegistry.counter("ident.fbi-ownership.db-lookups");
+        meterRegistry.gauge("ident.fbi-ownership.sids", this, FbiOwnershipService::size);
+        meterRegistry.gauge("ident.fbi-ownership.staleness.seconds", this, FbiOwnershipService::stalenessSeconds);
+    }
+
+    public boolean isFbiOwned(String sid) {
+        if (sid == null) return false;
+        Snapshot current = snapshot;
+        if (current == null) {
+            fallbackCounter.increment();
+            return fbiMasterRepo.existsBySid(sid);
+        }
+        return Arrays.binarySearch(current.sids(), sid.trim()) >= 0;
+    }
+
+    @Scheduled(fixedDelayString = "${ident.fbi-ownership.refresh-interval:PT1M}")
+    public void refresh() {
+        try {
+            Snapshot current = snapshot;
+            // Read the version before the data, so changes made during a reload are applied on the next poll
+            Long version = fbiMasterRepo.findChangeTrackingVersion();
+
+            if (current == null || version == null || current.version() == null
+                    || current.version() < minValidVersion()) {
+                reload(version);
+            } else if (version > current.version()) {
+                applyChanges(current, version);
+            } else {
+                snapshot = new Snapshot(current.sids(), current.version(), Instant.now());
+            }
+        } catch (Exception e) {
+            failedCounter.increment();
+            logger.warn("FBI ownership refresh failed; keeping the set from {}",
+                    snapshot != null ? snapshot.refreshedAt() : "(not loaded)", e);
+        }
+    }
+
+    private long minValidVersion() {
+        Long min = fbiMasterRepo.findMinValidChangeVersion();
+        return min != null ? min : Long.MAX_VALUE; // Tracking disabled on the table: reload
+    }
+
+    private void reload(Long version) {
+        String[] sids = fbiMasterRepo.findAllSids().stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+        snapshot = new Snapshot(sids, version, Instant.now());
+        reloadedCounter.increment();
+        logger.info("Loaded {} FBI-owned SIDs (change tracking version {})", sids.length, version);
+    }
+
+    private void applyChanges(Snapshot current, long version) {
+        Set<String> inserted = new HashSet<>();
+        Set<String> deleted = new HashSet<>();
+        for (Object[] row : fbiMasterRepo.findChangesSince(current.version())) {
+            if (row[0] == null) continue;
+            String sid = row[0].toString().trim();
+            String operation = row[1] != null ? row[1].toString().trim() : "";
+            // Net change per key: 'U' leaves membership as it is
+            if ("I".equals(operation)) inserted.add(sid);
+            else if ("D".equals(operation)) deleted.add(sid);
+        }
+
+        String[] sids = current.sids();
+        if (!inserted.isEmpty() || !deleted.isEmpty()) {
+            List<String> next = new ArrayList<>(sids.length + inserted.size());
+            for (String sid : sids) {
+                if (!deleted.contains(sid) && !inserted.contains(sid)) next.add(sid);
+            }
+            next.addAll(inserted);
+            sids = next.toArray(String[]::new);
+            Arrays.sort(sids);
+            logger.info("FBI ownership: {} SID(s) added, {} removed (version {})", inserted.size(), deleted.size(), version);
+        }
+        snapshot = new Snapshot(sids, version, Instant.now());
+        refreshedCounter.increment();
+    }
+
+    private double size() {
+        Snapshot current = snapshot;
+        return current != null ? current.sids().length : 0;
+    }
+
+    private double stalenessSeconds() {
+        Snapshot current = snapshot;
+        return current != null ? Duration.between(current.refreshedAt(), Instant.now()).toMillis() / 1000.0 : Double.NaN;
+    }
+}
@@ -0,0 +1,63 @@
+package md.dpscs.cch.iis.service;
+
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Applies requested values to an entity only where they differ from the current ones and
+ * remembers which fields changed. An entity whose setters were never called stays clean, so
+ * Hibernate issues no UPDATE for it; with @DynamicUpdate the UPDATE of a dirty entity lists
+ * only the modified columns.
+ * <p>
+ * Strings are compared ignoring surrounding blanks, and null equals blank (CHAR columns come back padded,
+ * the UI sends "" for empty fields).
+ * </p>
+ */
+public class FieldChanges {
+
+    private final Set<String> fields = new LinkedHashSet<>();
+
+    public boolean set(String field, String current, String requested, Consumer<String> setter) {
+        if (normalize(current).equals(normalize(requested))) return false;
+        setter.accept(requested);
+        fields.add(field);
+        return true;
+    }
+
+    public <T> boolean set(String field, T current, T requested, Consumer<T> setter) {
+        if (Objects.equals(current, requested)) return false;
+        setter.accept(requested);
+        fields.add(field);
+        return true;
+    }
+
+    /**
+     * Records a change made outside set(), e.g. a child collection delta.
+     */
+    public void add(String field) {
+        fields.add(field);
+    }
+
+    public void addAll(FieldChanges other) {
+        fields.addAll(other.fields);
+    }
+
+    public boolean isEmpty() {
+        return fields.isEmpty();
+    }
+
+    public boolean contains(String field) {
+        return fields.contains(field);
+    }
+
+    @Override
+    public String toString() {
+        return fields.isEmpty() ? "none" : String.join(", ", fields);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim();
+    }
+}
@@ -0,0 +1,170 @@
+package md.dpscs.cch.iis.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for the update endpoints.
+ * <p>
+ * The first request with a key runs and its response is kept for {@code ident.idempotency.ttl};
+ * a repeat of the key (UI retry after a timeout) gets the same response without running the update
+ * again. A repeat that arrives while the first is still running waits for that execution instead of
+ * starting a second one. Failed executions are not kept, so a retry after an error runs again.
+ * Keys are scoped to the user and must be re-sent with the same method, path and body.
+ * </p>
+ * <p>
+ * The store is per instance and bounded to {@code ident.idempotency.max-entries}; the UI retries
+ * through the same sticky session, which is all this needs to cover.
+ * </p>
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private record Entry(String fingerprint, long createdNanos, CompletableFuture<ResponseEntity<?>> response) {}
+
+    private final MeterRegistry meterRegistry;
+    private final JsonMapper jsonMapper;
+    private final Duration ttl;
+    private final Duration wait;
+    private final int maxEntries;
+
+    // Insertion-ordered, so the eldest entry is both the oldest and the first to expire; guarded by 'this'
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyService(MeterRegistry meterRegistry,
+                              JsonMapper jsonMapper,
+                              @Value("${ident.idempotency.ttl:PT10M}") Duration ttl,
+                              @Value("${ident.idempotency.wait:PT30S}") Duration wait,
+                              @Value("${ident.idempotency.max-entries:10000}") int maxEntries) {
+        this.meterRegistry = meterRegistry;
+        this.jsonMapper = jsonMapper;
+        this.ttl = ttl;
+        this.wait = wait;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Runs the update once per key. Without a key the action simply runs.
+     *
+     * @param body the deserialized request body, used to detect a key reused for a different request
+     */
+    public ResponseEntity<?> execute(String key, String username, HttpServletRequest request, Object body,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (!StringUtils.hasText(key)) return action.get();
+        if (key.length() > 255) {
+            throw new IllegalArgumentException(HEADER + " cannot exceed 255 characters.");
+        }
+
+        String scopedKey = username + '|' + key.trim();
+        String fingerprint = request.getMethod() + ' ' + request.getRequestURI() + ' ' + bodyHash(body);
+
+        CompletableFuture<ResponseEntity<?>> mine = new CompletableFuture<>();
+        Entry existing = claim(scopedKey, new Entry(fingerprint, System.nanoTime(), mine));
+
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw new IllegalStateException(HEADER + " was already used for a different request.");
+            }
+            meterRegistry.counter("ident.idempotency", "result", existing.response().isDone() ? "replay" : "coalesced").increment();
+            return replay(existing.response());
+        }
+
+        meterRegistry.counter("ident.idempotency", "result", "executed").increment();
+        try {
+            ResponseEntity<?> response = action.get();
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            forget(scopedKey, mine);
+            mine.completeExceptionally(e); // Waiting duplicates fail the same way
+            throw e;
+        }
+    }
+
+    /**
+     * SHA-256 of the body as JSON; a 32-bit hashCode could let a different body replay the stored response.
+     */
+    private String bodyHash(Object body) {
+        try {
+            byte[] json = body != null ? jsonMapper.writeValueAsBytes(body) : new byte[0];
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JRE provides SHA-256
+        }
+    }
+
+    private synchronized Entry claim(String scopedKey, Entry candidate) {
+        Entry existing = entries.get(scopedKey);
+        if (existing != null && !isExpired(existing, System.nanoTime())) return existing;
+
+        entries.remove(scopedKey); // Re-insert at the tail so insertion order stays age order
+        entries.put(scopedKey, candidate);
+        if (entries.size() > maxEntries) {
+            Iterator<String> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        return null;
+    }
+
+    private synchronized void forget(String scopedKey, CompletableFuture<ResponseEntity<?>> response) {
+        Entry entry = entries.get(scopedKey);
+        if (entry != null && entry.response() == response) entries.remove(scopedKey);
+    }
+
+    private ResponseEntity<?> replay(CompletableFuture<ResponseEntity<?>> response) {
+        ResponseEntity<?> original;
+        try {
+            original = response.get(wait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("The original request for this " + HEADER + " is still in progress.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the original request.");
+        }
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+
+    private boolean isExpired(Entry entry, long nowNanos) {
+        return entry.response().isDone() && nowNanos - entry.createdNanos() > ttl.toNanos();
+    }
+
+    @Scheduled(fixedDelayString = "${ident.idempotency.cleanup-interval:PT1M}")
+    public synchronized void evictExpired() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (now - entry.createdNanos() <= ttl.toNanos()) break; // Age-ordered: the rest are younger
+            if (entry.response().isDone()) it.remove();
+        }
+    }
+}
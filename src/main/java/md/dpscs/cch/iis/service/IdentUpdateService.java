@@ -1,10 +1,12 @@
 package md.dpscs.cch.iis.service;
 
 import md.dpscs.cch.iis.dto.*;
+import md.dpscs.cch.iis.event.IdentRecordChangedEvent;
 import md.dpscs.cch.iis.model.*;
 import md.dpscs.cch.iis.repository.*;
 import md.dpscs.cch.iis.util.MainframeDataUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -13,22 +15,14 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class IdentUpdateService {
 
-    private static final List<String> CRIMINAL_REF_TYPES = List.of(
-            "BIN", "DOC", "DIO", "IUR", "PAA", "PAB", "COF", "PAR", "PAV", "PAL",
-            "WPR", "WPL", "WAR", "WAA", "DET", "CSO", "SOR", "SVO", "SVP", "OFF",
-            "CIE", "PAC", "PAD", "PAE", "PAF", "PAG", "PAH", "PAI", "PAJ",
-            "209", "211", "CAR", "CNS", "DPP"
-    );
-
     // --- Core Repositories ---
-    private final IdentMasterRepository masterRepo;
     private final IdentNameRepository nameRepo;
     private final IdentAddressRepository addressRepo;
 
@@ -48,42 +42,76 @@ public class IdentUpdateService {
     private final AuditService auditService;
     private final ReferenceDataService referenceDataService;
     private final MainframeDataUtils utils;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AliasReconciler aliasReconciler;
+    private final ChildCollectionReconciler reconciler;
+    private final IdentChildBatchWriter batchWriter;
+    private final OutboxService outboxService;
+    private final RecordLockService recordLock;
+    private final EventCountsService eventCounts;
 
     private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
 
     /**
      * Updates Core Demographics and Physical Identifiers.
+     * <p>
+     * Only values that differ from the stored ones are written (see FieldChanges); a save with
+     * nothing changed touches no Ident table and does not rebuild the snapshot.
+     * </p>
      */
     @Transactional
     public void updateDemographics(Long systemId, UpdateDemographicsRequest request, String username, String ipAddress) {
-        IdentMaster master = masterRepo.findById(systemId)
-                .orElseThrow(() -> new IllegalArgumentException("Record not found for SystemID: " + systemId));
+        RecordEdit edit = beginEdit(systemId, username, ipAddress);
+        applyDemographics(edit, request);
+        finishEdit(edit, "UPDATE_DEMOGRAPHICS");
+    }
 
-        // --- 1. Mainframe Validation Logic ---
-        if (StringUtils.hasText(request.getRace()) && !referenceDataService.isValidRaceCode(request.getRace())) {
-            throw new IllegalArgumentException("Invalid Race Code: " + request.getRace());
-        }
-        if (StringUtils.hasText(request.getSex()) && !referenceDataService.isValidSexCode(request.getSex())) {
-            throw new IllegalArgumentException("Invalid Sex Code: " + request.getSex());
+    /**
+     * Applies all sections of the edit screen in one transaction (PUT /api/ident/update/{systemId}).
+     * <p>
+     * The record is locked and loaded once and every submitted section is applied to that one aggregate,
+     * in the order the screen used to send them (demographics, true name, aliases, appended identifiers,
+     * references). Record type, LastUpdateDate, the audit entry and the change event are settled once at
+     * the end. A failure in any section rolls back the whole edit.
+     * </p>
+     */
+    @Transactional
+    public void updateRecord(Long systemId, UpdateRecordRequest request, String username, String ipAddress) {
+        if (request.getDemographics() == null && request.getTrueName() == null && request.getAliases() == null
+                && request.getAppended() == null && request.getReferences() == null) {
+            throw new IllegalArgumentException("No sections were supplied.");
         }
 
-        // --- 2. Update Master Record ---
-        master.setRaceCode(request.getRace());
-        master.setSexCode(request.getSex());
-        master.setHeight(request.getHeight());
-        master.setWeight(request.getWeight());
-        master.setEyeColorCode(request.getEyeColor());
-        master.setHairColorCode(request.getHairColor());
-        master.setSkinToneCode(request.getSkinTone());
-        master.setPlaceOfBirthCode(request.getPlaceOfBirth());
-        master.setCitizenshipCode(request.getCitizenship());
-        master.setComments(request.getComments());
+        RecordEdit edit = beginEdit(systemId, username, ipAddress);
+        if (request.getDemographics() != null) applyDemographics(edit, request.getDemographics());
+        if (request.getTrueName() != null) applyTrueName(edit, request.getTrueName());
+        if (request.getAliases() != null) applyAliases(edit, request.getAliases());
+        if (request.getAppended() != null) applyAppended(edit, request.getAppended());
+        if (request.getReferences() != null) applyReferences(edit, request.getReferences());
+        finishEdit(edit, "UPDATE_RECORD");
+    }
 
-        master.setLastUpdateDate(LocalDateTime.now());
+    private void applyDemographics(RecordEdit edit, UpdateDemographicsRequest request) {
+        // --- 1. Mainframe Validation Logic ---
+        validateDemographicCodes(request.getRace(), request.getSex());
+
+        // --- 2. Update Master Record ---
+        IdentMaster master = edit.master;
+        FieldChanges changes = new FieldChanges();
+        changes.set("race", master.getRaceCode(), request.getRace(), master::setRaceCode);
+        changes.set("sex", master.getSexCode(), request.getSex(), master::setSexCode);
+        changes.set("height", master.getHeight(), request.getHeight(), master::setHeight);
+        changes.set("weight", master.getWeight(), request.getWeight(), master::setWeight);
+        changes.set("eyeColor", master.getEyeColorCode(), request.getEyeColor(), master::setEyeColorCode);
+        changes.set("hairColor", master.getHairColorCode(), request.getHairColor(), master::setHairColorCode);
+        changes.set("skinTone", master.getSkinToneCode(), request.getSkinTone(), master::setSkinToneCode);
+        changes.set("placeOfBirth", master.getPlaceOfBirthCode(), request.getPlaceOfBirth(), master::setPlaceOfBirthCode);
+        changes.set("citizenship", master.getCitizenshipCode(), request.getCitizenship(), master::setCitizenshipCode);
+        changes.set("comments", master.getComments(), request.getComments(), master::setComments);
 
         // --- 3. Sync Demographics to ALL Names (Primary AND Aliases) ---
         // FIX: Previously only updated Primary. Now updates all to ensure consistency.
-        List<IdentName> allNames = nameRepo.findByMaster_SystemId(systemId);
+        List<IdentName> allNames = edit.names;
 
         // Calculate fields once
         LocalDate newDob = null;
@@ -113,44 +141,45 @@ public class IdentUpdateService {
             }
         }
 
-        // Iterate and Apply
+        // Iterate and Apply (unchanged names stay clean and are not written)
         for (IdentName name : allNames) {
-            name.setRaceCode(request.getRace());
-            name.setSexCode(request.getSex());
+            changes.set("race", name.getRaceCode(), request.getRace(), name::setRaceCode);
+            changes.set("sex", name.getSexCode(), request.getSex(), name::setSexCode);
 
             // Only update DOB if provided in request
             if (StringUtils.hasText(request.getDob())) {
-                name.setDateOfBirth(newDob);
+                changes.set("dob", name.getDateOfBirth(), newDob, name::setDateOfBirth);
             }
 
             // Only update FP if provided in request
             if (request.getPatternRight() != null || request.getPatternLeft() != null) {
-                name.setMafisFingerprint(newFp);
+                changes.set("fingerprintPattern", name.getMafisFingerprint(), newFp, name::setMafisFingerprint);
             }
         }
 
-        // Save All Names
-        nameRepo.saveAll(allNames);
-
-        // --- 4. Recalculate Record Type ---
-        // We can use the primary name for the logic check
-        IdentName primaryName = allNames.stream()
-                .filter(n -> "P".equals(n.getNameType()))
-                .findFirst()
-                .orElse(allNames.getFirst());
-
-        recalculateRecordType(master, primaryName);
-        masterRepo.save(master);
-
-        // --- 5. Address & Caution Updates ---
+        // --- 4. Address & Caution Updates ---
         if (request.getCautionFlag() != null) {
             List<String> cautions = StringUtils.hasText(request.getCautionFlag())
                     ? List.of(request.getCautionFlag()) : List.of();
-            handleCautions(master, cautions);
+            if (handleCautions(master, cautions)) changes.add("caution");
         }
-        updateAddress(master, request);
+        updateAddress(master, request, changes);
 
-        auditService.logAction(username, ipAddress, "UPDATE_DEMOGRAPHICS", "Updated SID: " + master.getSid());
+        // Record type depends on the prints; settled once per edit in finishEdit
+        if (!changes.isEmpty()) edit.recordTypeStale = true;
+        edit.changes.addAll(changes);
+    }
+
+    /**
+     * Mainframe validation of the coded demographics (shared with the bulk demographics job).
+     */
+    public void validateDemographicCodes(String race, String sex) {
+        if (StringUtils.hasText(race) && !referenceDataService.isValidRaceCode(race)) {
+            throw new IllegalArgumentException("Invalid Race Code: " + race);
+        }
+        if (StringUtils.hasText(sex) && !referenceDataService.isValidSexCode(sex)) {
+            throw new IllegalArgumentException("Invalid Sex Code: " + sex);
+        }
     }
 
     /**
@@ -201,8 +230,14 @@ public class IdentUpdateService {
      */
     @Transactional
     public void updateTrueName(Long systemId, UpdateNameRequest request, String username, String ipAddress) {
-        IdentName primaryName = getPrimaryName(systemId);
-        IdentMaster master = primaryName.getMaster();
+        RecordEdit edit = beginEdit(systemId, username, ipAddress);
+        applyTrueName(edit, request);
+        finishEdit(edit, "UPDATE_TRUE_NAME");
+    }
+
+    private void applyTrueName(RecordEdit edit, UpdateNameRequest request) {
+        IdentMaster master = edit.master;
+        IdentName primaryName = edit.primaryName();
 
         // --- 1. UCN / FBI Number Logic ---
         if (request.getUcn() != null) {
@@ -218,18 +253,19 @@ public class IdentUpdateService {
                 } else {
                     // Before clearing, save the OLD number to the Downgrade Staging Table.
                     if (StringUtils.hasText(currentUcn)) {
-                        saveFbiDowngradeStaging(master, currentUcn, username);
+                        saveFbiDowngradeStaging(master, currentUcn, edit.username);
                     }
                     master.setFbiNumber(null); // Clearing FBI Number
                 }
+                edit.changes.add("ucn");
 
-                // CRITICAL FIX: Recalculate Record Type immediately after changing FBI Number
-                recalculateRecordType(master, primaryName);
+                // CRITICAL FIX: Record Type must be recalculated after changing FBI Number (see finishEdit)
+                edit.recordTypeStale = true;
             }
         }
 
         // --- 2. Name Conflict Check ---
-        boolean aliasConflict = nameRepo.findByMaster_SystemId(systemId).stream()
+        boolean aliasConflict = edit.names.stream()
                 .filter(n -> "A".equals(n.getNameType()))
                 .anyMatch(alias -> isSameName(alias, request));
 
@@ -238,23 +274,17 @@ public class IdentUpdateService {
         }
 
         // --- 3. Update Name Fields ---
-        primaryName.setLastName(request.getLastName().toUpperCase());
-        primaryName.setFirstName(request.getFirstName().toUpperCase());
+        FieldChanges changes = edit.changes;
+        changes.set("lastName", primaryName.getLastName(), request.getLastName().toUpperCase(), primaryName::setLastName);
+        changes.set("firstName", primaryName.getFirstName(), request.getFirstName().toUpperCase(), primaryName::setFirstName);
 
         String mid = request.getMiddleName() != null ? request.getMiddleName().toUpperCase() : "";
-        primaryName.setMiddleName(mid);
-        primaryName.setMiddleInitial(!mid.isEmpty() ? mid.substring(0, 1) : "");
+        changes.set("middleName", primaryName.getMiddleName(), mid, primaryName::setMiddleName);
+        changes.set("middleName", primaryName.getMiddleInitial(), !mid.isEmpty() ? mid.substring(0, 1) : "", primaryName::setMiddleInitial);
 
         // --- 4. Recalculate Soundex ---
         String newSoundex = utils.calculateStandardSoundex(primaryName.getLastName());
-        primaryName.setSoundexCode(newSoundex);
-
-        // --- 5. Save & Log ---
-        nameRepo.save(primaryName);
-        master.setLastUpdateDate(LocalDateTime.now());
-        masterRepo.save(master); // Saves the updated RecordType
-
-        auditService.logAction(username, ipAddress, "UPDATE_TRUE_NAME", "Updated Name/UCN for SID: " + master.getSid());
+        changes.set("lastName", primaryName.getSoundexCode(), newSoundex, primaryName::setSoundexCode);
     }
 
     /**
@@ -262,85 +292,22 @@ public class IdentUpdateService {
      */
     @Transactional
     public void updateAliases(Long systemId, List<UpdateNameRequest> aliases, String username, String ipAddress) {
-        IdentMaster master = masterRepo.findById(systemId)
-                .orElseThrow(() -> new IllegalArgumentException("Record not found"));
-
-        IdentName primaryName = getPrimaryName(systemId);
-
-        if (aliases != null) {
-            for (UpdateNameRequest req : aliases) {
-                // --- DELETE LOGIC (Driven by React Flag) ---
-                if (Boolean.TRUE.equals(req.getIsMarkedForDeletion())) {
-                    if (req.getId() != null) {
-                        nameRepo.deleteById(req.getId());
-                        auditService.logAction(username, ipAddress, "DELETE_ALIAS", "Deleted Alias ID: " + req.getId());
-                    }
-                    continue; // Stop processing this record
-                }
-
-                // --- VALIDATION: Duplicate Name Check ---
-                // (Matches Mainframe II0800C logic which prevents -803 SQL Errors)
-                if (isSameName(primaryName, req)) {
-                    throw new IllegalArgumentException("Alias cannot be the same as the primary name: " + req.getLastName());
-                }
-
-                // Check against existing aliases in DB to prevent duplicates
-                // Note: You need to implement this custom query in your Repository
-                boolean exists = nameRepo.existsByMaster_SystemIdAndLastNameAndFirstNameAndMiddleNameAndNameType(
-                        systemId,
-                        req.getLastName().toUpperCase(),
-                        req.getFirstName().toUpperCase(),
-                        req.getMiddleName() != null ? req.getMiddleName().toUpperCase() : "",
-                        "A"
-                );
-
-                // Allow update if it's the SAME record (id matches), otherwise block new duplicates
-                if (exists && req.getId() == null) {
-                    throw new IllegalArgumentException("Duplicate Alias Name: " + req.getLastName() + ", " + req.getFirstName());
-                }
-
-                // --- CREATE / UPDATE LOGIC ---
-                IdentName aliasToSave;
-
-                if (req.getId() != null) {
-                    // Update Existing
-                    aliasToSave = nameRepo.findById(req.getId())
-                            .orElseThrow(() -> new IllegalArgumentException("Alias ID not found: " + req.getId()));
-                } else {
-                    // Insert New
-                    aliasToSave = new IdentName();
-                    aliasToSave.setMaster(master);
-                    aliasToSave.setNameType("A");
-
-                    // Mainframe II0800C Requirement: Generate Sequence Number
-                    // You need to implement findMaxSequenceBySystemId in Repository
-                    Integer maxSeq = nameRepo.findMaxSequenceBySystemId(systemId);
-                    aliasToSave.setSequenceNumber(maxSeq != null ? maxSeq + 1 : 1);
-                }
-
-                // Map Fields
-                aliasToSave.setLastName(req.getLastName().toUpperCase());
-                aliasToSave.setFirstName(req.getFirstName().toUpperCase());
-
-                String mid = req.getMiddleName() != null ? req.getMiddleName().toUpperCase() : "";
-                aliasToSave.setMiddleName(mid);
-                aliasToSave.setMiddleInitial(!mid.isEmpty() ? mid.substring(0, 1) : "");
-
-                // Inherit Demographics from Primary (per FRD/Mainframe logic)
-                aliasToSave.setRaceCode(primaryName.getRaceCode());
-                aliasToSave.setSexCode(primaryName.getSexCode());
-                aliasToSave.setDateOfBirth(primaryName.getDateOfBirth());
-
-                aliasToSave.setMafisFingerprint(primaryName.getMafisFingerprint());
+        RecordEdit edit = beginEdit(systemId, username, ipAddress);
+        applyAliases(edit, aliases);
+        finishEdit(edit, "UPDATE_ALIASES");
+    }
 
-                // Calculate Soundex
-                aliasToSave.setSoundexCode(utils.calculateStandardSoundex(aliasToSave.getLastName()));
+    private void applyAliases(RecordEdit edit, List<UpdateNameRequest> aliases) {
+        if (aliases == null) return;
 
-                nameRepo.save(aliasToSave);
-            }
+        // Diffs against the names already loaded for this edit and writes in batches
+        AliasReconciler.Result result = aliasReconciler.reconcile(edit.master, edit.names, aliases);
+        for (Long deletedId : result.deletedIds()) {
+            auditService.logAction(edit.username, edit.ipAddress, "DELETE_ALIAS", "Deleted Alias ID: " + deletedId);
+        }
+        if (!result.deletedIds().isEmpty() || result.inserted() > 0 || result.updated() > 0) {
+            edit.changes.add("aliases");
         }
-
-        auditService.logAction(username, ipAddress, "UPDATE_ALIASES", "Updated aliases for SID: " + master.getSid());
     }
 
     /**
@@ -350,7 +317,7 @@ public class IdentUpdateService {
      * 1. Validates inputs against Reference Tables (PST_SMTCD, etc.).
      * 2. Performs "Delta Detection" (Add vs Delete) rather than bulk replace to preserve history.
      * 3. <b>CRITICAL:</b> If record is on III (Flag1 = 'S' or 'M'), new additions trigger an EHN
-     * message to the FBI interface via MainframeDataUtils.
+     * message to the FBI interface, queued in the outbox (OutboxService).
      * </p>
      *
      * @param systemId The internal System ID of the record.
@@ -358,288 +325,261 @@ public class IdentUpdateService {
      */
     @Transactional
     public void updateAppendedIdentifiers(Long systemId, UpdateAppendedIdRequest request, String username, String ipAddress) {
-        IdentMaster master = masterRepo.findById(systemId)
-                .orElseThrow(() -> new IllegalArgumentException("Record not found for SystemID: " + systemId));
+        RecordEdit edit = beginEdit(systemId, username, ipAddress);
+        applyAppended(edit, request);
+        finishEdit(edit, "UPDATE_APPENDED_ID");
+    }
+
+    private void applyAppended(RecordEdit edit, UpdateAppendedIdRequest request) {
+        IdentMaster master = edit.master;
+        String username = edit.username;
+        String ipAddress = edit.ipAddress;
 
         // Legacy II0700C: Determine if record is on Interstate Identification Index (III)
         // Flag1 'S' (Single State) or 'M' (Multi-State) requires FBI Notification.
-        //"S".equalsIgnoreCase(master.getFlag1()) || "M".equalsIgnoreCase(master.getFlag1());
-        boolean isOnIII = false;
+        boolean isOnIII = "S".equalsIgnoreCase(master.getIiiStatus()) || "M".equalsIgnoreCase(master.getIiiStatus());
 
         // --- 1. Process Caution Codes ---
         // FRD Req: Dropdown selection, "A-M". No III notification required for Cautions.
-        handleCautions(master, request.getCautions());
+        if (handleCautions(master, request.getCautions())) edit.changes.add("cautions");
 
         // --- 2. Process Alternate DOBs ---
         // FRD Req: Valid Date, Year >= 1900, Not Future.
         // Legacy Req: Trigger EHN message if isOnIII.
-        handleDobs(master, request.getDobs(), isOnIII, username, ipAddress);
+        if (handleDobs(master, request.getDobs(), isOnIII, username, ipAddress)) edit.changes.add("dobs");
 
         // --- 3. Process Scars/Marks/Tattoos (SMT) ---
         // FRD Req: Max 10 chars, Alphanumeric+Space.
         // Legacy Req: Validate against PST_SMTCD, Trigger EHN if isOnIII.
-        handleScarsMarks(master, request.getScarsMarks(), isOnIII, username, ipAddress);
+        if (handleScarsMarks(master, request.getScarsMarks(), isOnIII, username, ipAddress)) edit.changes.add("scarsMarks");
 
         // --- 4. Process Social Security Numbers (SSN) ---
         // FRD Req: 9 digits, not blank.
         // Legacy Req: Trigger EHN if isOnIII.
-        handleSsns(master, request.getSsns(), isOnIII, username, ipAddress);
+        if (handleSsns(master, request.getSsns(), isOnIII, username, ipAddress)) edit.changes.add("ssns");
 
         // --- 5. Process Misc Numbers & Drivers Licenses ---
         // FRD Req: Valid Prefix (AF, AR, etc.), 12-digit Number.
         // Legacy Req: Trigger EHN if isOnIII.
-        handleMiscNumbers(master, request.getMiscNumbers(), isOnIII, username, ipAddress);
-
-        // --- Final Transaction Audit ---
-        auditService.logAction(username, ipAddress, "UPDATE_APPENDED_ID",
-                "Updated Appended IDs for SID: " + master.getSid());
+        if (handleMiscNumbers(master, request.getMiscNumbers(), isOnIII, username, ipAddress)) edit.changes.add("miscNumbers");
     }
 
     // ==================================================================================
     // PRIVATE HELPER METHODS (Delta Detection & Business Logic)
     // ==================================================================================
 
-    private void handleCautions(IdentMaster master, List<String> incomingCodes) {
-        if (incomingCodes == null) return;
+    private boolean handleCautions(IdentMaster master, List<String> incomingCodes) {
+        if (incomingCodes == null) return false;
 
         List<IdentFlag> existingFlags = flagRepo.findByMaster_SystemId(master.getSystemId()).stream()
                 .filter(f -> "CAUTION".equalsIgnoreCase(f.getFlagType()))
                 .toList();
 
-        // 1. Identify Deletes (In DB but not in Request)
-        List<IdentFlag> toDelete = existingFlags.stream()
-                .filter(db -> incomingCodes.stream().noneMatch(req -> req.equalsIgnoreCase(db.getFlagCode())))
-                .collect(Collectors.toList());
-        flagRepo.deleteAll(toDelete);
-
-        // 2. Identify Adds (In Request but not in DB)
-        List<String> toAdd = incomingCodes.stream()
-                .filter(req -> existingFlags.stream().noneMatch(db -> db.getFlagCode().equalsIgnoreCase(req)))
-                .toList();
-
-        for (String code : toAdd) {
-            // FRD Validation: "A valid caution must be selected."
-            if (!StringUtils.hasText(code)) {
-                throw new IllegalArgumentException("Caution code cannot be blank.");
-            }
-            // Validation against Reference Data
-            if (!referenceDataService.isValidCautionCode(code)) {
-                throw new IllegalArgumentException("Invalid Caution Code: " + code);
-            }
+        // Deletes: in DB but not in Request. Adds: in Request but not in DB (compared case-insensitively)
+        var delta = reconciler.diff(existingFlags, incomingCodes,
+                db -> db.getFlagCode() != null ? db.getFlagCode().toUpperCase() : null,
+                req -> req != null ? req.toUpperCase() : null,
+                IdentFlag::getFlagId,
+                code -> {
+                    // FRD Validation: "A valid caution must be selected."
+                    if (!StringUtils.hasText(code)) {
+                        throw new IllegalArgumentException("Caution code cannot be blank.");
+                    }
+                    // Validation against Reference Data
+                    if (!referenceDataService.isValidCautionCode(code)) {
+                        throw new IllegalArgumentException("Invalid Caution Code: " + code);
+                    }
 
-            IdentFlag flag = new IdentFlag();
-            flag.setMaster(master);
-            flag.setFlagType("CAUTION");
-            flag.setFlagCode(code);
-            flagRepo.save(flag);
-        }
+                    IdentFlag flag = new IdentFlag();
+                    flag.setMaster(master);
+                    flag.setFlagType("CAUTION");
+                    flag.setFlagCode(code);
+                    return flag;
+                });
+        reconciler.apply(delta, flagRepo, batchWriter::insertFlags);
+        return !delta.isEmpty();
     }
 
-    private void handleDobs(IdentMaster master, List<String> incomingDobs, boolean isOnIII, String user, String ip) {
-        if (incomingDobs == null) return;
+    private boolean handleDobs(IdentMaster master, List<String> incomingDobs, boolean isOnIII, String user, String ip) {
+        if (incomingDobs == null) return false;
 
         List<IdentDobAlias> existingDobs = dobRepo.findByMaster_SystemId(master.getSystemId());
 
-        // 1. Identify Deletes
-        List<IdentDobAlias> toDelete = existingDobs.stream()
-                .filter(db -> incomingDobs.stream().noneMatch(req ->
-                        db.getDateOfBirth() != null && req.equals(db.getDateOfBirth().format(DATE_FMT))))
-                .collect(Collectors.toList());
-        dobRepo.deleteAll(toDelete);
-
-        // 2. Identify Adds
-        List<String> toAdd = incomingDobs.stream()
-                .filter(req -> existingDobs.stream().noneMatch(db ->
-                        db.getDateOfBirth() != null && req.equals(db.getDateOfBirth().format(DATE_FMT))))
-                .toList();
-
-        for (String dobStr : toAdd) {
-            if (!StringUtils.hasText(dobStr)) continue;
+        // Compared in the MM/dd/yyyy form submitted by the UI
+        var delta = reconciler.diff(existingDobs, incomingDobs,
+                db -> db.getDateOfBirth() != null ? db.getDateOfBirth().format(DATE_FMT) : null,
+                req -> req,
+                IdentDobAlias::getDobId,
+                dobStr -> {
+                    if (!StringUtils.hasText(dobStr)) return null;
+
+                    LocalDate dob;
+                    try {
+                        dob = LocalDate.parse(dobStr, DATE_FMT);
+                    } catch (Exception e) {
+                        throw new IllegalArgumentException("Date must be in MM/dd/yyyy format: " + dobStr);
+                    }
 
-            LocalDate dob;
-            try {
-                dob = LocalDate.parse(dobStr, DATE_FMT);
-            } catch (Exception e) {
-                throw new IllegalArgumentException("Date must be in MM/dd/yyyy format: " + dobStr);
-            }
+                    // FRD Validation: "The year in the date should not be before 1900"
+                    if (dob.getYear() < 1900) {
+                        throw new IllegalArgumentException("DOB year cannot be earlier than 1900: " + dobStr);
+                    }
+                    // FRD Validation: "Date cannot be today or a future date"
+                    if (!dob.isBefore(LocalDate.now())) {
+                        throw new IllegalArgumentException("DOB cannot be today or in the future: " + dobStr);
+                    }
 
-            // FRD Validation: "The year in the date should not be before 1900"
-            if (dob.getYear() < 1900) {
-                throw new IllegalArgumentException("DOB year cannot be earlier than 1900: " + dobStr);
-            }
-            // FRD Validation: "Date cannot be today or a future date"
-            if (!dob.isBefore(LocalDate.now())) {
-                throw new IllegalArgumentException("DOB cannot be today or in the future: " + dobStr);
-            }
+                    IdentDobAlias alias = new IdentDobAlias();
+                    alias.setMaster(master);
+                    alias.setDateOfBirth(dob);
 
-            IdentDobAlias alias = new IdentDobAlias();
-            alias.setMaster(master);
-            alias.setDateOfBirth(dob);
-            dobRepo.save(alias);
-
-            // Legacy III Sync
-//            if (isOnIII) {
-//                String iiiMsg = "DOB/" + dobStr.replace("/", ""); // Format MMDDYY
-//                utils.sendEhnMessage(master.getSid(), master.getFbiNumber(), iiiMsg);
-//                auditService.logAction(user, ip, "III_NOTIFICATION_SENT", "Sent EHN: " + iiiMsg);
-//            }
-        }
+                    // Legacy III Sync
+                    if (isOnIII) {
+                        queueEhn(master, "DOB/" + dobStr.replace("/", ""), user, ip); // Format MMDDYYYY
+                    }
+                    return alias;
+                });
+        reconciler.apply(delta, dobRepo, batchWriter::insertDobAliases);
+        return !delta.isEmpty();
     }
 
-    private void handleScarsMarks(IdentMaster master, List<AttributeDTO> incomingSmts, boolean isOnIII, String user, String ip) {
-        if (incomingSmts == null) return;
+    private boolean handleScarsMarks(IdentMaster master, List<AttributeDTO> incomingSmts, boolean isOnIII, String user, String ip) {
+        if (incomingSmts == null) return false;
 
         List<IdentScarsMarks> existingSmts = scarRepo.findByMaster_SystemId(master.getSystemId());
 
-        // 1. Identify Deletes (Compare by Code)
-        List<IdentScarsMarks> toDelete = existingSmts.stream()
-                .filter(db -> incomingSmts.stream().noneMatch(req -> req.getCode().equalsIgnoreCase(db.getCode())))
-                .collect(Collectors.toList());
-        scarRepo.deleteAll(toDelete);
-
-        // 2. Identify Adds
-        List<AttributeDTO> toAdd = incomingSmts.stream()
-                .filter(req -> existingSmts.stream().noneMatch(db -> db.getCode().equalsIgnoreCase(req.getCode())))
-                .toList();
-
-        for (AttributeDTO smt : toAdd) {
-            String code = smt.getCode();
+        // Compare by Code
+        var delta = reconciler.diff(existingSmts, incomingSmts,
+                db -> db.getCode() != null ? db.getCode().toUpperCase() : null,
+                req -> req.getCode() != null ? req.getCode().toUpperCase() : null,
+                IdentScarsMarks::getScarId,
+                smt -> {
+                    String code = smt.getCode();
+
+                    // FRD Validation: "Scar/Mark cannot be blank"
+                    if (!StringUtils.hasText(code)) {
+                        throw new IllegalArgumentException("Scar/Mark code cannot be blank.");
+                    }
+                    // FRD Validation: "Code cannot exceed 10 characters"
+                    if (code.length() > 10) {
+                        throw new IllegalArgumentException("Scar/Mark code cannot exceed 10 characters: " + code);
+                    }
+                    // FRD Validation: "Code can only contain letters, numbers, and spaces"
+                    if (!code.matches("^[a-zA-Z0-9 ]*$")) {
+                        throw new IllegalArgumentException("Scar/Mark contains invalid characters: " + code);
+                    }
+                    // Legacy Validation: Check against PST_SMTCD reference table
+                    if (!referenceDataService.isValidSmtCode(code)) {
+                        throw new IllegalArgumentException("Invalid Scar/Mark code (not in reference table): " + code);
+                    }
 
-            // FRD Validation: "Scar/Mark cannot be blank"
-            if (!StringUtils.hasText(code)) {
-                throw new IllegalArgumentException("Scar/Mark code cannot be blank.");
-            }
-            // FRD Validation: "Code cannot exceed 10 characters"
-            if (code.length() > 10) {
-                throw new IllegalArgumentException("Scar/Mark code cannot exceed 10 characters: " + code);
-            }
-            // FRD Validation: "Code can only contain letters, numbers, and spaces"
-            if (!code.matches("^[a-zA-Z0-9 ]*$")) {
-                throw new IllegalArgumentException("Scar/Mark contains invalid characters: " + code);
-            }
-            // Legacy Validation: Check against PST_SMTCD reference table
-            if (!referenceDataService.isValidSmtCode(code)) {
-                throw new IllegalArgumentException("Invalid Scar/Mark code (not in reference table): " + code);
-            }
+                    IdentScarsMarks entity = new IdentScarsMarks();
+                    entity.setMaster(master);
+                    entity.setCode(code.toUpperCase());
+                    entity.setDescription(smt.getDescription() != null ? smt.getDescription().toUpperCase() : "");
+                    entity.setCreateTimestamp(LocalDateTime.now());
 
-            IdentScarsMarks entity = new IdentScarsMarks();
-            entity.setMaster(master);
-            entity.setCode(code.toUpperCase());
-            entity.setDescription(smt.getDescription() != null ? smt.getDescription().toUpperCase() : "");
-            entity.setCreateTimestamp(LocalDateTime.now());
-            scarRepo.save(entity);
-
-            // Legacy III Sync
-//            if (isOnIII) {
-//                String iiiMsg = "SMT/" + code.toUpperCase();
-//                utils.sendEhnMessage(master.getSid(), master.getFbiNumber(), iiiMsg);
-//                auditService.logAction(user, ip, "III_NOTIFICATION_SENT", "Sent EHN: " + iiiMsg);
-//            }
-        }
+                    // Legacy III Sync
+                    if (isOnIII) {
+                        queueEhn(master, "SMT/" + code.toUpperCase(), user, ip);
+                    }
+                    return entity;
+                });
+        reconciler.apply(delta, scarRepo, batchWriter::insertScarsMarks);
+        return !delta.isEmpty();
     }
 
-    private void handleSsns(IdentMaster master, List<String> incomingSsns, boolean isOnIII, String user, String ip) {
-        if (incomingSsns == null) return;
+    private boolean handleSsns(IdentMaster master, List<String> incomingSsns, boolean isOnIII, String user, String ip) {
+        if (incomingSsns == null) return false;
 
         List<IdentSSN> existingSsns = ssnRepo.findByMaster_SystemId(master.getSystemId());
 
-        // 1. Identify Deletes (Normalize to raw digits for comparison)
-        List<IdentSSN> toDelete = existingSsns.stream()
-                .filter(db -> incomingSsns.stream().noneMatch(req ->
-                        req.replace("-", "").equals(db.getSsn())))
-                .collect(Collectors.toList());
-        ssnRepo.deleteAll(toDelete);
-
-        // 2. Identify Adds
-        List<String> toAdd = incomingSsns.stream()
-                .filter(req -> existingSsns.stream().noneMatch(db ->
-                        db.getSsn().equals(req.replace("-", ""))))
-                .toList();
-
-        for (String rawSsn : toAdd) {
-            String cleanSsn = rawSsn.replace("-", "").trim();
+        // Normalize to raw digits for comparison
+        var delta = reconciler.diff(existingSsns, incomingSsns,
+                IdentSSN::getSsn,
+                req -> req.replace("-", "").trim(),
+                IdentSSN::getSsnId,
+                rawSsn -> {
+                    String cleanSsn = rawSsn.replace("-", "").trim();
+
+                    // FRD Validation: "SSN cannot be blank"
+                    if (!StringUtils.hasText(cleanSsn)) {
+                        throw new IllegalArgumentException("SSN cannot be blank.");
+                    }
+                    // FRD Validation: "Incomplete SSN" (Must be 9 digits)
+                    if (cleanSsn.length() != 9 || !cleanSsn.matches("\\d+")) {
+                        throw new IllegalArgumentException("Incomplete or invalid SSN: " + rawSsn);
+                    }
 
-            // FRD Validation: "SSN cannot be blank"
-            if (!StringUtils.hasText(cleanSsn)) {
-                throw new IllegalArgumentException("SSN cannot be blank.");
-            }
-            // FRD Validation: "Incomplete SSN" (Must be 9 digits)
-            if (cleanSsn.length() != 9 || !cleanSsn.matches("\\d+")) {
-                throw new IllegalArgumentException("Incomplete or invalid SSN: " + rawSsn);
-            }
+                    IdentSSN entity = new IdentSSN();
+                    entity.setMaster(master);
+                    entity.setSsn(cleanSsn);
 
-            IdentSSN entity = new IdentSSN();
-            entity.setMaster(master);
-            entity.setSsn(cleanSsn);
-            ssnRepo.save(entity);
-
-            // Legacy III Sync
-//            if (isOnIII) {
-//                String iiiMsg = "SOC/" + cleanSsn;
-//                utils.sendEhnMessage(master.getSid(), master.getFbiNumber(), iiiMsg);
-//                auditService.logAction(user, ip, "III_NOTIFICATION_SENT", "Sent EHN: " + iiiMsg);
-//            }
-        }
+                    // Legacy III Sync
+                    if (isOnIII) {
+                        queueEhn(master, "SOC/" + cleanSsn, user, ip);
+                    }
+                    return entity;
+                });
+        reconciler.apply(delta, ssnRepo, batchWriter::insertSsns);
+        return !delta.isEmpty();
     }
 
-    private void handleMiscNumbers(IdentMaster master, List<SecondaryIDDTO> incomingMisc, boolean isOnIII, String user, String ip) {
-        if (incomingMisc == null) return;
+    private boolean handleMiscNumbers(IdentMaster master, List<SecondaryIDDTO> incomingMisc, boolean isOnIII, String user, String ip) {
+        if (incomingMisc == null) return false;
 
-        // Fetch both Misc Tables (General Misc + Driver License are often handled together in UI)
+        // Note: FRD v2.0 groups Driver Licenses under 'MISC-NUMBER', but DLs are handled in a
+        // separate logic block in the Mainframe. Prefixes such as 'MD-' are stored in T_IDENT_MISC_NUM.
         List<IdentMiscNum> existingMisc = miscNumRepo.findByMaster_SystemId(master.getSystemId());
-        List<IdentDL> existingDLs = dlRepo.findByMaster_SystemId(master.getSystemId());
-
-        // Note: For simplicity in this method, we are focusing on the Generic Misc Numbers
-        // as typically DLs are handled in a separate specific logic block in Mainframe,
-        // but FRD v2.0 groups them under 'MISC-NUMBER'.
-        // Assuming 'MD-' etc are stored in T_IDENT_MISC_NUM for this implementation.
-
-        // 1. Identify Deletes
-        List<IdentMiscNum> toDelete = existingMisc.stream()
-                .filter(db -> incomingMisc.stream().noneMatch(req ->
-                        req.getIdType().equalsIgnoreCase(db.getMiscNumType()) &&
-                                req.getIdValue().equalsIgnoreCase(db.getMiscNumber())))
-                .collect(Collectors.toList());
-        miscNumRepo.deleteAll(toDelete);
-
-        // 2. Identify Adds
-        List<SecondaryIDDTO> toAdd = incomingMisc.stream()
-                .filter(req -> existingMisc.stream().noneMatch(db ->
-                        db.getMiscNumType().equalsIgnoreCase(req.getIdType()) &&
-                                db.getMiscNumber().equalsIgnoreCase(req.getIdValue())))
-                .toList();
 
-        for (SecondaryIDDTO dto : toAdd) {
-            String prefix = dto.getIdType(); // e.g., "AF", "MD"
-            String number = dto.getIdValue();
+        // Compare by Prefix + Number (case-insensitive)
+        var delta = reconciler.diff(existingMisc, incomingMisc,
+                db -> miscKey(db.getMiscNumType(), db.getMiscNumber()),
+                req -> miscKey(req.getIdType(), req.getIdValue()),
+                IdentMiscNum::getMiscId,
+                dto -> {
+                    String prefix = dto.getIdType(); // e.g., "AF", "MD"
+                    String number = dto.getIdValue();
+
+                    // FRD Validation: "Both prefix and number are required"
+                    if (!StringUtils.hasText(prefix) || !StringUtils.hasText(number)) {
+                        throw new IllegalArgumentException("Misc Number requires both Prefix and Number.");
+                    }
+                    // FRD Validation: "Invalid Prefix"
+                    if (!referenceDataService.isValidMiscPrefix(prefix)) {
+                        throw new IllegalArgumentException("Invalid Misc Number Prefix: " + prefix);
+                    }
+                    // FRD Validation (Length): Usually 12 digits per FRD screenshot
+                    if (number.length() > 12) {
+                        throw new IllegalArgumentException("Misc Number cannot exceed 12 characters.");
+                    }
 
-            // FRD Validation: "Both prefix and number are required"
-            if (!StringUtils.hasText(prefix) || !StringUtils.hasText(number)) {
-                throw new IllegalArgumentException("Misc Number requires both Prefix and Number.");
-            }
-            // FRD Validation: "Invalid Prefix"
-                if (!referenceDataService.isValidMiscPrefix(prefix)) {
-                throw new IllegalArgumentException("Invalid Misc Number Prefix: " + prefix);
-            }
-            // FRD Validation (Length): Usually 12 digits per FRD screenshot
-            if (number.length() > 12) {
-                throw new IllegalArgumentException("Misc Number cannot exceed 12 characters.");
-            }
+                    IdentMiscNum entity = new IdentMiscNum();
+                    entity.setMaster(master);
+                    entity.setMiscNumType(prefix.toUpperCase());
+                    entity.setMiscNumber(number.toUpperCase());
 
-            IdentMiscNum entity = new IdentMiscNum();
-            entity.setMaster(master);
-            entity.setMiscNumType(prefix.toUpperCase());
-            entity.setMiscNumber(number.toUpperCase());
-            miscNumRepo.save(entity);
-
-            // Legacy III Sync
-//            if (isOnIII) {
-//                // Format: MNU/PP-NNNNNNNN (Prefix-Number)
-//                String iiiMsg = "MNU/" + prefix.toUpperCase() + "-" + number.toUpperCase();
-//                utils.sendEhnMessage(master.getSid(), master.getFbiNumber(), iiiMsg);
-//                auditService.logAction(user, ip, "III_NOTIFICATION_SENT", "Sent EHN: " + iiiMsg);
-//            }
-        }
+                    // Legacy III Sync
+                    if (isOnIII) {
+                        // Format: MNU/PP-NNNNNNNN (Prefix-Number)
+                        queueEhn(master, "MNU/" + prefix.toUpperCase() + "-" + number.toUpperCase(), user, ip);
+                    }
+                    return entity;
+                });
+        reconciler.apply(delta, miscNumRepo, batchWriter::insertMiscNumbers);
+        return !delta.isEmpty();
+    }
+
+    /**
+     * Queues an EHN message for the FBI interface; delivered by OutboxDispatcher after commit.
+     */
+    private void queueEhn(IdentMaster master, String iiiMsg, String user, String ip) {
+        outboxService.enqueueEhn(master, iiiMsg);
+        auditService.logAction(user, ip, "III_NOTIFICATION_QUEUED", "Queued EHN: " + iiiMsg);
+    }
+
+    private static String miscKey(String type, String number) {
+        return (type != null ? type.toUpperCase() : "") + '|' + (number != null ? number.toUpperCase() : "");
     }
 
     /** Updates Reference Data.
@@ -652,12 +592,16 @@ public class IdentUpdateService {
      */
     @Transactional
     public void updateReferenceData(Long systemId, List<DocumentDTO> documents, String username, String ipAddress) {
-        IdentMaster master = masterRepo.findById(systemId)
-                .orElseThrow(() -> new IllegalArgumentException("Record not found for SystemID: " + systemId));
+        RecordEdit edit = beginEdit(systemId, username, ipAddress);
+        applyReferences(edit, documents);
+        finishEdit(edit, "UPDATE_REFERENCES");
+    }
 
+    private void applyReferences(RecordEdit edit, List<DocumentDTO> documents) {
         if (documents == null) return;
 
-        IdentName primaryName = getPrimaryName(systemId);
+        IdentMaster master = edit.master;
+        Long systemId = master.getSystemId();
 
         for (DocumentDTO docDto : documents) {
             if (docDto.getId() != null) {
@@ -672,7 +616,7 @@ public class IdentUpdateService {
                 String newDesc = docDto.getDescription() != null ? docDto.getDescription().toUpperCase().trim() : "";
                 if (!newDesc.equals(existingDoc.getDescription())) {
                     existingDoc.setDescription(newDesc);
-                    documentRepo.save(existingDoc);
+                    edit.changes.add("references");
                 }
 
             } else {
@@ -685,6 +629,7 @@ public class IdentUpdateService {
 
                 String type = docDto.getDocumentType().toUpperCase().trim();
                 if ("CNS".equals(type)) {
+                    settleRecordType(edit); // Earlier sections or references may have changed it
                     String recType = master.getRecordType();
                     if (!"T".equals(recType) && !"PENDING".equals(recType)) {
                         throw new IllegalArgumentException("CNS event can only be added to a Pending record (remove FBI Number and Pattern Type first).");
@@ -717,17 +662,79 @@ public class IdentUpdateService {
                 doc.setDocCategory(category);
 
                 documentRepo.save(doc);
+                eventCounts.documentAdded(doc);
 
-                recalculateRecordType(master, primaryName);
-                masterRepo.save(master);
+                edit.changes.add("references");
+                edit.recordTypeStale = true;
             }
         }
-
-        auditService.logAction(username, ipAddress, "UPDATE_REFERENCES", "Updated references for SID: " + master.getSid());
     }
 
     // --- Helpers ---
 
+    /**
+     * One record being edited: the locked master and its names, loaded once and shared by every
+     * section applied in the transaction.
+     */
+    private static final class RecordEdit {
+        final IdentMaster master;
+        final List<IdentName> names;
+        final String username;
+        final String ipAddress;
+        final FieldChanges changes = new FieldChanges();
+        boolean recordTypeStale;
+
+        RecordEdit(IdentMaster master, List<IdentName> names, String username, String ipAddress) {
+            this.master = master;
+            this.names = names;
+            this.username = username;
+            this.ipAddress = ipAddress;
+        }
+
+        IdentName primaryName() {
+            return names.stream()
+                    .filter(n -> "P".equals(n.getNameType()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Primary Name not found"));
+        }
+    }
+
+    private RecordEdit beginEdit(Long systemId, String username, String ipAddress) {
+        IdentMaster master = recordLock.lockForUpdate(systemId);
+        return new RecordEdit(master, nameRepo.findByMaster_SystemId(systemId), username, ipAddress);
+    }
+
+    /**
+     * Recalculates the record type once if a section changed one of its inputs (prints, FBI number, references).
+     */
+    private void settleRecordType(RecordEdit edit) {
+        if (!edit.recordTypeStale) return;
+
+        String recordType = edit.master.getRecordType();
+        recalculateRecordType(edit.master, edit.primaryName());
+        if (!Objects.equals(recordType, edit.master.getRecordType())) edit.changes.add("recordType");
+        edit.recordTypeStale = false;
+    }
+
+    /**
+     * Settles the record type and writes one audit entry and one change event for the whole edit.
+     * Dirty entities are flushed on commit, modified columns only (@DynamicUpdate).
+     */
+    private void finishEdit(RecordEdit edit, String action) {
+        IdentMaster master = edit.master;
+        if (edit.changes.isEmpty()) {
+            auditService.logAction(edit.username, edit.ipAddress, action, "No changes for SID: " + master.getSid());
+            return;
+        }
+
+        settleRecordType(edit);
+        master.setLastUpdateDate(LocalDateTime.now());
+
+        auditService.logAction(edit.username, edit.ipAddress, action,
+                "Updated SID: " + master.getSid() + ", Fields: " + edit.changes);
+        eventPublisher.publishEvent(IdentRecordChangedEvent.updated(master.getSystemId()));
+    }
+
     private IdentName getPrimaryName(Long systemId) {
         return nameRepo.findByMaster_SystemId(systemId).stream()
                 .filter(n -> "P".equals(n.getNameType()))
@@ -735,7 +742,7 @@ public class IdentUpdateService {
                 .orElseThrow(() -> new IllegalStateException("Primary Name not found"));
     }
 
-    private void updateAddress(IdentMaster master, UpdateDemographicsRequest req) {
+    private void updateAddress(IdentMaster master, UpdateDemographicsRequest req, FieldChanges changes) {
         // Corrected logic for Boolean isCurrent
         IdentAddress address = addressRepo.findByMaster_SystemId(master.getSystemId())
                 .stream()
@@ -743,20 +750,24 @@ public class IdentUpdateService {
                 .findFirst()
                 .orElse(new IdentAddress());
 
+        FieldChanges addressChanges = new FieldChanges();
+        addressChanges.set("address.streetNumber", address.getStreetNumber(), req.getStreetNumber(), address::setStreetNumber);
+        addressChanges.set("address.streetDirection", address.getStreetDirection(), req.getStreetDirection(), address::setStreetDirection);
+        addressChanges.set("address.streetName", address.getStreetName(), req.getStreetName(), address::setStreetName);
+        addressChanges.set("address.streetSuffix", address.getStreetSuffix(), req.getStreetSuffix(), address::setStreetSuffix);
+        addressChanges.set("address.city", address.getCity(), req.getCity(), address::setCity);
+        addressChanges.set("address.state", address.getStateCode(), req.getState(), address::setStateCode);
+        addressChanges.set("address.zip", address.getZipCode(), req.getZip(), address::setZipCode);
+
+        // Nothing differs (also: no address on file and none submitted)
+        if (addressChanges.isEmpty()) return;
+
         if (address.getAddressId() == null) {
             address.setMaster(master);
             address.setIsCurrent(true); // Correct: Set Boolean
+            addressRepo.save(address); // Existing addresses are managed and flushed on commit
         }
-
-        address.setStreetNumber(req.getStreetNumber());
-        address.setStreetDirection(req.getStreetDirection());
-        address.setStreetName(req.getStreetName());
-        address.setStreetSuffix(req.getStreetSuffix());
-        address.setCity(req.getCity());
-        address.setStateCode(req.getState());
-        address.setZipCode(req.getZip());
-
-        addressRepo.save(address);
+        changes.addAll(addressChanges);
     }
 
     private boolean isSameName(IdentName dbName, UpdateNameRequest req) {
@@ -768,14 +779,8 @@ public class IdentUpdateService {
     }
 
     private boolean hasCriminalReferences(Long systemId) {
-        // Query the consolidated IdentDocumentRepository for this systemId
-        List<IdentDocument> docs = documentRepo.findByMaster_SystemId(systemId);
-
-        // Check if any document type matches the criminal list
-        return docs.stream().anyMatch(doc ->
-                doc.getDocumentType() != null &&
-                        CRIMINAL_REF_TYPES.contains(doc.getDocumentType().toUpperCase().trim())
-        );
+        // Maintained counter (T_IDENT_EVENT_COUNTS) instead of scanning the documents
+        return eventCounts.get(systemId).getCriminalCount() > 0;
     }
 
     private void saveFbiDowngradeStaging(IdentMaster master, String deletedFbiNumber, String username) {
@@ -0,0 +1,56 @@
+package md.dpscs.cch.iis.service;
+
+import md.dpscs.cch.iis.model.IdentMaster;
+import md.dpscs.cch.iis.model.IdentOutboxMessage;
+import md.dpscs.cch.iis.repository.IdentOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Queues downstream notifications in T_IDENT_OUTBOX.
+ * <p>
+ * Must be called inside the transaction that makes the change, so the message is committed
+ * (or rolled back) together with it. Nothing is sent here: OutboxDispatcher delivers the rows
+ * in the background, so request threads never wait on IP07 or the FBI interface.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final IdentOutboxRepository outboxRepo;
+
+    /**
+     * Legacy IPS/IP07 transaction (TC/ETS/DRS notification) for an expungement or downgrade.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueIp07(IdentMaster master, String processType) {
+        enqueue(IdentOutboxMessage.Type.IP07, master, "IP07/" + master.getSid() + "/" + processType);
+    }
+
+    /**
+     * III EHN message (Legacy II0700C) for an identifier added to a record that is on III.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueEhn(IdentMaster master, String message) {
+        enqueue(IdentOutboxMessage.Type.EHN, master, message);
+    }
+
+    private void enqueue(IdentOutboxMessage.Type type, IdentMaster master, String payload) {
+        LocalDateTime now = LocalDateTime.now();
+
+        IdentOutboxMessage message = new IdentOutboxMessage();
+        message.setMessageType(type);
+        message.setSid(master.getSid());
+        message.setSystemId(master.getSystemId());
+        message.setFbiNumber(master.getFbiNumber() != null ? master.getFbiNumber().trim() : null);
+        message.setPayload(payload);
+        message.setCreatedAt(now);
+        message.setNextAttemptAt(now);
+        outboxRepo.save(message);
+    }
+}
@@ -0,0 +1,322 @@
+package md.dpscs.cch.iis.service;
+
+import md.dpscs.cch.iis.dto.*;
+import md.dpscs.cch.iis.model.*;
+import md.dpscs.cch.iis.util.MainframeDataUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Converts the loaded rows of one SystemID into a PersonDetailDTO.
+ * <p>
+ * Every child list is mapped in a single pass and every output list is created with its final
+ * capacity. Driver's Licenses produce both their DriverLicenseDTO and their "DL" Secondary ID
+ * in the same loop, and the primary name / caution flag are picked up while mapping.
+ * No database access happens here, so the assembly cost can be measured on its own
+ * (see PersonDetailAssemblerBenchmark).
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class PersonDetailAssembler {
+
+    private final MainframeDataUtils utils;
+
+    /**
+     * Rows loaded for a single SystemID. Lists for sections that were not requested are empty.
+     */
+    public record Rows(
+            List<IdentName> names,
+            List<IdentAddress> addresses,
+            List<IdentSSN> ssns,
+            List<IdentDL> driverLicenses,
+            List<IdentMiscNum> miscNumbers,
+            List<IdentDobAlias> dobs,
+            List<IdentFlag> flags,
+            List<IdentScarsMarks> scars,
+            List<IdentHenryFP> henryPrints,
+            List<IdentNcicFP> ncicPrints,
+            DocumentHistoryService.FirstPages documents
+    ) {}
+
+    public PersonDetailDTO assemble(IdentMaster master, Rows rows, Set<DetailSection> sections, Map<String, String> cautionMap) {
+        PersonDetailDTO dto = new PersonDetailDTO();
+        mapHeader(master, dto);
+
+        if (sections.contains(DetailSection.NAMES)) mapNames(rows.names(), dto);
+        if (sections.contains(DetailSection.ADDRESSES)) mapAddresses(rows.addresses(), dto);
+        if (sections.contains(DetailSection.SSNS)) mapSsns(rows.ssns(), dto);
+        if (sections.contains(DetailSection.DOBS)) mapDobs(rows.dobs(), dto);
+        if (sections.contains(DetailSection.SCARS)) mapScars(rows.scars(), dto);
+        if (sections.contains(DetailSection.FLAGS)) mapFlags(rows.flags(), cautionMap, dto);
+        if (sections.contains(DetailSection.FINGERPRINTS)) mapFingerprints(rows.henryPrints(), rows.ncicPrints(), dto);
+        if (sections.contains(DetailSection.DOCUMENTS)) mapDocuments(rows.documents(), dto);
+
+        boolean wantLicenses = sections.contains(DetailSection.LICENSES);
+        boolean wantIdentifiers = sections.contains(DetailSection.IDENTIFIERS);
+        if (wantLicenses || wantIdentifiers) {
+            mapIdentifiers(rows.miscNumbers(), rows.driverLicenses(), wantLicenses, wantIdentifiers, dto);
+        }
+
+        return dto;
+    }
+
+    // --- Header ---
+
+    private void mapHeader(IdentMaster master, PersonDetailDTO dto) {
+        dto.setSystemId(master.getSystemId());
+        dto.setSid(master.getSid());
+        dto.setFbiNumber(master.getFbiNumber());
+
+        // FIX: Map Record Type Code to Description (Source 1785)
+        dto.setRecordType(mapRecordType(master.getRecordType()));
+
+        dto.setRapbackSubscriptionIndicator(master.getRapbackSubscriptionIndicator());
+        dto.setLastUpdated(master.getLastUpdateDate());
+        dto.setComments(master.getComments());
+
+        // --- Personal Identifiers ---
+        dto.setRace(master.getRaceCode());
+        dto.setSex(master.getSexCode());
+        dto.setHeight(master.getHeight());
+        dto.setWeight(master.getWeight());
+        dto.setEyeColor(master.getEyeColorCode());
+        dto.setHairColor(master.getHairColorCode());
+        dto.setSkinTone(master.getSkinToneCode());
+        dto.setPlaceOfBirth(master.getPlaceOfBirthCode());
+        dto.setCitizenship(master.getCitizenshipCode());
+    }
+
+    private String mapRecordType(String code) {
+        if (code == null) return "CRIMINAL";
+        return switch (code.toUpperCase()) {
+            case "J" -> "JUVENILE";
+            case "N" -> "NON-CRIMINAL";
+            case "T" -> "PENDING";
+            case "F" -> "FLYER";
+            default -> "CRIMINAL";
+        };
+    }
+
+    // --- Names & MAFIS Pattern Type ---
+
+    private void mapNames(List<IdentName> names, PersonDetailDTO dto) {
+        List<NameDTO> out = new ArrayList<>(names.size());
+        IdentName primary = null;
+
+        for (IdentName n : names) {
+            out.add(mapName(n));
+            if (primary == null && "P".equals(n.getNameType())) primary = n;
+        }
+        if (primary == null && !names.isEmpty()) primary = names.getFirst();
+
+        dto.setNamesAndAliases(out);
+
+        String rawFp = primary != null ? primary.getMafisFingerprint() : null;
+        if (rawFp != null) {
+            // Display form is 5 chars Right hand + 5 chars Left hand (short values are space padded)
+            String converted = utils.convertMafisHandToDisplay(rawFp);
+            int len = converted.length();
+            dto.setPatternRight(converted.substring(0, Math.min(5, len)).trim());
+            dto.setPatternLeft(len > 5 ? converted.substring(5, Math.min(10, len)).trim() : "");
+        } else {
+            dto.setPatternRight("");
+            dto.setPatternLeft("");
+        }
+    }
+
+    private NameDTO mapName(IdentName entity) {
+        NameDTO dto = new NameDTO();
+        dto.setId(entity.getNameId());
+        dto.setNameType(entity.getNameType());
+        dto.setLastName(entity.getLastName());
+        dto.setFirstName(entity.getFirstName());
+        dto.setMiddleName(entity.getMiddleName());
+        dto.setMiddleInitial(entity.getMiddleInitial());
+        dto.setDateOfBirth(entity.getDateOfBirth());
+        dto.setRace(entity.getRaceCode());
+        dto.setSex(entity.getSexCode());
+        return dto;
+    }
+
+    // --- Addresses ---
+
+    private void mapAddresses(List<IdentAddress> addresses, PersonDetailDTO dto) {
+        List<AddressDTO> out = new ArrayList<>(addresses.size());
+        for (IdentAddress a : addresses) {
+            out.add(mapAddress(a));
+        }
+        dto.setAddressHistory(out);
+    }
+
+    private AddressDTO mapAddress(IdentAddress entity) {
+        AddressDTO dto = new AddressDTO();
+        dto.setStreetNumber(entity.getStreetNumber());
+        dto.setStreetDirection(entity.getStreetDirection());
+        dto.setStreetName(entity.getStreetName());
+        dto.setStreetSuffix(entity.getStreetSuffix());
+        dto.setCity(entity.getCity());
+        dto.setState(entity.getStateCode());
+        dto.setZip(entity.getZipCode());
+        dto.setIsCurrent(entity.getIsCurrent());
+
+        StringBuilder full = new StringBuilder(48);
+        appendPart(full, entity.getStreetNumber());
+        appendPart(full, entity.getStreetDirection());
+        appendPart(full, entity.getStreetName());
+        if (entity.getStreetSuffix() != null) full.append(entity.getStreetSuffix());
+        dto.setFullAddress(full.toString().trim());
+        return dto;
+    }
+
+    private void appendPart(StringBuilder sb, String part) {
+        if (part != null) sb.append(part).append(' ');
+    }
+
+    // --- Appended IDs ---
+
+    private void mapSsns(List<IdentSSN> ssns, PersonDetailDTO dto) {
+        List<SsnDTO> out = new ArrayList<>(ssns.size());
+        for (IdentSSN s : ssns) {
+            SsnDTO ssn = new SsnDTO();
+            ssn.setSsn(s.getSsn());
+            ssn.setDateRecorded(s.getDateRecorded() != null ? s.getDateRecorded().toLocalDate() : null);
+            out.add(ssn);
+        }
+        dto.setSsnHistory(out);
+    }
+
+    private void mapDobs(List<IdentDobAlias> dobs, PersonDetailDTO dto) {
+        List<AltDOBDTO> out = new ArrayList<>(dobs.size());
+        for (IdentDobAlias d : dobs) {
+            AltDOBDTO dob = new AltDOBDTO();
+            dob.setDob(d.getDateOfBirth());
+            out.add(dob);
+        }
+        dto.setAlternateDOBs(out);
+    }
+
+    private void mapScars(List<IdentScarsMarks> scars, PersonDetailDTO dto) {
+        List<AttributeDTO> out = new ArrayList<>(scars.size());
+        for (IdentScarsMarks s : scars) {
+            AttributeDTO scar = new AttributeDTO();
+            scar.setCode(s.getCode());
+            scar.setDescription(s.getDescription());
+            out.add(scar);
+        }
+        dto.setScarsAndMarks(out);
+    }
+
+    /**
+     * Maps flags and derives the Caution Flag (first CAUTION description, or "NONE") in the same pass.
+     */
+    private void mapFlags(List<IdentFlag> flags, Map<String, String> cautionMap, PersonDetailDTO dto) {
+        List<FlagDTO> out = new ArrayList<>(flags.size());
+        String primaryCaution = null;
+
+        for (IdentFlag f : flags) {
+            String desc = cautionMap.getOrDefault(f.getFlagCode(), f.getFlagCode());
+            out.add(new FlagDTO(f.getFlagCode(), f.getFlagType(), desc));
+            if (primaryCaution == null && "CAUTION".equals(f.getFlagType())) primaryCaution = desc;
+        }
+
+        dto.setFlags(out);
+        dto.setCautionFlag(primaryCaution != null ? primaryCaution : "NONE");
+    }
+
+    /**
+     * Misc Numbers followed by Driver's Licenses (Type = "DL") make up the Secondary Identifiers.
+     * Each DL row is visited once and feeds both lists when both sections are requested.
+     */
+    private void mapIdentifiers(List<IdentMiscNum> miscNumbers, List<IdentDL> licenses,
+                                boolean wantLicenses, boolean wantIdentifiers, PersonDetailDTO dto) {
+        List<SecondaryIDDTO> secondary = wantIdentifiers ? new ArrayList<>(miscNumbers.size() + licenses.size()) : null;
+        List<DriverLicenseDTO> dlList = wantLicenses ? new ArrayList<>(licenses.size()) : null;
+
+        if (wantIdentifiers) {
+            for (IdentMiscNum m : miscNumbers) {
+                SecondaryIDDTO id = new SecondaryIDDTO();
+                id.setIdType(m.getMiscNumType());
+                id.setIdValue(m.getMiscNumber() != null ? m.getMiscNumber().trim() : "");
+                secondary.add(id);
+            }
+        }
+
+        for (IdentDL dl : licenses) {
+            if (wantLicenses) {
+                DriverLicenseDTO lic = new DriverLicenseDTO();
+                lic.setLicenseNumber(dl.getLicenseNumber());
+                lic.setStateCode(dl.getStateSource());
+                dlList.add(lic);
+            }
+            if (wantIdentifiers) {
+                String state = dl.getStateSource() != null ? dl.getStateSource().trim() : "";
+                String num = dl.getLicenseNumber() != null ? dl.getLicenseNumber().trim() : "";
+                SecondaryIDDTO id = new SecondaryIDDTO();
+                id.setIdType("DL");
+                id.setIdValue((state + num).trim());
+                secondary.add(id);
+            }
+        }
+
+        if (wantIdentifiers) dto.setSecondaryIdentifiers(secondary);
+        if (wantLicenses) dto.setDriverLicenses(dlList);
+    }
+
+    // --- Fingerprint Classifications ---
+
+    private void mapFingerprints(List<IdentHenryFP> henry, List<IdentNcicFP> ncic, PersonDetailDTO dto) {
+        List<FingerprintDTO> out = new ArrayList<>(henry.size() + ncic.size());
+        for (IdentHenryFP h : henry) {
+            FingerprintDTO fp = new FingerprintDTO();
+            fp.setType("HENRY");
+            fp.setPrimary(h.getPrimaryHenry());
+            fp.setClassification(h.getFpcHenry());
+            out.add(fp);
+        }
+        for (IdentNcicFP n : ncic) {
+            FingerprintDTO fp = new FingerprintDTO();
+            fp.setType("NCIC");
+            fp.setClassification(n.getFpcPattern());
+            out.add(fp);
+        }
+        dto.setFingerprints(out);
+    }
+
+    // --- Documents ---
+
+    /**
+     * Maps the first page of each document category plus the per-category counts;
+     * further pages are served by DocumentHistoryService.
+     */
+    private void mapDocuments(DocumentHistoryService.FirstPages pages, PersonDetailDTO dto) {
+        dto.setArrestDocuments(mapDocuments(pages.arrest()));
+        dto.setIndexDocuments(mapDocuments(pages.index()));
+        dto.setGeneralReferences(mapDocuments(pages.refer()));
+        dto.setDocumentCounts(pages.counts());
+    }
+
+    private List<DocumentDTO> mapDocuments(List<IdentDocument> documents) {
+        List<DocumentDTO> out = new ArrayList<>(documents.size());
+        for (IdentDocument d : documents) {
+            out.add(mapDocument(d));
+        }
+        return out;
+    }
+
+    public DocumentDTO mapDocument(IdentDocument entity) {
+        DocumentDTO dto = new DocumentDTO();
+        dto.setId(entity.getDocId());
+        dto.setDocumentType(entity.getDocumentType());
+        dto.setDocumentNumber(entity.getDocumentNumber());
+        dto.setDocumentDate(entity.getDocumentDate());
+        dto.setDescription(entity.getDescription());
+        dto.setCategory(entity.getDocCategory());
+        return dto;
+    }
+}
@@ -0,0 +1,52 @@
+package md.dpscs.cch.iis.service;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import md.dpscs.cch.iis.dto.PersonDetailDTO;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes PersonDetailDTO snapshots as GZIP-compressed JSON.
+ * <p>
+ * Uses its own mapper: the API format for 'lastUpdated' is MM/dd/yyyy, which drops the time
+ * and cannot be read back into a LocalDateTime. The mix-in stores it as a full ISO timestamp.
+ * </p>
+ */
+@Component
+public class PersonSnapshotCodec {
+
+    private final JsonMapper mapper = JsonMapper.builder()
+            .addMixIn(PersonDetailDTO.class, SnapshotMixin.class)
+            .build();
+
+    public byte[] encode(PersonDetailDTO dto) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            mapper.writeValue(gzip, dto);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode person snapshot", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public PersonDetailDTO decode(byte[] payload) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return mapper.readValue(gzip, PersonDetailDTO.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode person snapshot", e);
+        }
+    }
+
+    abstract static class SnapshotMixin {
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        private LocalDateTime lastUpdated;
+    }
+}
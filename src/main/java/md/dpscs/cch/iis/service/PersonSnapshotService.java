@@ -0,0 +1,52 @@
+package md.dpscs.cch.iis.service;
+
+import md.dpscs.cch.iis.dto.PersonDetailDTO;
+import md.dpscs.cch.iis.event.IdentRecordChangedEvent;
+import md.dpscs.cch.iis.repository.IdentPersonSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keeps T_IDENT_PERSON_SNAPSHOT in step with the live Ident tables.
+ * <p>
+ * Runs BEFORE_COMMIT of the mutating transaction, so the snapshot row is written (or removed)
+ * atomically with the change itself: a rolled-back edit never leaves a newer snapshot behind.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class PersonSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonSnapshotService.class);
+
+    private final DetailService detailService;
+    private final PersonSnapshotCodec codec;
+    private final IdentPersonSnapshotRepository snapshotRepo;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onRecordChanged(IdentRecordChangedEvent event) {
+        if (event.deleted()) {
+            snapshotRepo.deleteBySystemId(event.systemId());
+        } else {
+            rebuild(event.systemId());
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot of one SystemID from the live tables on the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void rebuild(Long systemId) {
+        PersonDetailDTO dto = detailService.buildFullDetailsInCurrentTransaction(systemId);
+        snapshotRepo.upsert(systemId, codec.encode(dto), LocalDateTime.now());
+        logger.debug("Rebuilt person snapshot for SystemID {}", systemId);
+    }
+}
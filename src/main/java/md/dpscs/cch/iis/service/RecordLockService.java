@@ -0,0 +1,92 @@
+package md.dpscs.cch.iis.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import md.dpscs.cch.iis.exception.RecordLockedException;
+import md.dpscs.cch.iis.model.IdentMaster;
+import md.dpscs.cch.iis.repository.IdentMasterRepository;
+import md.dpscs.cch.iis.util.StripedLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes writers of one SystemID without serializing unrelated records.
+ * <p>
+ * Two levels, both held until the current transaction completes:
+ * <ol>
+ *   <li>A striped in-process lock, so concurrent editors on this node queue in the JVM rather than
+ *       as blocked lock requests (and deadlock candidates) in the database.</li>
+ *   <li>A PESSIMISTIC_WRITE lock on the T_IDENT_MASTER row, which covers other nodes. The database
+ *       releases it on commit, rollback or a dropped connection, so a crashed node cannot strand it.</li>
+ * </ol>
+ * Everything read after {@link #lockForUpdate} (e.g. the alias MAX(sequence)) is therefore stable
+ * until commit. Waiting longer than {@code ident.record-lock.wait} fails the request.
+ * </p>
+ * <p>
+ * Callers are already inside their transaction, so a waiting editor holds a pooled connection. The
+ * wait is therefore required to stay under half of the pool's connection timeout: waiting editors give
+ * up (and release their connections) well before other requests time out waiting for one.
+ * </p>
+ */
+@Service
+public class RecordLockService {
+
+    private final IdentMasterRepository masterRepo;
+    private final StripedLock locks;
+    private final Duration wait;
+    private final Timer waitTimer;
+
+    public RecordLockService(IdentMasterRepository masterRepo,
+                             MeterRegistry meterRegistry,
+                             @Value("${ident.record-lock.stripes:1024}") int stripes,
+                             @Value("${ident.record-lock.wait:PT10S}") Duration wait,
+                             @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeoutMillis) {
+        if (wait.toMillis() * 2 > connectionTimeoutMillis) {
+            throw new IllegalStateException("ident.record-lock.wait (" + wait + ") must be at most half of "
+                    + "spring.datasource.hikari.connection-timeout (" + connectionTimeoutMillis + " ms).");
+        }
+        this.masterRepo = masterRepo;
+        this.locks = new StripedLock(stripes);
+        this.wait = wait;
+        this.waitTimer = meterRegistry.timer("ident.record-lock.wait");
+    }
+
+    /**
+     * Locks the record for the rest of the current transaction and returns it.
+     */
+    public IdentMaster lockForUpdate(Long systemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("lockForUpdate requires an active transaction.");
+        }
+
+        ReentrantLock lock = locks.get(systemId);
+        long start = System.nanoTime();
+        try {
+            if (!lock.tryLock(wait.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RecordLockedException("Record " + systemId + " is being updated by another user. Please retry.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for record " + systemId);
+        }
+
+        // Released on the same thread once the transaction has committed or rolled back
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+
+        IdentMaster master = masterRepo.findByIdForUpdate(systemId)
+                .orElseThrow(() -> new IllegalArgumentException("Record not found for SystemID: " + systemId));
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return master;
+    }
+}
@@ -0,0 +1,39 @@
+package md.dpscs.cch.iis.transport;
+
+import md.dpscs.cch.iis.model.IdentOutboxMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Stand-in transport until the IP07 / FBI interface connection exists: appends each message as one
+ * pipe-delimited line to a daily file per message type ({@code IP07-2025-01-31.txt}) for pickup.
+ */
+@Component
+@ConditionalOnProperty(name = "ident.outbox.transport", havingValue = "file", matchIfMissing = true)
+public class FileOutboxTransport implements OutboxTransport {
+
+    @Value("${ident.outbox.file.directory:/data/ident/outbox}")
+    private Path directory;
+
+    @Override
+    public synchronized void send(IdentOutboxMessage message) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(message.getMessageType() + "-" + LocalDate.now() + ".txt");
+
+        String line = String.join("|",
+                String.valueOf(message.getId()),
+                message.getSid(),
+                message.getFbiNumber() != null ? message.getFbiNumber() : "",
+                message.getPayload(),
+                String.valueOf(message.getCreatedAt())) + System.lineSeparator();
+        Files.writeString(file, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
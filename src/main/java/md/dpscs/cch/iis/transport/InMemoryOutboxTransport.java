@@ -0,0 +1,31 @@
+package md.dpscs.cch.iis.transport;
+
+import md.dpscs.cch.iis.model.IdentOutboxMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps delivered messages in memory. For local runs and tests ({@code ident.outbox.transport=memory}).
+ */
+@Component
+@ConditionalOnProperty(name = "ident.outbox.transport", havingValue = "memory")
+public class InMemoryOutboxTransport implements OutboxTransport {
+
+    private final List<IdentOutboxMessage> sent = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(IdentOutboxMessage message) {
+        sent.add(message);
+    }
+
+    public List<IdentOutboxMessage> getSent() {
+        return List.copyOf(sent);
+    }
+
+    public void clear() {
+        sent.clear();
+    }
+}
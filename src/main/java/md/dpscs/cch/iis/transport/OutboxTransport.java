@@ -0,0 +1,13 @@
+package md.dpscs.cch.iis.transport;
+
+import md.dpscs.cch.iis.model.IdentOutboxMessage;
+
+/**
+ * Delivers one outbox message to the downstream system (IP07 / FBI interface).
+ * Selected with {@code ident.outbox.transport}. Throwing means "not delivered": the dispatcher retries.
+ * Implementations must tolerate redelivery of a message after a dispatcher crash.
+ */
+public interface OutboxTransport {
+
+    void send(IdentOutboxMessage message) throws Exception;
+}
@@ -0,0 +1,24 @@
+package md.dpscs.cch.iis.util;
+
+import java.util.List;
+
+/**
+ * Document types that count as criminal events (arrests, warrants, commitments, ...).
+ * Every other document type on a record is a non-criminal event.
+ */
+public final class CriminalEventTypes {
+
+    public static final List<String> TYPES = List.of(
+            "BIN", "DOC", "DIO", "IUR", "PAA", "PAB", "COF", "PAR", "PAV", "PAL",
+            "WPR", "WPL", "WAR", "WAA", "DET", "CSO", "SOR", "SVO", "SVP", "OFF",
+            "CIE", "PAC", "PAD", "PAE", "PAF", "PAG", "PAH", "PAI", "PAJ",
+            "209", "211", "CAR", "CNS", "DPP"
+    );
+
+    private CriminalEventTypes() {
+    }
+
+    public static boolean isCriminal(String documentType) {
+        return documentType != null && TYPES.contains(documentType.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,14 @@
+-- Supports the Person Detail document history paging (IdentDocumentRepository):
+--   WHERE SystemID = ? AND DocCategory = ? [AND DocumentDate/DocID below the cursor]
+--   ORDER BY DocumentDate DESC, DocID DESC
+-- Every page is a range seek in index order; NULL DocumentDates sort last in DESC order
+-- and are paged by a separate DocumentDate IS NULL seek.
+
+-- DocCategory is compared as stored: normalize legacy rows once (new rows are written normalized)
+UPDATE T_IDENT_DOCUMENTS
+SET DocCategory = UPPER(LTRIM(RTRIM(DocCategory)))
+WHERE DocCategory COLLATE Latin1_General_BIN2 <> UPPER(LTRIM(RTRIM(DocCategory)))
+   OR DATALENGTH(DocCategory) <> DATALENGTH(LTRIM(RTRIM(DocCategory))); -- <> ignores trailing spaces
+
+CREATE NONCLUSTERED INDEX IX_T_IDENT_DOCUMENTS_KEYSET
+    ON T_IDENT_DOCUMENTS (SystemID, DocCategory, DocumentDate DESC, DocID DESC);
@@ -0,0 +1,73 @@
+-- Sequences for the opt-in pooled ID generation (profile 'pooled-ids', META-INF/orm-pooled-ids.xml).
+-- INCREMENT BY must equal the allocation-size of the mapping (50).
+--
+-- Migration per table (SQL Server, in a maintenance window):
+--   1. Remove the IDENTITY property from the ID column (table rebuild, e.g. via SSMS designer or
+--      a copy + ALTER TABLE ... SWITCH); the column, its values and the primary key stay the same.
+--   2. Run this script: it starts each sequence at MAX(ID) + 50 and adds a
+--      DEFAULT (NEXT VALUE FOR ...) so inserts that omit the ID (IdentChildBatchWriter, legacy
+--      batch jobs) keep getting unique keys.
+-- Why + 50: with the 'pooled' optimizer a sequence value V reserves V-49..V, so the first value
+-- must leave the 49 IDs below it free (starting at MAX + 1 would hand out existing IDs).
+-- 'pooled-lo' (V..V+49) only leaves a gap. After that each sequence value belongs either to one
+-- Hibernate range or to one DEFAULT-generated key, so the two do not overlap.
+
+DECLARE @sql_SEQ_AUDIT_LOG NVARCHAR(200) = N'CREATE SEQUENCE SEQ_AUDIT_LOG AS BIGINT START WITH '
+    + CAST((SELECT ISNULL(MAX(id), 0) + 50 FROM T_AUDIT_LOG) AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql_SEQ_AUDIT_LOG;
+ALTER TABLE T_AUDIT_LOG ADD CONSTRAINT DF_T_AUDIT_LOG_id DEFAULT (NEXT VALUE FOR SEQ_AUDIT_LOG) FOR id;
+
+DECLARE @sql_SEQ_IDENT_ADDRESS NVARCHAR(200) = N'CREATE SEQUENCE SEQ_IDENT_ADDRESS AS BIGINT START WITH '
+    + CAST((SELECT ISNULL(MAX(AddressID), 0) + 50 FROM T_IDENT_ADDRESS) AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql_SEQ_IDENT_ADDRESS;
+ALTER TABLE T_IDENT_ADDRESS ADD CONSTRAINT DF_T_IDENT_ADDRESS_AddressID DEFAULT (NEXT VALUE FOR SEQ_IDENT_ADDRESS) FOR AddressID;
+
+DECLARE @sql_SEQ_IDENT_DL NVARCHAR(200) = N'CREATE SEQUENCE SEQ_IDENT_DL AS BIGINT START WITH '
+    + CAST((SELECT ISNULL(MAX(DlID), 0) + 50 FROM T_IDENT_DL) AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql_SEQ_IDENT_DL;
+ALTER TABLE T_IDENT_DL ADD CONSTRAINT DF_T_IDENT_DL_DlID DEFAULT (NEXT VALUE FOR SEQ_IDENT_DL) FOR DlID;
+
+DECLARE @sql_SEQ_IDENT_DOB_ALIAS NVARCHAR(200) = N'CREATE SEQUENCE SEQ_IDENT_DOB_ALIAS AS BIGINT START WITH '
+    + CAST((SELECT ISNULL(MAX(DobID), 0) + 50 FROM T_IDENT_DOB_ALIAS) AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql_SEQ_IDENT_DOB_ALIAS;
+ALTER TABLE T_IDENT_DOB_ALIAS ADD CONSTRAINT DF_T_IDENT_DOB_ALIAS_DobID DEFAULT (NEXT VALUE FOR SEQ_IDENT_DOB_ALIAS) FOR DobID;
+
+DECLARE @sql_SEQ_IDENT_DOCUMENTS NVARCHAR(200) = N'CREATE SEQUENCE SEQ_IDENT_DOCUMENTS AS BIGINT START WITH '
+    + CAST((SELECT ISNULL(MAX(DocID), 0) + 50 FROM T_IDENT_DOCUMENTS) AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql_SEQ_IDENT_DOCUMENTS;
+ALTER TABLE T_IDENT_DOCUMENTS ADD CONSTRAINT DF_T_IDENT_DOCUMENTS_DocID DEFAULT (NEXT VALUE FOR SEQ_IDENT_DOCUMENTS) FOR DocID;
+
+DECLARE @sql_SEQ_IDENT_FLAGS NVARCHAR(200) = N'CREATE SEQUENCE SEQ_IDENT_FLAGS AS BIGINT START WITH '
+    + CAST((SELECT ISNULL(MAX(FlagID), 0) + 50 FROM T_IDENT_FLAGS) AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql_SEQ_IDENT_FLAGS;
+ALTER TABLE T_IDENT_FLAGS ADD CONSTRAINT DF_T_IDENT_FLAGS_FlagID DEFAULT (NEXT VALUE FOR SEQ_IDENT_FLAGS) FOR FlagID;
+
+DECLARE @sql_SEQ_IDENT_FP_HENRY NVARCHAR(200) = N'CREATE SEQUENCE SEQ_IDENT_FP_HENRY AS BIGINT START WITH '
+    + CAST((SELECT ISNULL(MAX(HenryID), 0) + 50 FROM T_IDENT_FP_HENRY) AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql_SEQ_IDENT_FP_HENRY;
+ALTER TABLE T_IDENT_FP_HENRY ADD CONSTRAINT DF_T_IDENT_FP_HENRY_HenryID DEFAULT (NEXT VALUE FOR SEQ_IDENT_FP_HENRY) FOR HenryID;
+
+DECLARE @sql_SEQ_IDENT_MISC_NUM NVARCHAR(200) = N'CREATE SEQUENCE SEQ_IDENT_MISC_NUM AS BIGINT START WITH '
+    + CAST((SELECT ISNULL(MAX(MiscID), 0) + 50 FROM T_IDENT_MISC_NUM) AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql_SEQ_IDENT_MISC_NUM;
+ALTER TABLE T_IDENT_MISC_NUM ADD CONSTRAINT DF_T_IDENT_MISC_NUM_MiscID DEFAULT (NEXT VALUE FOR SEQ_IDENT_MISC_NUM) FOR MiscID;
+
+DECLARE @sql_SEQ_IDENT_NAMES NVARCHAR(200) = N'CREATE SEQUENCE SEQ_IDENT_NAMES AS BIGINT START WITH '
+    + CAST((SELECT ISNULL(MAX(NameID), 0) + 50 FROM T_IDENT_NAMES) AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql_SEQ_IDENT_NAMES;
+ALTER TABLE T_IDENT_NAMES ADD CONSTRAINT DF_T_IDENT_NAMES_NameID DEFAULT (NEXT VALUE FOR SEQ_IDENT_NAMES) FOR NameID;
+
+DECLARE @sql_SEQ_IDENT_FP_NCIC NVARCHAR(200) = N'CREATE SEQUENCE SEQ_IDENT_FP_NCIC AS BIGINT START WITH '
+    + CAST((SELECT ISNULL(MAX(NcicID), 0) + 50 FROM T_IDENT_FP_NCIC) AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql_SEQ_IDENT_FP_NCIC;
+ALTER TABLE T_IDENT_FP_NCIC ADD CONSTRAINT DF_T_IDENT_FP_NCIC_NcicID DEFAULT (NEXT VALUE FOR SEQ_IDENT_FP_NCIC) FOR NcicID;
+
+DECLARE @sql_SEQ_IDENT_SSN NVARCHAR(200) = N'CREATE SEQUENCE SEQ_IDENT_SSN AS BIGINT START WITH '
+    + CAST((SELECT ISNULL(MAX(SsnID), 0) + 50 FROM T_IDENT_SSN) AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql_SEQ_IDENT_SSN;
+ALTER TABLE T_IDENT_SSN ADD CONSTRAINT DF_T_IDENT_SSN_SsnID DEFAULT (NEXT VALUE FOR SEQ_IDENT_SSN) FOR SsnID;
+
+DECLARE @sql_SEQ_IDENT_SCARS_MARKS NVARCHAR(200) = N'CREATE SEQUENCE SEQ_IDENT_SCARS_MARKS AS BIGINT START WITH '
+    + CAST((SELECT ISNULL(MAX(ScarID), 0) + 50 FROM T_IDENT_SCARS_MARKS) AS NVARCHAR(20)) + N' INCREMENT BY 50';
+EXEC sp_executesql @sql_SEQ_IDENT_SCARS_MARKS;
+ALTER TABLE T_IDENT_SCARS_MARKS ADD CONSTRAINT DF_T_IDENT_SCARS_MARKS_ScarID DEFAULT (NEXT VALUE FOR SEQ_IDENT_SCARS_MARKS) FOR ScarID;
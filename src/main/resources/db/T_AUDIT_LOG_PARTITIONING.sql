@@ -0,0 +1,34 @@
+-- Monthly partitioning of T_AUDIT_LOG on [timestamp], so audit queries over a time range
+-- (GET /api/audit/logs) only read the partitions of that range.
+-- Boundaries after the last one below are added ahead of time by AuditPartitionMaintainer.
+
+CREATE PARTITION FUNCTION PF_AUDIT_LOG_MONTHLY (DATETIME2)
+    AS RANGE RIGHT FOR VALUES (
+    '2024-01-01', '2024-02-01', '2024-03-01', '2024-04-01', '2024-05-01', '2024-06-01',
+    '2024-07-01', '2024-08-01', '2024-09-01', '2024-10-01', '2024-11-01', '2024-12-01',
+    '2025-01-01', '2025-02-01', '2025-03-01', '2025-04-01', '2025-05-01', '2025-06-01',
+    '2025-07-01', '2025-08-01', '2025-09-01', '2025-10-01', '2025-11-01', '2025-12-01',
+    '2026-01-01', '2026-02-01', '2026-03-01', '2026-04-01', '2026-05-01', '2026-06-01',
+    '2026-07-01', '2026-08-01', '2026-09-01', '2026-10-01', '2026-11-01', '2026-12-01',
+    '2027-01-01', '2027-02-01', '2027-03-01', '2027-04-01', '2027-05-01', '2027-06-01',
+    '2027-07-01', '2027-08-01', '2027-09-01', '2027-10-01', '2027-11-01', '2027-12-01'
+    );
+
+CREATE PARTITION SCHEME PS_AUDIT_LOG_MONTHLY
+    AS PARTITION PF_AUDIT_LOG_MONTHLY ALL TO ([PRIMARY]);
+
+-- The clustered key must contain the partitioning column: rebuild the primary key as ([timestamp], id)
+DECLARE @pk SYSNAME = (SELECT name FROM sys.key_constraints
+                       WHERE parent_object_id = OBJECT_ID('T_AUDIT_LOG') AND type = 'PK');
+IF @pk IS NOT NULL EXEC('ALTER TABLE T_AUDIT_LOG DROP CONSTRAINT ' + QUOTENAME(@pk));
+
+ALTER TABLE T_AUDIT_LOG ADD CONSTRAINT PK_T_AUDIT_LOG
+    PRIMARY KEY CLUSTERED ([timestamp], id) ON PS_AUDIT_LOG_MONTHLY ([timestamp]);
+
+-- Partition-aligned indexes for the user / action filters:
+--   WHERE username = ? AND [timestamp] BETWEEN ... ORDER BY [timestamp] DESC, id DESC
+CREATE NONCLUSTERED INDEX IX_T_AUDIT_LOG_USERNAME
+    ON T_AUDIT_LOG (username, [timestamp] DESC, id DESC) ON PS_AUDIT_LOG_MONTHLY ([timestamp]);
+
+CREATE NONCLUSTERED INDEX IX_T_AUDIT_LOG_ACTION
+    ON T_AUDIT_LOG (action, [timestamp] DESC, id DESC) ON PS_AUDIT_LOG_MONTHLY ([timestamp]);
@@ -0,0 +1,9 @@
+-- Audit spill files whose entries have been inserted into T_AUDIT_LOG (AuditLogWriter).
+-- The marker is written in the same transaction as the entries, so a file that survives a crash
+-- after that commit is deleted on the next attempt instead of being inserted again.
+-- A row is removed once its file has been deleted.
+CREATE TABLE T_AUDIT_SPILL_REPLAYS (
+    FileName    NVARCHAR(200)   NOT NULL,
+    ReplayedAt  DATETIME2       NOT NULL,
+    CONSTRAINT PK_T_AUDIT_SPILL_REPLAYS PRIMARY KEY (FileName)
+);
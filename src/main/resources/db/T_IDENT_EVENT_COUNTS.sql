@@ -0,0 +1,11 @@
+-- Criminal / non-criminal event counters (one row per SystemID).
+-- Maintained by EventCountsService on every document insert and delete; rebuilt and
+-- drift-corrected by the verification job (POST /api/admin/event-counts/verify).
+CREATE TABLE T_IDENT_EVENT_COUNTS (
+    SystemID            BIGINT      NOT NULL,
+    CriminalCount       INT         NOT NULL,
+    NonCriminalCount    INT         NOT NULL,
+    LatestCriminalDate  DATE        NULL,
+    UpdatedAt           DATETIME2   NOT NULL,
+    CONSTRAINT PK_T_IDENT_EVENT_COUNTS PRIMARY KEY (SystemID)
+);
@@ -0,0 +1,11 @@
+-- Chunks of an extract file already loaded by ExtractLoadJob (byte range [ChunkStart, ChunkEnd)).
+-- Written in the chunk's own transaction, so a resumed load skips exactly the chunks that committed
+-- and child rows are never inserted twice. Rows of a file are removed when its load completes
+-- or is restarted from the beginning.
+CREATE TABLE T_IDENT_EXTRACT_CHUNKS (
+    FileName    NVARCHAR(400)   NOT NULL,
+    ChunkStart  BIGINT          NOT NULL,
+    ChunkEnd    BIGINT          NOT NULL,
+    LoadedAt    DATETIME2       NOT NULL,
+    CONSTRAINT PK_T_IDENT_EXTRACT_CHUNKS PRIMARY KEY (FileName, ChunkStart)
+);
@@ -0,0 +1,6 @@
+-- Change tracking on T_IDENT_FBI_MASTER so FbiOwnershipService can refresh its in-memory SID set
+-- incrementally (CHANGETABLE) instead of reloading the table. Without it the service reloads the
+-- full table on every poll. The retention must comfortably exceed ident.fbi-ownership.refresh-interval.
+ALTER DATABASE CURRENT SET CHANGE_TRACKING = ON (CHANGE_RETENTION = 2 DAYS, AUTO_CLEANUP = ON);
+
+ALTER TABLE T_IDENT_FBI_MASTER ENABLE CHANGE_TRACKING WITH (TRACK_COLUMNS_UPDATED = OFF);
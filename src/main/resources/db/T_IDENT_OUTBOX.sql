@@ -0,0 +1,24 @@
+-- Transactional outbox for IP07/DRS and III EHN notifications.
+-- Written by OutboxService in the same transaction as the Ident change; drained by OutboxDispatcher.
+CREATE TABLE T_IDENT_OUTBOX (
+    OutboxID      BIGINT IDENTITY(1,1) NOT NULL,
+    MessageType   VARCHAR(10)     NOT NULL,
+    SID           VARCHAR(10)     NOT NULL,
+    SystemID      BIGINT          NOT NULL,
+    FBINumber     VARCHAR(9)      NULL,
+    Payload       NVARCHAR(4000)  NOT NULL,
+    Status        VARCHAR(10)     NOT NULL,
+    Attempts      INT             NOT NULL DEFAULT 0,
+    NextAttemptAt DATETIME2       NOT NULL,
+    LastError     NVARCHAR(1000)  NULL,
+    CreatedAt     DATETIME2       NOT NULL,
+    SentAt        DATETIME2       NULL,
+    CONSTRAINT PK_T_IDENT_OUTBOX PRIMARY KEY (OutboxID)
+);
+
+-- Dispatcher poll: undelivered rows per SID in insertion order. Filtered, so it stays small
+-- as delivered rows accumulate.
+CREATE INDEX IX_T_IDENT_OUTBOX_UNDELIVERED
+    ON T_IDENT_OUTBOX (SID, OutboxID)
+    INCLUDE (Status, NextAttemptAt)
+    WHERE Status IN ('PENDING', 'SENDING');
@@ -0,0 +1,10 @@
+-- Denormalized Person Detail snapshot (one row per SystemID).
+-- Maintained by PersonSnapshotService; populated for existing records by the backfill job
+-- (POST /api/admin/snapshots/backfill).
+CREATE TABLE T_IDENT_PERSON_SNAPSHOT (
+    SystemID        BIGINT          NOT NULL,
+    Payload         VARBINARY(MAX)  NOT NULL,
+    SnapshotVersion BIGINT          NOT NULL,
+    BuiltAt         DATETIME2       NOT NULL,
+    CONSTRAINT PK_T_IDENT_PERSON_SNAPSHOT PRIMARY KEY (SystemID)
+);
@@ -0,0 +1,159 @@
+package md.dpscs.cch.iis.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput (rows per second) of the statement patterns Hibernate produces for each ID strategy,
+ * measured against a real SQL Server. Uses scratch tables BENCH_ID_IDENTITY / BENCH_ID_SEQUENCE.
+ * <ul>
+ *   <li>identity       - one INSERT + generated-key read per row (GenerationType.IDENTITY, no batching)</li>
+ *   <li>identity-batch - JDBC batch without key read-back (IdentChildBatchWriter)</li>
+ *   <li>pooled         - one NEXT VALUE FOR per 50 rows, INSERTs in batches of 50 (profile 'pooled-ids')</li>
+ *   <li>pooled-lo      - same statements as pooled; the reserved range starts at the sequence value</li>
+ * </ul>
+ * <pre>
+ *   mvn test-compile
+ *   java -Dbench.jdbc.url="jdbc:sqlserver://host:1433;databaseName=CCH_IDENT_SCRATCH;encrypt=true;trustServerCertificate=true" \
+ *        -Dbench.jdbc.user=... -Dbench.jdbc.password=... \
+ *        -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *        md.dpscs.cch.iis.benchmark.IdGenerationBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGenerationBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Param({"identity", "identity-batch", "pooled", "pooled-lo"})
+    public String strategy;
+
+    private Connection connection;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url"),
+                System.getProperty("bench.jdbc.user"),
+                System.getProperty("bench.jdbc.password"));
+
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS BENCH_ID_IDENTITY");
+            st.execute("DROP TABLE IF EXISTS BENCH_ID_SEQUENCE");
+            st.execute("DROP SEQUENCE IF EXISTS BENCH_ID_SEQ");
+            st.execute("CREATE TABLE BENCH_ID_IDENTITY (ID BIGINT IDENTITY PRIMARY KEY, SystemID BIGINT, Code VARCHAR(10), Description VARCHAR(50))");
+            st.execute("CREATE TABLE BENCH_ID_SEQUENCE (ID BIGINT PRIMARY KEY, SystemID BIGINT, Code VARCHAR(10), Description VARCHAR(50))");
+            st.execute("CREATE SEQUENCE BENCH_ID_SEQ AS BIGINT START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS BENCH_ID_IDENTITY");
+            st.execute("DROP TABLE IF EXISTS BENCH_ID_SEQUENCE");
+            st.execute("DROP SEQUENCE IF EXISTS BENCH_ID_SEQ");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertRows() throws SQLException {
+        switch (strategy) {
+            case "identity" -> insertIdentity();
+            case "identity-batch" -> insertIdentityBatch();
+            case "pooled" -> insertPooled(false);
+            case "pooled-lo" -> insertPooled(true);
+            default -> throw new IllegalStateException("Unknown strategy: " + strategy);
+        }
+        connection.commit();
+    }
+
+    private void insertIdentity() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO BENCH_ID_IDENTITY (SystemID, Code, Description) VALUES (?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                bindRow(ps, 1, i);
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+    }
+
+    private void insertIdentityBatch() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO BENCH_ID_IDENTITY (SystemID, Code, Description) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                bindRow(ps, 1, i);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void insertPooled(boolean lowBoundary) throws SQLException {
+        try (PreparedStatement next = connection.prepareStatement("SELECT NEXT VALUE FOR BENCH_ID_SEQ");
+             PreparedStatement ps = connection.prepareStatement(
+                     "INSERT INTO BENCH_ID_SEQUENCE (ID, SystemID, Code, Description) VALUES (?, ?, ?, ?)")) {
+            long nextId = 0;
+            long rangeEnd = 0;
+            for (int i = 0; i < ROWS; i++) {
+                if (nextId == rangeEnd) {
+                    long value;
+                    try (ResultSet rs = next.executeQuery()) {
+                        rs.next();
+                        value = rs.getLong(1);
+                    }
+                    // pooled: value is the top of the range; pooled-lo: value is the bottom
+                    nextId = lowBoundary ? value : value - ALLOCATION_SIZE + 1;
+                    rangeEnd = nextId + ALLOCATION_SIZE;
+                }
+                ps.setLong(1, nextId++);
+                bindRow(ps, 2, i);
+                ps.addBatch();
+                if ((i + 1) % ALLOCATION_SIZE == 0) ps.executeBatch(); // hibernate.jdbc.batch_size=50
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void bindRow(PreparedStatement ps, int firstIndex, int i) throws SQLException {
+        ps.setLong(firstIndex, 1000000L + i % 100);
+        ps.setString(firstIndex + 1, "SC L ARM");
+        ps.setString(firstIndex + 2, "SCAR LEFT ARM " + i);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(IdGenerationBenchmark.class.getSimpleName())
+                .jvmArgsAppend(
+                        "-Dbench.jdbc.url=" + System.getProperty("bench.jdbc.url"),
+                        "-Dbench.jdbc.user=" + System.getProperty("bench.jdbc.user"),
+                        "-Dbench.jdbc.password=" + System.getProperty("bench.jdbc.password"))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,182 @@
+package md.dpscs.cch.iis.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import md.dpscs.cch.iis.dto.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JSON, CBOR and Smile for the PersonDetailDTO response: serialize / deserialize time,
+ * plus payload sizes printed by {@link #main} before the run. "typical" is a record with a handful
+ * of rows per section, "large" one with 500 rows per section.
+ * <p>
+ * The API writes 'lastUpdated' as MM/dd/yyyy, which cannot be read back into a LocalDateTime, so the
+ * mappers here write it as a full ISO timestamp (as PersonSnapshotCodec does) to make the round trip work.
+ * </p>
+ * <pre>
+ *   mvn test-compile
+ *   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *        org.openjdk.jmh.Main PayloadFormatBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"typical", "large"})
+    public String record;
+
+    private ObjectMapper mapper;
+    private PersonDetailDTO detail;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        mapper = mapper(format);
+        detail = buildDetail("large".equals(record) ? 500 : 5);
+        encoded = mapper.writeValueAsBytes(detail);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return mapper.writeValueAsBytes(detail);
+    }
+
+    @Benchmark
+    public PersonDetailDTO deserialize() {
+        return mapper.readValue(encoded, PersonDetailDTO.class);
+    }
+
+    private static ObjectMapper mapper(String format) {
+        return switch (format) {
+            case "cbor" -> CBORMapper.builder().addMixIn(PersonDetailDTO.class, RoundTripMixin.class).build();
+            case "smile" -> SmileMapper.builder().addMixIn(PersonDetailDTO.class, RoundTripMixin.class).build();
+            default -> JsonMapper.builder().addMixIn(PersonDetailDTO.class, RoundTripMixin.class).build();
+        };
+    }
+
+    abstract static class RoundTripMixin {
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        private LocalDateTime lastUpdated;
+    }
+
+    private static PersonDetailDTO buildDetail(int rows) {
+        PersonDetailDTO dto = new PersonDetailDTO();
+        dto.setSystemId(1000001L);
+        dto.setSid("1234567");
+        dto.setFbiNumber("123456AB1");
+        dto.setRecordType("C");
+        dto.setLastUpdated(LocalDateTime.of(2024, 5, 1, 10, 30));
+        dto.setCautionFlag("YES");
+        dto.setRace("W");
+        dto.setSex("M");
+        dto.setHeight("511");
+        dto.setWeight("180");
+        dto.setEyeColor("BRO");
+        dto.setHairColor("BLK");
+        dto.setPlaceOfBirth("MD");
+        dto.setCitizenship("US");
+        dto.setPatternRight("12345");
+        dto.setPatternLeft("54321");
+
+        List<NameDTO> names = new ArrayList<>(rows);
+        List<AddressDTO> addresses = new ArrayList<>(rows);
+        List<SsnDTO> ssns = new ArrayList<>(rows);
+        List<FlagDTO> flags = new ArrayList<>(rows);
+        List<SecondaryIDDTO> secondaryIds = new ArrayList<>(rows);
+        List<DocumentDTO> documents = new ArrayList<>(rows);
+
+        for (int i = 0; i < rows; i++) {
+            NameDTO n = new NameDTO();
+            n.setId((long) i);
+            n.setNameType(i == 0 ? "P" : "A");
+            n.setLastName("SMITH" + i);
+            n.setFirstName("JOHN");
+            n.setMiddleName("QUINCY");
+            n.setDateOfBirth(LocalDate.of(1980, 1, 1).plusDays(i));
+            n.setRace("W");
+            n.setSex("M");
+            names.add(n);
+
+            AddressDTO a = new AddressDTO();
+            a.setStreetNumber(String.valueOf(100 + i));
+            a.setStreetName("MAIN");
+            a.setStreetSuffix("ST");
+            a.setCity("BALTIMORE");
+            a.setState("MD");
+            a.setZip("21201");
+            a.setFullAddress((100 + i) + " MAIN ST, BALTIMORE, MD 21201");
+            a.setIsCurrent(i == 0);
+            addresses.add(a);
+
+            SsnDTO s = new SsnDTO();
+            s.setSsn(String.format("%09d", i));
+            s.setDateRecorded(LocalDate.of(2010, 1, 1));
+            ssns.add(s);
+
+            flags.add(new FlagDTO("A", "CAUTION", "ARMED"));
+
+            SecondaryIDDTO m = new SecondaryIDDTO();
+            m.setIdType("AF-");
+            m.setIdValue(String.valueOf(500000 + i));
+            secondaryIds.add(m);
+
+            DocumentDTO d = new DocumentDTO();
+            d.setId((long) i);
+            d.setCategory("ARREST");
+            d.setDocumentType("CAR");
+            d.setDocumentNumber("DOC" + i);
+            d.setDocumentDate(LocalDate.of(2000, 1, 1).plusDays(i));
+            d.setDescription("ARREST EVENT " + i);
+            documents.add(d);
+        }
+
+        dto.setNamesAndAliases(names);
+        dto.setAddressHistory(addresses);
+        dto.setSsnHistory(ssns);
+        dto.setFlags(flags);
+        dto.setSecondaryIdentifiers(secondaryIds);
+        dto.setArrestDocuments(documents);
+        dto.setIndexDocuments(List.of());
+        dto.setGeneralReferences(List.of());
+        dto.setDocumentCounts(Map.of("ARREST", (long) rows));
+        return dto;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (String record : List.of("typical", "large")) {
+            PersonDetailDTO dto = buildDetail("large".equals(record) ? 500 : 5);
+            for (String format : List.of("json", "cbor", "smile")) {
+                System.out.printf("[payload] format=%s record=%s bytes=%d%n",
+                        format, record, mapper(format).writeValueAsBytes(dto).length);
+            }
+        }
+
+        Options options = new OptionsBuilder()
+                .include(PayloadFormatBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
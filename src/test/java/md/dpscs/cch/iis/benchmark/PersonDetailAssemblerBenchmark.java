@@ -0,0 +1,167 @@
+package md.dpscs.cch.iis.benchmark;
+
+import md.dpscs.cch.iis.dto.DetailSection;
+import md.dpscs.cch.iis.dto.PersonDetailDTO;
+import md.dpscs.cch.iis.model.*;
+import md.dpscs.cch.iis.service.DocumentHistoryService;
+import md.dpscs.cch.iis.service.PersonDetailAssembler;
+import md.dpscs.cch.iis.util.MainframeDataUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures PersonDetailDTO assembly alone (no database) for records with 1, 50 and 500 rows
+ * in every child table. Run with the GC profiler to watch allocation per record:
+ * <pre>
+ *   mvn test-compile
+ *   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *        org.openjdk.jmh.Main PersonDetailAssemblerBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersonDetailAssemblerBenchmark {
+
+    private static final String[] CATEGORIES = {"ARREST", "INDEX", "REFER"};
+
+    @Param({"1", "50", "500"})
+    public int childRows;
+
+    private PersonDetailAssembler assembler;
+    private IdentMaster master;
+    private PersonDetailAssembler.Rows rows;
+    private Map<String, String> cautionMap;
+
+    @Setup
+    public void setUp() {
+        assembler = new PersonDetailAssembler(new MainframeDataUtils());
+        cautionMap = Map.of("A", "ARMED", "B", "DANGEROUS", "C", "ESCAPE RISK");
+
+        master = new IdentMaster();
+        master.setSystemId(1000001L);
+        master.setSid("1234567");
+        master.setFbiNumber("123456AB1");
+        master.setRecordType(" ");
+        master.setLastUpdateDate(LocalDateTime.now());
+        master.setRaceCode("W");
+        master.setSexCode("M");
+        master.setHeight("511");
+        master.setWeight("180");
+
+        List<IdentName> names = new ArrayList<>(childRows);
+        List<IdentAddress> addresses = new ArrayList<>(childRows);
+        List<IdentSSN> ssns = new ArrayList<>(childRows);
+        List<IdentDL> dls = new ArrayList<>(childRows);
+        List<IdentMiscNum> misc = new ArrayList<>(childRows);
+        List<IdentDobAlias> dobs = new ArrayList<>(childRows);
+        List<IdentFlag> flags = new ArrayList<>(childRows);
+        List<IdentScarsMarks> scars = new ArrayList<>(childRows);
+        List<IdentHenryFP> henry = new ArrayList<>(childRows);
+        List<IdentNcicFP> ncic = new ArrayList<>(childRows);
+        List<IdentDocument> arrestDocs = new ArrayList<>(childRows);
+        List<IdentDocument> indexDocs = new ArrayList<>(childRows);
+        List<IdentDocument> referDocs = new ArrayList<>(childRows);
+
+        for (int i = 0; i < childRows; i++) {
+            IdentName n = new IdentName();
+            n.setNameId((long) i);
+            n.setNameType(i == 0 ? "P" : "A");
+            n.setLastName("SMITH" + i);
+            n.setFirstName("JOHN");
+            n.setMiddleName("Q");
+            n.setMiddleInitial("Q");
+            n.setDateOfBirth(LocalDate.of(1980, 1, 1));
+            n.setMafisFingerprint("12345  543");
+            names.add(n);
+
+            IdentAddress a = new IdentAddress();
+            a.setStreetNumber(String.valueOf(100 + i));
+            a.setStreetName("MAIN");
+            a.setStreetSuffix("ST");
+            a.setCity("BALTIMORE");
+            a.setStateCode("MD");
+            a.setIsCurrent(i == 0);
+            addresses.add(a);
+
+            IdentSSN s = new IdentSSN();
+            s.setSsn(String.format("%09d", i));
+            s.setDateRecorded(LocalDateTime.now());
+            ssns.add(s);
+
+            IdentDL dl = new IdentDL();
+            dl.setLicenseNumber("S" + (100000000L + i));
+            dl.setStateSource("MD");
+            dls.add(dl);
+
+            IdentMiscNum m = new IdentMiscNum();
+            m.setMiscNumType("AF-");
+            m.setMiscNumber(String.valueOf(500000 + i));
+            misc.add(m);
+
+            IdentDobAlias d = new IdentDobAlias();
+            d.setDateOfBirth(LocalDate.of(1970 + (i % 30), 1, 1));
+            dobs.add(d);
+
+            IdentFlag f = new IdentFlag();
+            f.setFlagType(i % 2 == 0 ? "CAUTION" : "STATUS");
+            f.setFlagCode(i % 3 == 0 ? "A" : "B");
+            flags.add(f);
+
+            IdentScarsMarks sm = new IdentScarsMarks();
+            sm.setCode("SC L ARM");
+            sm.setDescription("SCAR LEFT ARM");
+            scars.add(sm);
+
+            IdentHenryFP h = new IdentHenryFP();
+            h.setPrimaryHenry("18 W 1 U");
+            h.setFpcHenry("18 W 1 U III 17");
+            henry.add(h);
+
+            IdentNcicFP nc = new IdentNcicFP();
+            nc.setFpcPattern("POPOPOPOPOPOPOPOPOPO");
+            ncic.add(nc);
+
+            IdentDocument doc = new IdentDocument();
+            doc.setDocId((long) i);
+            doc.setDocCategory(CATEGORIES[i % 3]);
+            doc.setDocumentType("CAR");
+            doc.setDocumentNumber("DOC" + i);
+            doc.setDocumentDate(LocalDate.of(2000, 1, 1).plusDays(i));
+            doc.setDescription("ARREST EVENT " + i);
+            (i % 3 == 0 ? arrestDocs : i % 3 == 1 ? indexDocs : referDocs).add(doc);
+        }
+
+        var docs = new DocumentHistoryService.FirstPages(
+                Map.of("ARREST", (long) arrestDocs.size(), "INDEX", (long) indexDocs.size(), "REFER", (long) referDocs.size()),
+                arrestDocs, indexDocs, referDocs);
+
+        rows = new PersonDetailAssembler.Rows(names, addresses, ssns, dls, misc, dobs, flags, scars, henry, ncic, docs);
+    }
+
+    @Benchmark
+    public PersonDetailDTO assembleAllSections() {
+        return assembler.assemble(master, rows, DetailSection.all(), cautionMap);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PersonDetailAssemblerBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,78 @@
+package md.dpscs.cch.iis.benchmark;
+
+import md.dpscs.cch.iis.util.StripedLock;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Edit throughput with 64 concurrent editors under the in-process part of RecordLockService.
+ * Each edit picks a SystemID out of {@code records} and holds its lock for {@code work} CPU tokens
+ * (standing in for the load / diff / flush of an update).
+ * <ul>
+ *   <li>global  - one lock for all records (what a synchronized service method would give)</li>
+ *   <li>striped - StripedLock with 1024 stripes (RecordLockService)</li>
+ *   <li>per-key - one lock per SystemID in a ConcurrentHashMap (exact, but grows without bound)</li>
+ * </ul>
+ * records=8 models many editors on a few hot records; 100000 models editors spread across the index.
+ * The database row lock is not part of this measurement.
+ * <pre>
+ *   mvn test-compile
+ *   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *        md.dpscs.cch.iis.benchmark.RecordLockBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class RecordLockBenchmark {
+
+    @Param({"global", "striped", "per-key"})
+    public String strategy;
+
+    @Param({"8", "100000"})
+    public int records;
+
+    @Param({"200"})
+    public int work;
+
+    private final ReentrantLock globalLock = new ReentrantLock();
+    private final StripedLock stripedLock = new StripedLock(1024);
+    private final ConcurrentHashMap<Long, ReentrantLock> perKeyLocks = new ConcurrentHashMap<>();
+
+    @Benchmark
+    public void edit() {
+        long systemId = 1_000_000L + ThreadLocalRandom.current().nextInt(records);
+        ReentrantLock lock = switch (strategy) {
+            case "global" -> globalLock;
+            case "striped" -> stripedLock.get(systemId);
+            default -> perKeyLocks.computeIfAbsent(systemId, id -> new ReentrantLock());
+        };
+
+        lock.lock();
+        try {
+            Blackhole.consumeCPU(work);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RecordLockBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,77 @@
+package md.dpscs.cch.iis.job;
+
+import md.dpscs.cch.iis.dto.BulkDemographicsRequest;
+import md.dpscs.cch.iis.dto.JobStatusDTO;
+import md.dpscs.cch.iis.event.IdentRecordChangedEvent;
+import md.dpscs.cch.iis.repository.IdentMasterRepository;
+import md.dpscs.cch.iis.repository.IdentNameRepository;
+import md.dpscs.cch.iis.service.AuditService;
+import md.dpscs.cch.iis.service.IdentUpdateService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unknown SystemIDs in a chunk are counted as failed without failing the chunk or publishing
+ * change events for records that do not exist.
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkDemographicsJobTest {
+
+    @Mock private IdentMasterRepository masterRepo;
+    @Mock private IdentNameRepository nameRepo;
+    @Mock private IdentUpdateService updateService;
+    @Mock private AuditService auditService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private BulkDemographicsJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new BulkDemographicsJob(masterRepo, nameRepo, updateService, auditService, eventPublisher, transactionManager);
+        ReflectionTestUtils.setField(job, "chunkSize", 500);
+    }
+
+    @Test
+    void unknownSystemIdIsCountedAsFailed() throws InterruptedException {
+        when(masterRepo.lockExistingSystemIds(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+        when(masterRepo.bulkUpdateDemographics(eq(List.of(1L, 3L)), eq("W"), isNull(), isNull(), isNull(),
+                isNull(), isNull(), isNull(), any())).thenReturn(2);
+
+        BulkDemographicsRequest request = new BulkDemographicsRequest();
+        request.setSystemIds(List.of(3L, 2L, 1L));
+        request.setRace("w");
+        job.start(request, "tester", "127.0.0.1");
+
+        JobStatusDTO status = awaitFinished();
+        assertThat(status.getStatus()).isEqualTo("COMPLETED");
+        assertThat(status.getProcessed()).isEqualTo(2);
+        assertThat(status.getFailed()).isEqualTo(1);
+
+        verify(nameRepo).bulkUpdateRaceSex(List.of(1L, 3L), "W", null);
+        verify(eventPublisher).publishEvent(IdentRecordChangedEvent.updated(1L));
+        verify(eventPublisher).publishEvent(IdentRecordChangedEvent.updated(3L));
+        verify(eventPublisher, never()).publishEvent(IdentRecordChangedEvent.updated(2L));
+    }
+
+    private JobStatusDTO awaitFinished() throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            JobStatusDTO status = job.status();
+            if (!"RUNNING".equals(status.getStatus())) return status;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Bulk demographic update did not finish");
+    }
+}
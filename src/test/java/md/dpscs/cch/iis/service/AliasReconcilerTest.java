@@ -0,0 +1,159 @@
+package md.dpscs.cch.iis.service;
+
+import md.dpscs.cch.iis.dto.UpdateNameRequest;
+import md.dpscs.cch.iis.model.IdentMaster;
+import md.dpscs.cch.iis.model.IdentName;
+import md.dpscs.cch.iis.repository.IdentChildBatchWriter;
+import md.dpscs.cch.iis.repository.IdentNameRepository;
+import md.dpscs.cch.iis.util.MainframeDataUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Statement-count regression for alias edits: the number of database round trips
+ * must not grow with the number of aliases in the request.
+ */
+@ExtendWith(MockitoExtension.class)
+class AliasReconcilerTest {
+
+    private static final long SYSTEM_ID = 1000001L;
+
+    @Mock
+    private IdentNameRepository nameRepo;
+
+    @Mock
+    private IdentChildBatchWriter batchWriter;
+
+    private AliasReconciler reconciler;
+    private IdentMaster master;
+    private List<IdentName> onFile;
+
+    @BeforeEach
+    void setUp() {
+        reconciler = new AliasReconciler(nameRepo, batchWriter, new MainframeDataUtils());
+        master = new IdentMaster();
+        master.setSystemId(SYSTEM_ID);
+
+        onFile = new ArrayList<>();
+        onFile.add(name(1L, "P", "SMITH", "JOHN", 1));
+        for (int i = 0; i < 10; i++) {
+            onFile.add(name(100L + i, "A", "ALIAS" + i, "JOHN", 2 + i));
+        }
+        when(nameRepo.findByMaster_SystemId(SYSTEM_ID)).thenReturn(onFile);
+    }
+
+    @Test
+    void thirtyAliasEditUsesConstantRoundTrips() {
+        List<UpdateNameRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) requests.add(delete(100L + i));              // 5 deletes
+        for (int i = 5; i < 10; i++) requests.add(update(100L + i, "RENAMED" + i)); // 5 updates
+        for (int i = 0; i < 20; i++) requests.add(insert("NEW" + i));            // 20 inserts
+
+        AliasReconciler.Result result = reconciler.reconcile(master, requests);
+
+        assertThat(result.deletedIds()).hasSize(5);
+        assertThat(result.updated()).isEqualTo(5);
+        assertThat(result.inserted()).isEqualTo(20);
+
+        // One load, one bulk delete, one flush of the updates, one insert batch
+        verify(nameRepo, times(1)).findByMaster_SystemId(SYSTEM_ID);
+        verify(nameRepo, times(1)).deleteAllByIdInBatch(any());
+        verify(nameRepo, times(1)).flush();
+        verify(batchWriter, times(1)).insertNames(anyList());
+        verifyNoMoreInteractions(nameRepo, batchWriter);
+    }
+
+    @Test
+    void newAliasesGetConsecutiveSequenceNumbersAfterTheHighestOnFile() {
+        reconciler.reconcile(master, List.of(insert("NEWA"), insert("NEWB")));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<IdentName>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(batchWriter).insertNames(inserted.capture());
+        assertThat(inserted.getValue()).extracting(IdentName::getSequenceNumber).containsExactly(12, 13);
+        assertThat(inserted.getValue()).extracting(IdentName::getSoundexCode).doesNotContainNull();
+    }
+
+    @Test
+    void duplicateOfExistingAliasIsRejectedWithoutWriting() {
+        assertThatThrownBy(() -> reconciler.reconcile(master, List.of(insert("ALIAS3"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Duplicate Alias Name");
+
+        verify(batchWriter, never()).insertNames(anyList());
+    }
+
+    @Test
+    void aliasDeletedInTheSameEditCanBeReAdded() {
+        reconciler.reconcile(master, List.of(delete(103L), insert("ALIAS3")));
+
+        verify(nameRepo).deleteAllByIdInBatch(any());
+        verify(batchWriter).insertNames(argThat(list -> list.size() == 1));
+    }
+
+    @Test
+    void resubmittingUnchangedAliasesWritesNothing() {
+        List<UpdateNameRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) requests.add(update(100L + i, "ALIAS" + i));
+
+        AliasReconciler.Result result = reconciler.reconcile(master, requests);
+
+        assertThat(result.deletedIds()).isEmpty();
+        assertThat(result.inserted()).isZero();
+        assertThat(result.updated()).isZero();
+        verify(nameRepo, never()).flush();
+        verify(nameRepo, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void aliasMatchingPrimaryNameIsRejected() {
+        assertThatThrownBy(() -> reconciler.reconcile(master, List.of(insert("SMITH"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("primary name");
+    }
+
+    private static IdentName name(Long id, String type, String last, String first, int seq) {
+        IdentName n = new IdentName();
+        n.setNameId(id);
+        n.setNameType(type);
+        n.setLastName(last);
+        n.setFirstName(first);
+        n.setMiddleName("");
+        n.setMiddleInitial("");
+        n.setSoundexCode(new MainframeDataUtils().calculateStandardSoundex(last));
+        n.setSequenceNumber(seq);
+        return n;
+    }
+
+    private static UpdateNameRequest insert(String last) {
+        UpdateNameRequest req = new UpdateNameRequest();
+        req.setLastName(last);
+        req.setFirstName("John");
+        return req;
+    }
+
+    private static UpdateNameRequest update(Long id, String last) {
+        UpdateNameRequest req = insert(last);
+        req.setId(id);
+        return req;
+    }
+
+    private static UpdateNameRequest delete(Long id) {
+        UpdateNameRequest req = update(id, "X");
+        req.setIsMarkedForDeletion(true);
+        return req;
+    }
+}
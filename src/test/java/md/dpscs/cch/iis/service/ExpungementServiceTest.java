@@ -0,0 +1,200 @@
+package md.dpscs.cch.iis.service;
+
+import md.dpscs.cch.iis.dto.ExpungementRequest;
+import md.dpscs.cch.iis.model.IdentDocument;
+import md.dpscs.cch.iis.model.IdentMaster;
+import md.dpscs.cch.iis.model.IdentName;
+import md.dpscs.cch.iis.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Statement-count regression for expungements: whatever the delete type, the record's documents,
+ * names, SSNs, addresses and FBI ownership are each read once per request.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ExpungementServiceTest {
+
+    private static final long SYSTEM_ID = 2000001L;
+    private static final String SID = "01234567";
+
+    @Mock private IdentMasterRepository masterRepo;
+    @Mock private IdentNameRepository nameRepo;
+    @Mock private IdentDocumentRepository docRepo;
+    @Mock private IdentAddressRepository addressRepo;
+    @Mock private IdentSSNRepository ssnRepo;
+    @Mock private IdentRecordPurger recordPurger;
+    @Mock private IdentExpungementRepository expungementRepo;
+    @Mock private IdentFbiDowngradeRepository fbiDowngradeRepo;
+    @Mock private FbiOwnershipService fbiOwnership;
+    @Mock private AuditService auditService;
+    @Mock private OutboxService outboxService;
+    @Mock private RecordLockService recordLock;
+    @Mock private EventCountsService eventCounts;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ExpungementService service;
+
+    private IdentMaster master;
+    private List<IdentDocument> documents;
+
+    @BeforeEach
+    void setUp() {
+        master = new IdentMaster();
+        master.setSystemId(SYSTEM_ID);
+        master.setSid(SID);
+        master.setRecordType("C");
+        documents = new ArrayList<>();
+
+        IdentName primary = new IdentName();
+        primary.setNameType("P");
+        primary.setLastName("SMITH");
+        primary.setMafisFingerprint("12345");
+
+        when(recordLock.lockForUpdate(SYSTEM_ID)).thenReturn(master);
+        when(docRepo.findByMaster_SystemId(SYSTEM_ID)).thenReturn(documents);
+        when(nameRepo.findByMaster_SystemId(SYSTEM_ID)).thenReturn(List.of(primary));
+        when(ssnRepo.findByMaster_SystemId(SYSTEM_ID)).thenReturn(List.of());
+        when(addressRepo.findByMaster_SystemId(SYSTEM_ID)).thenReturn(List.of());
+        when(fbiOwnership.isFbiOwned(SID)).thenReturn(true);
+        when(fbiDowngradeRepo.findFirstBySystemIdAndSidAndFbiRecordIndicatorOrderByProcessTimestampDesc(
+                anyLong(), anyString(), anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void cancelEntireReadsRecordOnce() {
+        document(1L, "BIN");
+
+        assertThat(service.processExpungement(request("CANCEL_ENTIRE", null)))
+                .isEqualTo("REC IS FBI OWNED - DRS MSG NOT SENT");
+
+        assertRecordReadOnce();
+        verify(recordPurger, times(1)).purge(SYSTEM_ID);
+        verify(docRepo, never()).deleteAll(any());
+        verifyNoInteractions(masterRepo);
+    }
+
+    @Test
+    void downgradeReadsRecordOnce() {
+        document(1L, "BIN");
+        document(2L, "MAF");
+
+        service.processExpungement(request("DOWNGRADE", 1L));
+
+        assertRecordReadOnce();
+        verify(docRepo).deleteAll(List.of(documents.getFirst()));
+        assertThat(master.getRecordType()).isEqualTo("N");
+    }
+
+    @Test
+    void dataIntegrityDowngradeReadsRecordOnce() {
+        master.setRecordType("T");
+        document(1L, "BIN");
+        document(2L, "CNS");
+
+        ExpungementRequest req = request("DOWNGRADE", null);
+        req.setRequestingUnit("DATA_INTEGRITY");
+        service.processExpungement(req);
+
+        assertRecordReadOnce();
+        verify(docRepo).deleteAll(List.of(documents.getFirst()));
+    }
+
+    @Test
+    void partCancelReadsRecordOnce() {
+        document(1L, "BIN");
+        document(2L, "WAR");
+
+        service.processExpungement(request("PART_CANCEL", 2L));
+
+        assertRecordReadOnce();
+        verify(docRepo).delete(documents.get(1));
+        verify(eventCounts).documentsRemoved(SYSTEM_ID, List.of(documents.get(1)));
+    }
+
+    @Test
+    void partialReadsRecordOnce() {
+        document(1L, "BIN");
+        document(2L, "WAR");
+
+        service.processExpungement(request("PARTIAL", 1L));
+
+        assertRecordReadOnce();
+        verify(docRepo).delete(documents.getFirst());
+    }
+
+    @Test
+    void cancelReadsRecordOnce() {
+        document(1L, "BIN");
+        document(2L, "MAF");
+
+        service.processExpungement(request("CANCEL", 2L));
+
+        assertRecordReadOnce();
+        verify(docRepo).delete(documents.get(1));
+    }
+
+    @Test
+    void cancelRejectsDocumentOfAnotherRecord() {
+        document(1L, "BIN");
+        document(2L, "MAF");
+        when(docRepo.existsById(99L)).thenReturn(true);
+
+        assertThatThrownBy(() -> service.processExpungement(request("CANCEL", 99L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not belong");
+
+        verify(docRepo, never()).delete(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private void assertRecordReadOnce() {
+        verify(recordLock, times(1)).lockForUpdate(SYSTEM_ID);
+        verify(docRepo, times(1)).findByMaster_SystemId(SYSTEM_ID);
+        verify(nameRepo, times(1)).findByMaster_SystemId(SYSTEM_ID);
+        verify(ssnRepo, times(1)).findByMaster_SystemId(SYSTEM_ID);
+        verify(addressRepo, times(1)).findByMaster_SystemId(SYSTEM_ID);
+        verify(fbiOwnership, times(1)).isFbiOwned(SID);
+
+        verify(docRepo, never()).findById(anyLong());
+        verify(docRepo, never()).countByMaster_SystemId(anyLong());
+        verify(docRepo, never()).countByMaster_SystemIdAndDocumentTypeIn(anyLong(), anyList());
+    }
+
+    private void document(Long docId, String type) {
+        IdentDocument doc = new IdentDocument();
+        doc.setDocId(docId);
+        doc.setMaster(master);
+        doc.setDocumentType(type);
+        doc.setDocumentDate(LocalDate.of(2020, 1, docId.intValue()));
+        documents.add(doc);
+    }
+
+    private ExpungementRequest request(String deleteType, Long documentId) {
+        ExpungementRequest req = new ExpungementRequest();
+        req.setDeleteType(deleteType);
+        req.setSystemId(SYSTEM_ID);
+        req.setDocumentId(documentId);
+        req.setUsername("tester");
+        req.setUserIp("127.0.0.1");
+        return req;
+    }
+}